@@ -0,0 +1,60 @@
+package com.deviget.minesweeper.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.deviget.minesweeper.game.engine.BoardGenerator;
+import com.deviget.minesweeper.model.Cell;
+import com.deviget.minesweeper.model.PackedBoard;
+
+/**
+ * Board-wide passes run over row bands, see {@link com.deviget.minesweeper.model.RowBands}. Run through
+ * {@link BoardBenchmarkRunner} to compare them per number of cores.
+ *
+ * @author david.rios
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Param({ "250", "1000" })
+    private int size;
+
+    private PackedBoard board;
+
+    private Cell[][] cells;
+
+    @Setup
+    public void setup() {
+        board = BoardGenerator.generate(size, size, size * size / 6, 42L, 0, 0);
+        cells = board.toCells();
+    }
+
+    @Benchmark
+    public PackedBoard generate() {
+        return BoardGenerator.generate(size, size, size * size / 6, 42L, 0, 0);
+    }
+
+    @Benchmark
+    public PackedBoard fromCells() {
+        return PackedBoard.fromCells(cells);
+    }
+
+    @Benchmark
+    public Cell[][] toCells() {
+        return board.toCells();
+    }
+}
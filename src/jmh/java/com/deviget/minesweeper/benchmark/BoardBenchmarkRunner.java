@@ -0,0 +1,61 @@
+package com.deviget.minesweeper.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs {@link BoardBenchmark} once per number of cores of the common fork-join pool, and prints the speedup of each
+ * pass over the sequential run (1 core).
+ * <p>
+ * Usage: <code>mvn -Pbenchmark test-compile exec:exec [-Dcores=1,2,4,8]</code>
+ *
+ * @author david.rios
+ */
+public class BoardBenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        List<Integer> cores = new ArrayList<>();
+        String value = args.length > 0 ? args[0] : "";
+        for (String core : value.split(",")) {
+            if (!core.trim()
+                    .isEmpty()) {
+                cores.add(Integer.valueOf(core.trim()));
+            }
+        }
+        if (cores.isEmpty()) {
+            int available = Runtime.getRuntime()
+                    .availableProcessors();
+            for (int core = 1; core < available; core *= 2) {
+                cores.add(core);
+            }
+            cores.add(available);
+        }
+        Map<String, Double> baseline = new LinkedHashMap<>();
+        StringBuilder report = new StringBuilder(String.format("%n%-28s %6s %12s %8s%n", "Benchmark", "Cores", "ms/op", "Speedup"));
+        for (int core : cores) {
+            Options options = new OptionsBuilder().include(BoardBenchmark.class.getName())
+                    .jvmArgsAppend("-Djava.util.concurrent.ForkJoinPool.common.parallelism=" + core)
+                    .build();
+            Collection<RunResult> results = new Runner(options).run();
+            for (RunResult result : results) {
+                String name = result.getParams()
+                        .getBenchmark()
+                        .replaceFirst(".*\\.", "") + " (" + result.getParams()
+                                .getParam("size") + ")";
+                double score = result.getPrimaryResult()
+                        .getScore();
+                baseline.putIfAbsent(name, score);
+                report.append(String.format("%-28s %6d %12.3f %7.2fx%n", name, core, score, baseline.get(name) / score));
+            }
+        }
+        System.out.println(report);
+    }
+}
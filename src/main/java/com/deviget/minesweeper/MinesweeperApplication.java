@@ -2,6 +2,8 @@ package com.deviget.minesweeper;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * RESTful API for Minesweeper game.
@@ -25,6 +27,8 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @author david.rios
  */
 @SpringBootApplication
+@EnableAsync
+@EnableScheduling
 public class MinesweeperApplication {
 
     public static void main(String[] args) {
@@ -21,6 +21,7 @@ import com.deviget.minesweeper.payload.request.SignupRequest;
 import com.deviget.minesweeper.payload.response.LoginResponse;
 import com.deviget.minesweeper.payload.response.MessageResponse;
 import com.deviget.minesweeper.repository.UserRepository;
+import com.deviget.minesweeper.security.service.UserDetailsCache;
 import com.deviget.minesweeper.security.service.UserDetailsImpl;
 import com.deviget.minesweeper.security.token.TokenUtils;
 
@@ -46,6 +47,9 @@ public class AuthController {
     @Autowired
     private TokenUtils jwtUtils;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
     /**
      * Handles user registration.
      * 
@@ -68,6 +72,7 @@ public class AuthController {
         User user = new User(signUpRequest.getUsername(), signUpRequest.getEmail(), encoder.encode(signUpRequest.getPassword()));
 
         userRepository.save(user);
+        userDetailsCache.invalidate(user.getUsername());
 
         return ResponseEntity.ok(new MessageResponse("User registered"));
     }
@@ -0,0 +1,144 @@
+package com.deviget.minesweeper.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+import com.deviget.minesweeper.model.GameStatus;
+import com.deviget.minesweeper.model.PackedBoard;
+import com.deviget.minesweeper.payload.dto.GameDto;
+
+/**
+ * Reads and writes a {@link GameDto} as <code>application/x-minesweeper-board</code>, a compact binary representation
+ * with the same layout for requests and responses:
+ * <ol>
+ * <li>format version (1 byte)</li>
+ * <li>id and timer (8 bytes each, -1 if absent)</li>
+ * <li>size, mines and remaining cells (4 bytes each, -1 if absent)</li>
+ * <li>game status code (1 byte, -1 if absent, see {@link GameStatus})</li>
+ * <li>the board, as stored in {@link PackedBoard}, up to the end of the body, or nothing if the game has no board</li>
+ * </ol>
+ * Numbers are big-endian. The cell coordinates are implied by their position, so the board takes one byte per cell.
+ * <p>
+ * Registered after the default converters, see {@link WebConfig}, so JSON stays the default representation.
+ *
+ * @author david.rios
+ */
+public class GameBoardMessageConverter extends AbstractHttpMessageConverter<GameDto> {
+
+    public static final byte FORMAT_VERSION = 1;
+
+    public static final int HEADER_LENGTH = 30;
+
+    /**
+     * Largest board accepted in a request, of {@link PackedBoard#MAX_SIZE} rows and columns.
+     */
+    private static final int MAX_BOARD_LENGTH = PackedBoard.HEADER_LENGTH + PackedBoard.MAX_SIZE * PackedBoard.MAX_SIZE;
+
+    private static final GameStatus[] STATUSES = GameStatus.values();
+
+    public GameBoardMessageConverter() {
+        super(MediaType.parseMediaType(GameController.APPLICATION_BOARD_VALUE));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return GameDto.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected GameDto readInternal(Class<? extends GameDto> clazz, HttpInputMessage inputMessage) throws IOException {
+        DataInputStream in = new DataInputStream(inputMessage.getBody());
+        GameDto gameDto = new GameDto();
+        try {
+            if (in.readByte() != FORMAT_VERSION) {
+                throw new HttpMessageNotReadableException("Unsupported board format", inputMessage);
+            }
+            gameDto.setId(toLong(in.readLong()));
+            gameDto.setTimer(toLong(in.readLong()));
+            gameDto.setSize(toInteger(in.readInt()));
+            gameDto.setMines(toInteger(in.readInt()));
+            gameDto.setRemainingCells(toInteger(in.readInt()));
+            int status = in.readByte();
+            if (status >= STATUSES.length) {
+                throw new HttpMessageNotReadableException("Invalid game status: " + status, inputMessage);
+            }
+            gameDto.setStatus(status >= 0 ? STATUSES[status].name() : null);
+        } catch (EOFException e) {
+            throw new HttpMessageNotReadableException("Truncated game header", e, inputMessage);
+        }
+        byte[] board = readBoard(in);
+        if (board.length > MAX_BOARD_LENGTH) {
+            throw new HttpMessageNotReadableException("Board larger than " + MAX_BOARD_LENGTH + " bytes", inputMessage);
+        }
+        if (board.length > 0) {
+            try {
+                gameDto.setPackedBoard(PackedBoard.fromBytes(board));
+            } catch (IllegalArgumentException e) {
+                throw new HttpMessageNotReadableException(e.getMessage(), e, inputMessage);
+            }
+        }
+        return gameDto;
+    }
+
+    @Override
+    protected void writeInternal(GameDto gameDto, HttpOutputMessage outputMessage) throws IOException {
+        PackedBoard board = gameDto.getPackedBoard();
+        if (board == null && gameDto.getCells() != null) {
+            board = PackedBoard.fromCells(gameDto.getCells());
+        }
+        DataOutputStream out = new DataOutputStream(outputMessage.getBody());
+        out.writeByte(FORMAT_VERSION);
+        out.writeLong(gameDto.getId() != null ? gameDto.getId() : -1L);
+        out.writeLong(gameDto.getTimer() != null ? gameDto.getTimer() : -1L);
+        out.writeInt(gameDto.getSize() != null ? gameDto.getSize() : -1);
+        out.writeInt(gameDto.getMines() != null ? gameDto.getMines() : -1);
+        out.writeInt(gameDto.getRemainingCells() != null ? gameDto.getRemainingCells() : -1);
+        out.writeByte(gameDto.getStatus() != null ? GameStatus.valueOf(gameDto.getStatus())
+                .ordinal() : -1);
+        if (board != null) {
+            out.write(board.getData());
+        }
+        out.flush();
+    }
+
+    @Override
+    protected Long getContentLength(GameDto gameDto, MediaType contentType) {
+        if (gameDto.getPackedBoard() != null) {
+            return (long) HEADER_LENGTH + gameDto.getPackedBoard()
+                    .getData().length;
+        }
+        // Boards given as cells are encoded while writing.
+        return gameDto.getCells() == null ? (long) HEADER_LENGTH : null;
+    }
+
+    /**
+     * Reads the rest of the body, up to one byte past the largest board, so larger bodies are rejected without
+     * buffering them.
+     */
+    private static byte[] readBoard(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer, 0, Math.min(buffer.length, MAX_BOARD_LENGTH + 1 - out.size()))) > 0) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static Long toLong(long value) {
+        return value >= 0 ? value : null;
+    }
+
+    private static Integer toInteger(int value) {
+        return value >= 0 ? value : null;
+    }
+}
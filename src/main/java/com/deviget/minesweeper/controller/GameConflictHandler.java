@@ -0,0 +1,59 @@
+package com.deviget.minesweeper.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import com.deviget.minesweeper.game.service.GameService;
+import com.deviget.minesweeper.game.service.GameVersionConflictException;
+import com.deviget.minesweeper.model.Game;
+import com.deviget.minesweeper.payload.response.VersionConflictResponse;
+
+/**
+ * Answers updates of a game which was updated concurrently with 409, along with the current version of the game, so
+ * clients can reload it and retry.
+ *
+ * @author david.rios
+ */
+@RestControllerAdvice(assignableTypes = GameController.class)
+public class GameConflictHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameConflictHandler.class);
+
+    @Autowired
+    private GameService gameService;
+
+    /**
+     * Handles saves sent with a version which is not the current one.
+     */
+    @ExceptionHandler(GameVersionConflictException.class)
+    public ResponseEntity<VersionConflictResponse> handleConflict(GameVersionConflictException e) {
+        return conflict(e.getMessage(), e.getId(), e.getVersion());
+    }
+
+    /**
+     * Handles updates which lost the race against a concurrent update of the same game.
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<VersionConflictResponse> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException e) {
+        if (!Game.class.getName().equals(e.getPersistentClassName()) || !(e.getIdentifier() instanceof Long)) {
+            throw e;
+        }
+        Long id = (Long) e.getIdentifier();
+        Long version = gameService.getVersion(id);
+        logger.debug(">>> concurrent update of game {}, current version: {}", id, version);
+        return conflict("Game " + id + " was updated concurrently, current version: " + version, id, version);
+    }
+
+    private static ResponseEntity<VersionConflictResponse> conflict(String message, Long id, Long version) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CONFLICT);
+        if (version != null) {
+            response.eTag(GameController.gameETag(id, version));
+        }
+        return response.body(new VersionConflictResponse(message, id, version));
+    }
+}
@@ -1,23 +1,50 @@
 package com.deviget.minesweeper.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.stream.Collectors;
 import javax.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.ResponseEntity.BodyBuilder;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.deviget.minesweeper.game.service.GameCursor;
 import com.deviget.minesweeper.game.service.GameService;
+import com.deviget.minesweeper.game.service.GameSolverService;
+import com.deviget.minesweeper.game.service.GameUpdate;
+import com.deviget.minesweeper.game.service.GameVersionMismatchException;
 import com.deviget.minesweeper.model.Game;
+import com.deviget.minesweeper.model.GameMove;
 import com.deviget.minesweeper.payload.dto.GameDto;
+import com.deviget.minesweeper.payload.request.ActionsRequest;
+import com.deviget.minesweeper.payload.request.CellRequest;
+import com.deviget.minesweeper.payload.request.MovesRequest;
+import com.deviget.minesweeper.payload.response.ActionsResponse;
+import com.deviget.minesweeper.payload.response.GameDiffResponse;
+import com.deviget.minesweeper.payload.response.GamePageResponse;
+import com.deviget.minesweeper.payload.response.HintResponse;
 import com.deviget.minesweeper.payload.response.MessageResponse;
+import com.deviget.minesweeper.payload.response.ProbabilitiesResponse;
+import com.deviget.minesweeper.payload.response.RegionResponse;
+import com.deviget.minesweeper.repository.GameSummary;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * Controller class which handles the life cycle of mine sweeper games.
@@ -30,47 +57,302 @@ import com.deviget.minesweeper.payload.response.MessageResponse;
 @PreAuthorize("hasRole('USER')")
 public class GameController {
 
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    public static final String APPLICATION_BOARD_VALUE = "application/x-minesweeper-board";
+
+    private static final String WEAK_PREFIX = "W/";
+
     @Autowired
     private GameService gameService;
 
+    @Autowired
+    private GameSolverService gameSolverService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${minesweeper.game.maxPageSize:100}")
+    private int maxPageSize;
+
     /**
-     * Interacts with {@link GameService} to create a new game associated to the current user.
+     * Interacts with {@link GameService} to create a new game associated to the current user. The game can be sent and
+     * returned as JSON or in the binary representation, see {@link GameBoardMessageConverter}.
+     *
+     * <p>
+     * If an <code>If-Match</code> header is given, an existing game is only saved if its ETag still matches, so stale
+     * saves are rejected before the board is loaded.
      *
      * @param request - a {@link GameDto} instance with the game details.
-     * @return the location of created game as a Response Header.
+     * @param diff - whether to answer with the changed cells only.
+     * @param ifMatch - the optional ETag the saved game must have.
+     * @return the saved {@link GameDto} instance, or a {@link GameDiffResponse} instance if requested.
      */
     @PostMapping()
-    public ResponseEntity<?> saveGame(@Valid @RequestBody GameDto gameDto) {
-        Game game = gameService.saveGame(gameDto);
-        gameDto = GameDto.fromGame(game, true);
-        return ResponseEntity.ok(gameDto);
+    public ResponseEntity<?> saveGame(@Valid @RequestBody GameDto gameDto, @RequestParam(required = false) boolean diff,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return toResponse(gameService.saveGame(gameDto, getExpectedVersion(gameDto.getId(), ifMatch)), diff);
+    }
+
+    /**
+     * @return the game version required by an <code>If-Match</code> header, or null if any version matches.
+     * @throws GameVersionMismatchException if the header does not match any version of the game.
+     */
+    private Long getExpectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || id == null || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String prefix = "\"" + id + "-";
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            // Game ETags are weak, but identify the version of the game all the same.
+            if (tag.startsWith(WEAK_PREFIX)) {
+                tag = tag.substring(WEAK_PREFIX.length());
+            }
+            if (tag.startsWith(prefix) && tag.endsWith("\"")) {
+                try {
+                    return Long.valueOf(tag.substring(prefix.length(), tag.length() - 1));
+                } catch (NumberFormatException e) {
+                    // Not an ETag of this game.
+                }
+            }
+        }
+        throw new GameVersionMismatchException("Game " + id + " does not match: " + ifMatch);
+    }
+
+    /**
+     * @return the weak ETag of a game version, which holds for the compressed and uncompressed game alike.
+     */
+    static String gameETag(Long id, Long version) {
+        return WEAK_PREFIX + "\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * Interacts with {@link GameService} to apply a list of cell changes to a game associated to the current user.
+     *
+     * @param id - the game id.
+     * @param movesRequest - a {@link MovesRequest} instance with the cell changes.
+     * @param diff - whether to answer with the changed cells only.
+     * @return the updated {@link GameDto} instance, or a {@link GameDiffResponse} instance if requested.
+     */
+    @PatchMapping("/{id}/moves")
+    public ResponseEntity<?> applyMoves(@PathVariable Long id, @Valid @RequestBody MovesRequest movesRequest,
+            @RequestParam(required = false) boolean diff) {
+        return toResponse(gameService.applyMoves(id, movesRequest), diff);
+    }
+
+    /**
+     * Interacts with {@link GameService} to reveal a cell of a game associated to the current user. The server opens
+     * the adjacent cells as needed, and updates the remaining cells and status of the game.
+     *
+     * @param id - the game id.
+     * @param cellRequest - a {@link CellRequest} instance with the cell coordinates.
+     * @param diff - whether to answer with the changed cells only.
+     * @return the updated {@link GameDto} instance, or a {@link GameDiffResponse} instance if requested.
+     */
+    @PostMapping("/{id}/reveal")
+    public ResponseEntity<?> reveal(@PathVariable Long id, @Valid @RequestBody CellRequest cellRequest, @RequestParam(required = false) boolean diff) {
+        return toResponse(gameService.reveal(id, cellRequest.getY(), cellRequest.getX()), diff);
+    }
+
+    /**
+     * Interacts with {@link GameService} to flag a cell of a game associated to the current user, or to remove its
+     * flag if already flagged.
+     *
+     * @param id - the game id.
+     * @param cellRequest - a {@link CellRequest} instance with the cell coordinates.
+     * @param diff - whether to answer with the changed cells only.
+     * @return the updated {@link GameDto} instance, or a {@link GameDiffResponse} instance if requested.
+     */
+    @PostMapping("/{id}/flag")
+    public ResponseEntity<?> flag(@PathVariable Long id, @Valid @RequestBody CellRequest cellRequest, @RequestParam(required = false) boolean diff) {
+        return toResponse(gameService.flag(id, cellRequest.getY(), cellRequest.getX()), diff);
     }
 
     /**
-     * Interacts with {@link GameService} to get all games for current user.
+     * Answers an update with the whole game, or with the game header and the changed cells only.
+     */
+    private ResponseEntity<?> toResponse(GameUpdate update, boolean diff) {
+        Game game = update.getGame();
+        BodyBuilder response = ResponseEntity.ok()
+                .eTag(gameETag(game.getId(), game.getVersion()));
+        if (diff) {
+            return response.body(GameDiffResponse.fromUpdate(update));
+        }
+        return response.body(GameDto.fromGame(game, true));
+    }
+
+    /**
+     * Interacts with {@link GameService} to play an ordered batch of actions (reveal, flag, unflag, chord) on a game
+     * associated to the current user, in a single load and write of the game.
      *
-     * @return a {@link List} of {@link Game} instances associated to the authenticated user.
+     * @param id - the game id.
+     * @param actionsRequest - an {@link ActionsRequest} instance with the actions.
+     * @return an {@link ActionsResponse} instance with the outcome of each action and the changed cells.
+     */
+    @PostMapping("/{id}/actions")
+    public ResponseEntity<?> applyActions(@PathVariable Long id, @Valid @RequestBody ActionsRequest actionsRequest) {
+        return ResponseEntity.ok(ActionsResponse.fromBatch(gameService.applyActions(id, actionsRequest)));
+    }
+
+    /**
+     * Interacts with {@link GameService} to get all games for current user, most recently updated first. If a limit or
+     * a cursor is given, a single page of games is returned along with the cursor of the next page.
+     *
+     * <p>
+     * The response carries an ETag derived from the listing version, and is answered with 304 without reading the games
+     * if it matches the <code>If-None-Match</code> header.
+     *
+     * @param limit - the optional maximum number of games to retrieve.
+     * @param cursor - the optional cursor returned with the previous page.
+     * @param request - the current request, to check its preconditions.
+     * @return a {@link List} of {@link GameDto} instances associated to the authenticated user, without their boards,
+     *         or a {@link GamePageResponse} instance if paginated.
      */
     @GetMapping()
-    public ResponseEntity<?> getAllGamesForCurrentUser() {
-        List<GameDto> games = gameService.getAllGamesForCurrentUser()
-                .stream()
-                .map(game -> GameDto.fromGame(game, false))
+    public ResponseEntity<?> getAllGamesForCurrentUser(@RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor, WebRequest request) {
+        if (request.checkNotModified(listingETag(limit, cursor))) {
+            return null;
+        }
+        String username = gameService.getCurrentUsername();
+        if (limit == null && cursor == null) {
+            List<GameDto> games = gameService.getAllGamesForCurrentUser()
+                    .stream()
+                    .map(summary -> GameDto.fromSummary(summary, username))
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(games);
+        }
+        int pageSize = limit != null ? Math.max(1, Math.min(limit, maxPageSize)) : maxPageSize;
+        List<GameSummary> page = gameService.getGamesPageForCurrentUser(cursor != null ? GameCursor.decode(cursor) : null, pageSize);
+        List<GameDto> games = page.stream()
+                .map(summary -> GameDto.fromSummary(summary, username))
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(games);
+        String nextCursor = page.size() == pageSize ? GameCursor.after(page.get(pageSize - 1))
+                .encode() : null;
+        return ResponseEntity.ok(new GamePageResponse(games, nextCursor));
+    }
+
+    /**
+     * @return the weak ETag of the listing version, which also depends on the requested page.
+     */
+    private String listingETag(Integer limit, String cursor) {
+        StringBuilder tag = new StringBuilder(WEAK_PREFIX).append('"')
+                .append(gameService.getListingVersion());
+        if (limit != null || cursor != null) {
+            tag.append('-')
+                    .append(Integer.toHexString(String.valueOf(limit)
+                            .concat(":")
+                            .concat(String.valueOf(cursor))
+                            .hashCode()));
+        }
+        return tag.append('"')
+                .toString();
     }
 
     /**
-     * Interacts with {@link GameService} to get an individual game.
+     * Interacts with {@link GameService} to stream all games for current user as newline delimited JSON, most
+     * recently updated first. Games are written as they are read from the database, without holding them in memory.
+     *
+     * @param request - the current request, to check its preconditions.
+     * @return a {@link StreamingResponseBody} writing one {@link GameDto} instance per line, without their boards.
+     */
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllGamesForCurrentUser(WebRequest request) {
+        if (request.checkNotModified(listingETag(null, null))) {
+            return null;
+        }
+        String username = gameService.getCurrentUsername();
+        StreamingResponseBody body = outputStream -> gameService.forEachGameSummary(username, summary -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(GameDto.fromSummary(summary, username)));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+
+    /**
+     * Interacts with {@link GameService} to get an individual game. The board is written from the packed board, as
+     * JSON streamed cell by cell or in the binary representation, see {@link GameBoardMessageConverter}.
+     * <p>
+     * The response carries an ETag derived from the game version, and is answered with 304 without loading the board
+     * if it matches the <code>If-None-Match</code> header.
      *
      * @param id - the game id.
+     * @param request - the current request, to check its preconditions.
      * @return a {@link Game} instance if the game is associated to the authenticated user, an error otherwise.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getGame(@PathVariable Long id) {
+    public ResponseEntity<?> getGame(@PathVariable Long id, WebRequest request) {
+        Long version = gameService.getVersion(id);
+        if (version != null && request.checkNotModified(gameETag(id, version))) {
+            return null;
+        }
         Game game = gameService.getGame(id);
         GameDto gameDto = GameDto.fromGame(game, true);
-        return ResponseEntity.ok(gameDto);
+        return ResponseEntity.ok()
+                .eTag(gameETag(id, game.getVersion()))
+                .body(gameDto);
+    }
+
+    /**
+     * Interacts with {@link GameService} to get a rectangular window of the board of a game associated to the current
+     * user, so clients rendering large boards only load the visible cells.
+     *
+     * @param id - the game id.
+     * @param x - the first column of the window.
+     * @param y - the first row of the window.
+     * @param w - the number of columns of the window.
+     * @param h - the number of rows of the window.
+     * @return a {@link RegionResponse} instance with the window cells, clipped to the board.
+     */
+    @GetMapping("/{id}/region")
+    public ResponseEntity<?> getRegion(@PathVariable Long id, @RequestParam int x, @RequestParam int y, @RequestParam int w, @RequestParam int h) {
+        return ResponseEntity.ok(gameService.getRegion(id, y, x, h, w));
+    }
+
+    /**
+     * Interacts with {@link GameService} to get the moves recorded for a game associated to the current user, in the
+     * order they were applied.
+     *
+     * @param id - the game id.
+     * @return a {@link List} of {@link GameMove} instances.
+     */
+    @GetMapping("/{id}/moves")
+    public ResponseEntity<?> getMoves(@PathVariable Long id) {
+        List<GameMove> moves = gameService.getMoves(id);
+        return ResponseEntity.ok(moves);
+    }
+
+    /**
+     * Interacts with {@link GameSolverService} to suggest the next move of a game associated to the current user,
+     * deduced from the open cells only.
+     *
+     * @param id - the game id.
+     * @return a {@link HintResponse} instance.
+     */
+    @GetMapping("/{id}/hint")
+    public ResponseEntity<?> getHint(@PathVariable Long id) {
+        HintResponse hint = gameSolverService.getHint(id);
+        return ResponseEntity.ok(hint);
+    }
+
+    /**
+     * Interacts with {@link GameSolverService} to get the probability of each covered cell of a game associated to the
+     * current user being a mine, given the open cells.
+     *
+     * @param id - the game id.
+     * @return a {@link ProbabilitiesResponse} instance.
+     */
+    @GetMapping("/{id}/probabilities")
+    public ResponseEntity<?> getProbabilities(@PathVariable Long id) {
+        ProbabilitiesResponse probabilities = gameSolverService.getProbabilities(id);
+        return ResponseEntity.ok(probabilities);
     }
 
     /**
@@ -88,10 +370,16 @@ public class GameController {
     /**
      * Interacts with {@link GameService} to delete all games associated to the current user.
      *
+     * @param async - if true, games are deleted in the background and the request is accepted right away.
      * @return a {@link MessageResponse} indicating if the deletion was successful or not.
      */
     @DeleteMapping()
-    public ResponseEntity<?> deleteAllGamesForCurrentUser() {
+    public ResponseEntity<?> deleteAllGamesForCurrentUser(@RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            gameService.deleteAllGamesForCurrentUserAsync();
+            return ResponseEntity.accepted()
+                    .body(new MessageResponse("All Games deletion started"));
+        }
         gameService.deleteAllGamesForCurrentUser();
         return ResponseEntity.ok(new MessageResponse("All Games deleted"));
     }
@@ -0,0 +1,180 @@
+package com.deviget.minesweeper.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filter class to accept gzip compressed request bodies (<code>Content-Encoding: gzip</code>), inflating them while
+ * they are read. Inflated bodies are limited to <code>minesweeper.request.maxInflatedBytes</code>.
+ * <p>
+ * The content encoding and length of the compressed body are hidden from the rest of the chain. Non-blocking reads
+ * are driven by the compressed body: the read listener is registered on it, and a read may wait for the rest of a
+ * compressed block.
+ *
+ * @author david.rios
+ */
+@Component
+public class GzipRequestFilter extends OncePerRequestFilter {
+
+    private static final String GZIP = "gzip";
+
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+
+    private static final String CONTENT_LENGTH = "Content-Length";
+
+    @Value("${minesweeper.request.maxInflatedBytes:67108864}")
+    private long maxInflatedBytes;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String encoding = request.getHeader(CONTENT_ENCODING);
+        if (encoding == null || !GZIP.equalsIgnoreCase(encoding.trim())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        filterChain.doFilter(new GzipRequest(request, maxInflatedBytes), response);
+    }
+
+    private static class GzipRequest extends HttpServletRequestWrapper {
+
+        private final long maxInflatedBytes;
+
+        private ServletInputStream inputStream;
+
+        private GzipRequest(HttpServletRequest request, long maxInflatedBytes) {
+            super(request);
+            this.maxInflatedBytes = maxInflatedBytes;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                ServletInputStream compressed = super.getInputStream();
+                inputStream = new InflatingInputStream(compressed, new GZIPInputStream(compressed), maxInflatedBytes);
+            }
+            return inputStream;
+        }
+
+        /**
+         * @return true for the headers describing the compressed body, which no longer apply.
+         */
+        private static boolean isHidden(String name) {
+            return CONTENT_ENCODING.equalsIgnoreCase(name) || CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isHidden(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isHidden(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = Collections.list(super.getHeaderNames());
+            names.removeIf(GzipRequest::isHidden);
+            return Collections.enumeration(names);
+        }
+
+        @Override
+        public int getIntHeader(String name) {
+            return isHidden(name) ? -1 : super.getIntHeader(name);
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1L;
+        }
+    }
+
+    private static class InflatingInputStream extends ServletInputStream {
+
+        private final ServletInputStream compressed;
+
+        private final InputStream in;
+
+        private final long maxBytes;
+
+        private long count;
+
+        private boolean finished;
+
+        private InflatingInputStream(ServletInputStream compressed, InputStream in, long maxBytes) {
+            this.compressed = compressed;
+            this.in = in;
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b < 0) {
+                finished = true;
+            } else {
+                checkLimit(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = in.read(b, off, len);
+            if (read < 0) {
+                finished = true;
+            } else {
+                checkLimit(read);
+            }
+            return read;
+        }
+
+        private void checkLimit(int read) throws IOException {
+            count += read;
+            if (count > maxBytes) {
+                throw new IOException("Inflated request body larger than " + maxBytes + " bytes");
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return finished || compressed.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            compressed.setReadListener(readListener);
+        }
+    }
+}
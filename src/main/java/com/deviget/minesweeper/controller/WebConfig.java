@@ -0,0 +1,24 @@
+package com.deviget.minesweeper.controller;
+
+import java.util.List;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Web configuration of the API controllers.
+ *
+ * @author david.rios
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * Adds the binary board representation after the default converters, so it is only used when explicitly requested
+     * through the Accept or Content-Type headers.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new GameBoardMessageConverter());
+    }
+}
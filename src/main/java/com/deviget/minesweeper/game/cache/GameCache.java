@@ -0,0 +1,215 @@
+package com.deviget.minesweeper.game.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.deviget.minesweeper.model.Game;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded in-memory cache of recently played games, holding their decoded boards.
+ * <p>
+ * Games are evicted in least recently used order once the total size of the cached boards exceeds the configured
+ * amount of bytes, or after being idle for the configured time. Cached instances are shared between requests, so they
+ * must never be modified: updates are loaded from the data source and invalidate the cached copy.
+ * <p>
+ * A game loaded from the data source while it was being updated is not cached, so a stale copy can't replace the
+ * invalidated one. Each id maps to one of a fixed set of invalidation counters, checked before caching.
+ *
+ * @author david.rios
+ */
+@Component
+public class GameCache {
+
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private static final int STRIPES = 64;
+
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLongArray invalidations = new AtomicLongArray(STRIPES);
+
+    private final boolean enabled;
+
+    private final long maxBytes;
+
+    private final long idleTtlMs;
+
+    private long bytes;
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    public GameCache(@Value("${minesweeper.cache.enabled:true}") boolean enabled, @Value("${minesweeper.cache.maxBytes:67108864}") long maxBytes,
+            @Value("${minesweeper.cache.idleTtlMs:600000}") long idleTtlMs, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.idleTtlMs = idleTtlMs;
+        FunctionCounter.builder("minesweeper.cache.hits", this, GameCache::getHits)
+                .register(meterRegistry);
+        FunctionCounter.builder("minesweeper.cache.misses", this, GameCache::getMisses)
+                .register(meterRegistry);
+        FunctionCounter.builder("minesweeper.cache.evictions", this, GameCache::getEvictions)
+                .register(meterRegistry);
+        Gauge.builder("minesweeper.cache.bytes", this, GameCache::getBytes)
+                .register(meterRegistry);
+        Gauge.builder("minesweeper.cache.size", this, GameCache::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Retrieves a cached game.
+     *
+     * @param id - the game id.
+     * @return the cached {@link Game} instance, or null if not cached.
+     */
+    public synchronized Game get(Long id) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = entries.get(id);
+        long now = System.currentTimeMillis();
+        if (entry != null && now - entry.lastAccess > idleTtlMs) {
+            remove(id);
+            evictions++;
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        entry.lastAccess = now;
+        return entry.game;
+    }
+
+    /**
+     * @param id - the game id.
+     * @return the invalidation stamp to pass to {@link #put(Game, long)} for a game about to be loaded.
+     */
+    public long stamp(Long id) {
+        return invalidations.get(stripe(id));
+    }
+
+    /**
+     * Caches a game loaded from the data source, unless it was invalidated since it started loading, or it has no
+     * packed board.
+     *
+     * @param game - the game, which must not be modified afterwards.
+     * @param stamp - the invalidation stamp taken before loading the game.
+     * @return true if the game was cached.
+     */
+    public synchronized boolean put(Game game, long stamp) {
+        if (!enabled || game.getBoard() == null || stamp != stamp(game.getId())) {
+            return false;
+        }
+        // Decode the board once, before sharing the instance.
+        game.getPackedBoard();
+        long weight = game.getBoard().length + ENTRY_OVERHEAD;
+        if (weight > maxBytes) {
+            return false;
+        }
+        remove(game.getId());
+        long now = System.currentTimeMillis();
+        entries.put(game.getId(), new Entry(game, weight, now));
+        bytes += weight;
+        Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet()
+                .iterator();
+        while (eldest.hasNext()) {
+            Entry entry = eldest.next()
+                    .getValue();
+            if (bytes <= maxBytes && now - entry.lastAccess <= idleTtlMs) {
+                break;
+            }
+            eldest.remove();
+            bytes -= entry.weight;
+            evictions++;
+        }
+        return entries.containsKey(game.getId());
+    }
+
+    /**
+     * Removes a game from the cache, and prevents copies being loaded concurrently from being cached.
+     *
+     * @param id - the game id.
+     */
+    public synchronized void invalidate(Long id) {
+        invalidations.incrementAndGet(stripe(id));
+        remove(id);
+    }
+
+    /**
+     * Removes all the games associated to the given user from the cache.
+     *
+     * @param username - the user name.
+     */
+    public synchronized void invalidateAll(String username) {
+        Iterator<Entry> iterator = entries.values()
+                .iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (username.equals(entry.game.getUsername())) {
+                iterator.remove();
+                bytes -= entry.weight;
+            }
+        }
+        // The ids of the games of this user being loaded right now are not known, discard them all.
+        for (int i = 0; i < STRIPES; i++) {
+            invalidations.incrementAndGet(i);
+        }
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void remove(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry != null) {
+            bytes -= entry.weight;
+        }
+    }
+
+    private static int stripe(Long id) {
+        return (int) (id & (STRIPES - 1));
+    }
+
+    private static class Entry {
+
+        private final Game game;
+
+        private final long weight;
+
+        private long lastAccess;
+
+        private Entry(Game game, long weight, long lastAccess) {
+            this.game = game;
+            this.weight = weight;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
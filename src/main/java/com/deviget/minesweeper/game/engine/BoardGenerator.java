@@ -0,0 +1,90 @@
+package com.deviget.minesweeper.game.engine;
+
+import java.util.SplittableRandom;
+import com.deviget.minesweeper.model.PackedBoard;
+import com.deviget.minesweeper.model.RowBands;
+
+/**
+ * Generates mine sweeper boards on the server, reproducible from a seed and the first revealed cell.
+ * <p>
+ * Mines are placed with a partial Fisher-Yates shuffle over an array of candidate cell indexes, drawing only as many
+ * cells as mines. The first revealed cell, and its neighbours when the board has room for it, are left out of the
+ * candidates, so the first click never hits a mine. The adjacent mine counts are then computed in a single pass over
+ * the board, in parallel for large boards.
+ *
+ * @author david.rios
+ */
+public final class BoardGenerator {
+
+    private BoardGenerator() {
+    }
+
+    /**
+     * Generates a board with all its cells covered.
+     *
+     * @param height - the number of rows.
+     * @param width - the number of columns.
+     * @param mines - the number of mines.
+     * @param seed - the seed of the mine placement.
+     * @param safeY - the row of the first revealed cell.
+     * @param safeX - the column of the first revealed cell.
+     * @return a new {@link PackedBoard} instance.
+     * @throws IllegalArgumentException if the mines do not fit in the board.
+     */
+    public static PackedBoard generate(int height, int width, int mines, long seed, int safeY, int safeX) {
+        PackedBoard board = new PackedBoard(height, width);
+        int length = board.getLength();
+        if (!board.contains(safeY, safeX)) {
+            throw new IllegalArgumentException("Cell out of the board: " + safeY + "," + safeX);
+        }
+        if (mines < 0 || mines >= length) {
+            throw new IllegalArgumentException("Invalid number of mines: " + mines + " for " + length + " cells");
+        }
+        int minY = Math.max(0, safeY - 1);
+        int maxY = Math.min(height - 1, safeY + 1);
+        int minX = Math.max(0, safeX - 1);
+        int maxX = Math.min(width - 1, safeX + 1);
+        // Keep the whole neighbourhood of the first click safe, so it opens an area, unless the board is too crowded.
+        boolean safeArea = length - (maxY - minY + 1) * (maxX - minX + 1) >= mines;
+        int[] candidates = new int[length];
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            int y = i / width;
+            int x = i - y * width;
+            boolean safe = safeArea ? y >= minY && y <= maxY && x >= minX && x <= maxX : y == safeY && x == safeX;
+            if (!safe) {
+                candidates[count++] = i;
+            }
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        byte[] data = board.getData();
+        for (int i = 0; i < mines; i++) {
+            int j = i + random.nextInt(count - i);
+            int mine = candidates[j];
+            candidates[j] = candidates[i];
+            candidates[i] = mine;
+            data[PackedBoard.HEADER_LENGTH + mine] |= PackedBoard.MINE_MASK;
+        }
+        // Each cell counts its own adjacent mines, so bands of rows can be counted in parallel without sharing writes.
+        RowBands.forEach(height, width, (fromRow, toRow) -> {
+            for (int y = fromRow; y < toRow; y++) {
+                for (int x = 0; x < width; x++) {
+                    int offset = PackedBoard.HEADER_LENGTH + y * width + x;
+                    if ((data[offset] & PackedBoard.MINE_MASK) != 0) {
+                        continue;
+                    }
+                    int adjacent = 0;
+                    for (int ny = Math.max(0, y - 1), toY = Math.min(height - 1, y + 1); ny <= toY; ny++) {
+                        for (int nx = Math.max(0, x - 1), toX = Math.min(width - 1, x + 1); nx <= toX; nx++) {
+                            if ((data[PackedBoard.HEADER_LENGTH + ny * width + nx] & PackedBoard.MINE_MASK) != 0) {
+                                adjacent++;
+                            }
+                        }
+                    }
+                    data[offset] = (byte) adjacent;
+                }
+            }
+        });
+        return board;
+    }
+}
@@ -0,0 +1,199 @@
+package com.deviget.minesweeper.game.engine;
+
+import java.util.Arrays;
+import com.deviget.minesweeper.model.CellStatus;
+import com.deviget.minesweeper.model.MoveType;
+import com.deviget.minesweeper.model.PackedBoard;
+
+/**
+ * Server side implementation of the mine sweeper rules, working directly on a {@link PackedBoard}.
+ * <p>
+ * Revealing a cell without adjacent mines opens its neighbours too, cascading through the connected area of empty
+ * cells. The cascade is an iterative flood fill driven by a queue of cell indexes, so it needs neither recursion nor
+ * an object per cell, and each cell is visited at most once.
+ *
+ * @author david.rios
+ */
+public final class GameEngine {
+
+    private static final int INITIAL_QUEUE_SIZE = 64;
+
+    private static final int OPEN_BITS = CellStatus.OPEN.getCode() << PackedBoard.STATUS_SHIFT;
+
+    private static final int COVERED_BITS = CellStatus.COVERED.getCode() << PackedBoard.STATUS_SHIFT;
+
+    private static final int QUESTION_BITS = CellStatus.QUESTION.getCode() << PackedBoard.STATUS_SHIFT;
+
+    private GameEngine() {
+    }
+
+    /**
+     * Applies a single move to a board.
+     *
+     * @param board - the board.
+     * @param y - the row of the cell.
+     * @param x - the column of the cell.
+     * @param action - the move type.
+     * @return a {@link MoveResult} with the changed cells.
+     * @throws IllegalArgumentException if the move is not allowed.
+     */
+    public static MoveResult apply(PackedBoard board, int y, int x, MoveType action) {
+        if (!board.contains(y, x)) {
+            throw new IllegalArgumentException("Cell out of the board: " + y + "," + x);
+        }
+        int index = board.indexOf(y, x);
+        CellStatus status = board.getStatus(index);
+        switch (action) {
+        case OPEN:
+            if (status == CellStatus.FLAGGED) {
+                throw new IllegalArgumentException("Cannot reveal a flagged cell: " + y + "," + x);
+            }
+            return reveal(board, index);
+        case REVEAL:
+            board.setStatus(index, CellStatus.OPEN);
+            return MoveResult.of(index, board.isMine(index));
+        case FLAG:
+            if (status == CellStatus.OPEN) {
+                throw new IllegalArgumentException("Cannot flag an open cell: " + y + "," + x);
+            }
+            board.setStatus(index, CellStatus.FLAGGED);
+            return MoveResult.of(index, false);
+        case UNFLAG:
+            if (status != CellStatus.FLAGGED) {
+                return MoveResult.NO_CHANGE;
+            }
+            board.setStatus(index, CellStatus.COVERED);
+            return MoveResult.of(index, false);
+        case CHORD:
+            if (status != CellStatus.OPEN) {
+                throw new IllegalArgumentException("Cannot chord a closed cell: " + y + "," + x);
+            }
+            return chord(board, index);
+        default:
+            throw new IllegalArgumentException("Unsupported move: " + action);
+        }
+    }
+
+    /**
+     * Reveals a cell and, if it has no adjacent mines, the whole area of connected empty cells and their borders.
+     * Flagged cells are never opened by the cascade.
+     *
+     * @param board - the board.
+     * @param index - the index of the cell.
+     * @return a {@link MoveResult} with the opened cells.
+     */
+    public static MoveResult reveal(PackedBoard board, int index) {
+        if (board.getStatus(index) == CellStatus.OPEN) {
+            return MoveResult.NO_CHANGE;
+        }
+        board.setStatus(index, CellStatus.OPEN);
+        if (board.isMine(index)) {
+            return MoveResult.of(index, true);
+        }
+        byte[] data = board.getData();
+        int width = board.getWidth();
+        int height = board.getHeight();
+        // Every queued cell is opened when queued, so the queue ends up holding all the opened cells.
+        int[] queue = new int[Math.min(INITIAL_QUEUE_SIZE, board.getLength())];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = index;
+        while (head < tail) {
+            int cell = queue[head++];
+            if ((data[PackedBoard.HEADER_LENGTH + cell] & PackedBoard.PROXIMITY_MASK) != 0) {
+                continue;
+            }
+            int y = cell / width;
+            int x = cell - y * width;
+            int minX = Math.max(0, x - 1);
+            int maxX = Math.min(width - 1, x + 1);
+            for (int ny = Math.max(0, y - 1), maxY = Math.min(height - 1, y + 1); ny <= maxY; ny++) {
+                for (int nx = minX; nx <= maxX; nx++) {
+                    int neighbour = ny * width + nx;
+                    int offset = PackedBoard.HEADER_LENGTH + neighbour;
+                    int packed = data[offset];
+                    if (isClosed(packed) && (packed & PackedBoard.MINE_MASK) == 0) {
+                        data[offset] = (byte) ((packed & ~PackedBoard.STATUS_MASK) | OPEN_BITS);
+                        if (tail == queue.length) {
+                            queue = Arrays.copyOf(queue, Math.min(queue.length * 2, board.getLength()));
+                        }
+                        queue[tail++] = neighbour;
+                    }
+                }
+            }
+        }
+        return new MoveResult(queue, tail, false);
+    }
+
+    /**
+     * Reveals the closed neighbours of an open cell, cascading as needed, if as many neighbours as its adjacent mines
+     * are flagged. Otherwise nothing changes.
+     *
+     * @param board - the board.
+     * @param index - the index of the open cell.
+     * @return a {@link MoveResult} with the opened cells.
+     */
+    public static MoveResult chord(PackedBoard board, int index) {
+        int width = board.getWidth();
+        int y = index / width;
+        int x = index - y * width;
+        int minY = Math.max(0, y - 1);
+        int maxY = Math.min(board.getHeight() - 1, y + 1);
+        int minX = Math.max(0, x - 1);
+        int maxX = Math.min(width - 1, x + 1);
+        int flagged = 0;
+        for (int ny = minY; ny <= maxY; ny++) {
+            for (int nx = minX; nx <= maxX; nx++) {
+                if (board.getStatus(ny * width + nx) == CellStatus.FLAGGED) {
+                    flagged++;
+                }
+            }
+        }
+        if (flagged != board.getProximityMines(index)) {
+            return MoveResult.NO_CHANGE;
+        }
+        int[] cells = new int[0];
+        int count = 0;
+        boolean mine = false;
+        for (int ny = minY; ny <= maxY; ny++) {
+            for (int nx = minX; nx <= maxX; nx++) {
+                int neighbour = ny * width + nx;
+                if (!isClosed(board.get(neighbour))) {
+                    continue;
+                }
+                MoveResult result = reveal(board, neighbour);
+                if (count + result.getChangedCount() > cells.length) {
+                    cells = Arrays.copyOf(cells, Math.max(count + result.getChangedCount(), cells.length * 2));
+                }
+                System.arraycopy(result.getChangedCells(), 0, cells, count, result.getChangedCount());
+                count += result.getChangedCount();
+                mine |= result.isMine();
+            }
+        }
+        return count == 0 ? MoveResult.NO_CHANGE : new MoveResult(cells, count, mine);
+    }
+
+    /**
+     * @return true if the packed cell is covered or marked with a question, so it can be opened by a cascade.
+     */
+    private static boolean isClosed(int packed) {
+        int status = packed & PackedBoard.STATUS_MASK;
+        return status == COVERED_BITS || status == QUESTION_BITS;
+    }
+
+    /**
+     * Counts the cells left to open to win a game.
+     *
+     * @param board - the board.
+     * @return the number of cells neither mined nor open.
+     */
+    public static int countRemainingCells(PackedBoard board) {
+        int remaining = 0;
+        for (int i = 0, length = board.getLength(); i < length; i++) {
+            if (!board.isMine(i) && board.getStatus(i) != CellStatus.OPEN) {
+                remaining++;
+            }
+        }
+        return remaining;
+    }
+}
@@ -0,0 +1,52 @@
+package com.deviget.minesweeper.game.engine;
+
+import java.util.Arrays;
+
+/**
+ * Outcome of a move applied by {@link GameEngine}: the cells whose status changed, and whether a mine was revealed.
+ *
+ * @author david.rios
+ */
+public class MoveResult {
+
+    private static final int[] NONE = new int[0];
+
+    static final MoveResult NO_CHANGE = new MoveResult(NONE, 0, false);
+
+    private final int[] cells;
+
+    private final int count;
+
+    private final boolean mine;
+
+    MoveResult(int[] cells, int count, boolean mine) {
+        this.cells = cells;
+        this.count = count;
+        this.mine = mine;
+    }
+
+    static MoveResult of(int index, boolean mine) {
+        return new MoveResult(new int[] { index }, 1, mine);
+    }
+
+    /**
+     * @return the indexes of the changed cells, in the order they changed.
+     */
+    public int[] getChangedCells() {
+        return count == cells.length ? cells : Arrays.copyOf(cells, count);
+    }
+
+    /**
+     * @return the number of changed cells.
+     */
+    public int getChangedCount() {
+        return count;
+    }
+
+    /**
+     * @return true if the move revealed a mine.
+     */
+    public boolean isMine() {
+        return mine;
+    }
+}
@@ -0,0 +1,270 @@
+package com.deviget.minesweeper.game.pool;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.deviget.minesweeper.model.Game;
+import com.deviget.minesweeper.model.GameStatus;
+import com.deviget.minesweeper.repository.GameRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Pool of ready games for the configured board presets, so starting a game with a standard size and number of mines
+ * needs neither generation nor insert.
+ * <p>
+ * Pooled games are persisted without a user, and kept in memory. A new game claims one by assigning its user name in a
+ * single update, which only succeeds if the game is still unclaimed, so several instances can share the pooled
+ * games. Presets below the low watermark are refilled in the background up to the high watermark.
+ * <p>
+ * Presets are configured as a comma separated list of <code>name:size:mines</code>. The pool is disabled by default:
+ * pooled games are only seeded, and their boards generated on the first reveal, so a claim only saves the insert of
+ * the game.
+ *
+ * @author david.rios
+ */
+@Component
+public class BoardPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoardPool.class);
+
+    private final Map<String, Preset> presets = new LinkedHashMap<>();
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${minesweeper.pool.enabled:false}")
+    private boolean enabled;
+
+    @Value("${minesweeper.pool.presets:beginner:9:10,intermediate:16:40,expert:24:99}")
+    private String presetDefinitions;
+
+    @Value("${minesweeper.pool.lowWatermark:5}")
+    private int lowWatermark;
+
+    @Value("${minesweeper.pool.highWatermark:20}")
+    private int highWatermark;
+
+    private TransactionTemplate transactionTemplate;
+
+    private volatile boolean loaded;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        for (String definition : presetDefinitions.split(",")) {
+            String[] fields = definition.trim()
+                    .split(":");
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("Invalid board preset, expected name:size:mines: " + definition);
+            }
+            Preset preset = new Preset(fields[0], Integer.parseInt(fields[1]), Integer.parseInt(fields[2]), meterRegistry);
+            presets.put(key(preset.size, preset.mines), preset);
+        }
+    }
+
+    /**
+     * Loads the games left unclaimed by previous runs, and fills the pool.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        for (Preset preset : presets.values()) {
+            List<Game> pooled = gameRepository.findPooledGames(preset.size, preset.mines);
+            for (Game game : pooled) {
+                preset.add(game);
+            }
+            logger.info("Board pool {}: {} games found", preset.name, pooled.size());
+        }
+        loaded = true;
+        refill();
+    }
+
+    /**
+     * Claims a pooled game for the given user.
+     *
+     * @param size - the board size.
+     * @param mines - the number of mines.
+     * @param username - the user name.
+     * @return the claimed {@link Game} instance, or null if the size and mines don't match any preset, or its pool is
+     *         empty.
+     */
+    public Game claim(int size, int mines, String username) {
+        Preset preset = enabled ? presets.get(key(size, mines)) : null;
+        if (preset == null) {
+            return null;
+        }
+        Game game;
+        LocalDateTime now = LocalDateTime.now();
+        while ((game = preset.poll()) != null) {
+            // Another instance may have claimed it already.
+            if (gameRepository.claimPooledGame(game.getId(), username, now) == 1) {
+                preset.hits.increment();
+                returnOnRollback(preset, game.copy());
+                game.setUsername(username);
+                game.setLastUpdated(now);
+                game.incrementVersion();
+                return game;
+            }
+        }
+        preset.misses.increment();
+        return null;
+    }
+
+    /**
+     * Puts a claimed game back in the pool if the claiming transaction rolls back, since the game is unclaimed again.
+     */
+    private static void returnOnRollback(Preset preset, Game unclaimed) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        preset.add(unclaimed);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Refills the presets below the low watermark up to the high watermark.
+     */
+    @Scheduled(fixedDelayString = "${minesweeper.pool.refillIntervalMs:1000}")
+    public synchronized void refill() {
+        // Games created before the unclaimed ones are loaded would be added twice.
+        if (!enabled || !loaded) {
+            return;
+        }
+        for (Preset preset : presets.values()) {
+            int missing = highWatermark - preset.size();
+            if (preset.size() >= lowWatermark || missing <= 0) {
+                continue;
+            }
+            try {
+                Collection<Game> games = transactionTemplate.execute(status -> {
+                    List<Game> created = new ArrayList<>(missing);
+                    for (int i = 0; i < missing; i++) {
+                        created.add(newPooledGame(preset));
+                    }
+                    return gameRepository.saveAll(created);
+                });
+                for (Game game : games) {
+                    preset.add(game);
+                }
+                preset.refills.increment();
+            } catch (RuntimeException e) {
+                logger.error("Cannot refill board pool {}: {}", preset.name, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return the number of ready games of each preset, by preset name.
+     */
+    public Map<String, Integer> getSizes() {
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (Preset preset : presets.values()) {
+            sizes.put(preset.name, preset.size());
+        }
+        return sizes;
+    }
+
+    private static Game newPooledGame(Preset preset) {
+        Game game = new Game(null, null, 0L, preset.size, preset.mines, null, preset.size * preset.size - preset.mines,
+                GameStatus.IN_GAME, LocalDateTime.now());
+        // The board is generated on the first reveal, keeping the first click safe.
+        game.setSeed(ThreadLocalRandom.current()
+                .nextLong());
+        return game;
+    }
+
+    private static String key(int size, int mines) {
+        return size + ":" + mines;
+    }
+
+    private static class Preset {
+
+        private final String name;
+
+        private final int size;
+
+        private final int mines;
+
+        private final Queue<Game> games = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        private final Counter hits;
+
+        private final Counter misses;
+
+        private final Counter refills;
+
+        private Preset(String name, int size, int mines, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.size = size;
+            this.mines = mines;
+            Gauge.builder("minesweeper.pool.size", count, AtomicInteger::get)
+                    .tag("preset", name)
+                    .register(meterRegistry);
+            hits = Counter.builder("minesweeper.pool.claims")
+                    .tag("preset", name)
+                    .tag("result", "hit")
+                    .register(meterRegistry);
+            misses = Counter.builder("minesweeper.pool.claims")
+                    .tag("preset", name)
+                    .tag("result", "miss")
+                    .register(meterRegistry);
+            refills = Counter.builder("minesweeper.pool.refills")
+                    .tag("preset", name)
+                    .register(meterRegistry);
+        }
+
+        private void add(Game game) {
+            games.add(game);
+            count.incrementAndGet();
+        }
+
+        private Game poll() {
+            Game game = games.poll();
+            if (game != null) {
+                count.decrementAndGet();
+            }
+            return game;
+        }
+
+        private int size() {
+            return count.get();
+        }
+    }
+}
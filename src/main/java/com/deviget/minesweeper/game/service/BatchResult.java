@@ -0,0 +1,26 @@
+package com.deviget.minesweeper.game.service;
+
+import java.util.BitSet;
+import java.util.List;
+import com.deviget.minesweeper.model.Game;
+import com.deviget.minesweeper.payload.response.ActionResult;
+
+/**
+ * Outcome of a batch of actions applied by {@link GameService}: the updated game, the result of each action, and the
+ * indexes of the cells changed by the batch.
+ *
+ * @author david.rios
+ */
+public class BatchResult extends GameUpdate {
+
+    private final List<ActionResult> actions;
+
+    public BatchResult(Game game, List<ActionResult> actions, BitSet changedCells) {
+        super(game, changedCells);
+        this.actions = actions;
+    }
+
+    public List<ActionResult> getActions() {
+        return actions;
+    }
+}
@@ -0,0 +1,89 @@
+package com.deviget.minesweeper.game.service;
+
+import java.util.List;
+import javax.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.deviget.minesweeper.model.Game;
+import com.deviget.minesweeper.repository.GameRepository;
+
+/**
+ * Service class migrating games stored as rows and cells to the packed board column.
+ * <p>
+ * Games are migrated lazily on their next save. When enabled, this service also migrates all the pending games on
+ * startup, in batches, each one in its own transaction. Games saved before games were versioned get their initial
+ * version on startup, before any of them is updated.
+ *
+ * @author david.rios
+ */
+@Service
+public class BoardMigrationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoardMigrationService.class);
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${minesweeper.board.migrateOnStartup:false}")
+    private boolean migrateOnStartup;
+
+    @Value("${minesweeper.board.migrationBatchSize:50}")
+    private int batchSize;
+
+    @PostConstruct
+    public void initializeVersions() {
+        Integer initialized = transactionTemplate.execute(status -> gameRepository.initializeVersions());
+        if (initialized != null && initialized > 0) {
+            logger.info("Initialized version of {} games", initialized);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (migrateOnStartup) {
+            int migrated = migrateLegacyBoards();
+            logger.info("Migrated {} legacy boards", migrated);
+        }
+    }
+
+    /**
+     * Migrates all the games still stored as rows and cells to the packed board column.
+     *
+     * @return the number of migrated games.
+     */
+    public int migrateLegacyBoards() {
+        int migrated = 0;
+        Long lastId = 0L;
+        List<Long> ids;
+        do {
+            ids = gameRepository.findIdsWithLegacyBoard(lastId, PageRequest.of(0, batchSize));
+            for (Long id : ids) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> migrate(id));
+                    migrated++;
+                } catch (RuntimeException e) {
+                    logger.error("Cannot migrate board for game {}: {}", id, e.getMessage());
+                }
+                lastId = id;
+            }
+        } while (ids.size() == batchSize);
+        return migrated;
+    }
+
+    private void migrate(Long id) {
+        Game game = gameRepository.findWithBoardById(id)
+                .orElseThrow(() -> new GameNotFoundException("Game Not Found with id: " + id));
+        game.setPackedBoard(game.getPackedBoard());
+        gameRepository.save(game);
+    }
+}
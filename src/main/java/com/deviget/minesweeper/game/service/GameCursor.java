@@ -0,0 +1,76 @@
+package com.deviget.minesweeper.game.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import com.deviget.minesweeper.repository.GameSummary;
+
+/**
+ * Opaque position in the list of games of a user, used for keyset pagination. Games are listed most recently updated
+ * first, using the id to break ties.
+ *
+ * @author david.rios
+ */
+public class GameCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime lastUpdated;
+
+    private final Long id;
+
+    public GameCursor(LocalDateTime lastUpdated, Long id) {
+        this.lastUpdated = lastUpdated;
+        this.id = id;
+    }
+
+    /**
+     * Builds the cursor pointing right after the given game.
+     *
+     * @param summary - the last game of a page.
+     * @return a {@link GameCursor} instance.
+     */
+    public static GameCursor after(GameSummary summary) {
+        return new GameCursor(summary.getLastUpdated(), summary.getId());
+    }
+
+    /**
+     * Decodes a cursor as exchanged with the clients.
+     *
+     * @param value - the encoded cursor.
+     * @return a {@link GameCursor} instance.
+     * @throws InvalidCursorException if the value is not a valid cursor.
+     */
+    public static GameCursor decode(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder()
+                    .decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException("Invalid cursor: " + value);
+            }
+            return new GameCursor(LocalDateTime.parse(decoded.substring(0, separator)), Long.valueOf(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor: " + value);
+        }
+    }
+
+    /**
+     * @return the cursor encoded as an opaque, URL safe, string.
+     */
+    public String encode() {
+        String value = lastUpdated + SEPARATOR + id;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,71 @@
+package com.deviget.minesweeper.game.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.deviget.minesweeper.game.cache.GameCache;
+import com.deviget.minesweeper.repository.GameMoveRepository;
+import com.deviget.minesweeper.repository.GameRepository;
+
+/**
+ * Service class deleting large amounts of games in the background, in bounded batches, each one in its own short
+ * transaction.
+ *
+ * @author david.rios
+ */
+@Service
+public class GameDeletionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameDeletionService.class);
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GameMoveRepository gameMoveRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private GameCache gameCache;
+
+    @Value("${minesweeper.game.deletionBatchSize:100}")
+    private int batchSize;
+
+    /**
+     * Deletes all the games associated to the given user name, up to the given id, so games created after the
+     * deletion was requested are kept.
+     *
+     * @param username - the user name.
+     * @param maxId - the highest game id to delete.
+     * @return the number of deleted games.
+     */
+    @Async
+    public CompletableFuture<Integer> deleteGamesInBatches(String username, Long maxId) {
+        int deleted = 0;
+        int batchDeleted;
+        do {
+            List<Long> ids = gameRepository.findIdsByUsername(username, maxId, PageRequest.of(0, batchSize));
+            batchDeleted = ids.isEmpty() ? 0 : transactionTemplate.execute(status -> deleteGames(ids));
+            deleted += batchDeleted;
+            gameCache.invalidateAll(username);
+        } while (batchDeleted == batchSize);
+        logger.info("Deleted {} games for {}", deleted, username);
+        return CompletableFuture.completedFuture(deleted);
+    }
+
+    private int deleteGames(List<Long> ids) {
+        gameMoveRepository.deleteMovesByGameIds(ids);
+        gameRepository.deleteLegacyCellsByGameIds(ids);
+        gameRepository.deleteLegacyRowsByGameIds(ids);
+        return gameRepository.deleteGamesByIds(ids);
+    }
+}
@@ -0,0 +1,165 @@
+package com.deviget.minesweeper.game.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import com.deviget.minesweeper.game.engine.GameEngine;
+import com.deviget.minesweeper.game.engine.MoveResult;
+import com.deviget.minesweeper.model.Game;
+import com.deviget.minesweeper.model.GameMove;
+import com.deviget.minesweeper.model.MoveType;
+import com.deviget.minesweeper.model.PackedBoard;
+import com.deviget.minesweeper.payload.request.Move;
+import com.deviget.minesweeper.repository.GameMoveRepository;
+import com.deviget.minesweeper.repository.GameRepository;
+
+/**
+ * Service class keeping the append-only move log of each game, with periodic snapshots of its board.
+ * <p>
+ * When enabled, applying moves to a game appends them to the log and only updates the game columns, so the cost of a
+ * save depends on the number of moves rather than the size of the board. Every <code>snapshotInterval</code> moves the
+ * current board is written as the new snapshot. Loading a game replays the moves recorded after its snapshot.
+ * <p>
+ * Moves recorded while enabled are always replayed, so the log can be turned off at any time: the next update writes
+ * the full board as a snapshot again.
+ *
+ * @author david.rios
+ */
+@Service
+public class GameMoveLogService {
+
+    @Autowired
+    private GameMoveRepository gameMoveRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Value("${minesweeper.moveLog.enabled:false}")
+    private boolean enabled;
+
+    @Value("${minesweeper.moveLog.snapshotInterval:64}")
+    private int snapshotInterval;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Rebuilds the current board of a game, replaying the moves recorded after its snapshot on a copy of it.
+     *
+     * @param game - the game.
+     * @return a new {@link PackedBoard} instance, or null if the game has no board.
+     */
+    public PackedBoard getCurrentBoard(Game game) {
+        PackedBoard snapshot = game.getPackedBoard();
+        if (snapshot == null) {
+            return null;
+        }
+        PackedBoard board = snapshot.copy();
+        if (game.hasUnsnapshottedMoves()) {
+            for (GameMove move : gameMoveRepository.findByGameIdAndSeqGreaterThanOrderBySeq(game.getId(), game.getSnapshotSeq())) {
+                applyMove(board, move.getY(), move.getX(), move.getAction());
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Retrieves the current state of a game.
+     *
+     * @param game - the game, as loaded from the data source.
+     * @return the same {@link Game} instance if its board is up to date, or a detached copy holding the current board
+     *         otherwise.
+     */
+    public Game getCurrentState(Game game) {
+        if (!game.hasUnsnapshottedMoves()) {
+            return game;
+        }
+        Game current = game.copy();
+        current.setPackedBoard(getCurrentBoard(game));
+        current.setSnapshotSeq(current.getMoveSeq());
+        return current;
+    }
+
+    /**
+     * Records the moves applied to a game. If the move log is disabled, or a new snapshot is due, the given board is
+     * stored in the game. With the move log enabled, the game is flushed before its moves are inserted.
+     *
+     * @param game - the game, whose board must not have been modified.
+     * @param board - the current board, with the moves applied.
+     * @param moves - the moves applied.
+     * @return true if the board was stored in the game, false if only the moves were recorded.
+     */
+    public boolean record(Game game, PackedBoard board, List<Move> moves) {
+        if (!enabled) {
+            snapshot(game, board);
+            return true;
+        }
+        int seq = game.getMoveSeq();
+        game.setMoveSeq(seq + moves.size());
+        // Games still stored as legacy rows are always migrated to a snapshot, and boards just generated are stored.
+        boolean snapshot = game.getBoard() == null || game.getPackedBoard() == board
+                || game.getMoveSeq() - game.getSnapshotSeq() >= snapshotInterval;
+        if (snapshot) {
+            snapshot(game, board);
+        }
+        // Claims the move numbers before inserting the moves, so a concurrent update of the game fails on its version
+        // instead of on the unique move numbers.
+        gameRepository.saveAndFlush(game);
+        LocalDateTime now = LocalDateTime.now();
+        List<GameMove> entries = new ArrayList<>(moves.size());
+        for (Move move : moves) {
+            entries.add(new GameMove(game.getId(), ++seq, move.getY(), move.getX(), move.getAction(), now));
+        }
+        try {
+            gameMoveRepository.saveAll(entries);
+        } catch (DataIntegrityViolationException e) {
+            // Numbers taken by a concurrent update anyway, answered as any other concurrent update of the game.
+            throw new ObjectOptimisticLockingFailureException(Game.class, game.getId(), e);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Stores a new board in a game, including all the moves recorded so far.
+     *
+     * @param game - the game.
+     * @param board - the current board.
+     */
+    public void snapshot(Game game, PackedBoard board) {
+        game.setPackedBoard(board);
+        game.setSnapshotSeq(game.getMoveSeq());
+    }
+
+    /**
+     * Retrieves all the moves recorded for a game, in the order they were applied.
+     *
+     * @param gameId - the game id.
+     * @return a {@link List} of {@link GameMove} instances.
+     */
+    public List<GameMove> getMoves(Long gameId) {
+        return gameMoveRepository.findByGameIdOrderBySeq(gameId);
+    }
+
+    /**
+     * Applies a single move to a board. Moves are applied the same way when recorded and when replayed.
+     *
+     * @param board - the board.
+     * @param y - the row of the cell.
+     * @param x - the column of the cell.
+     * @param action - the move type.
+     * @return a {@link MoveResult} with the changed cells.
+     */
+    public static MoveResult applyMove(PackedBoard board, int y, int x, MoveType action) {
+        try {
+            return GameEngine.apply(board, y, x, action);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidMoveException(e.getMessage());
+        }
+    }
+}
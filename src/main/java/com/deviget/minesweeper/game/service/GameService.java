@@ -1,17 +1,52 @@
 package com.deviget.minesweeper.game.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import javax.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.deviget.minesweeper.game.cache.GameCache;
+import com.deviget.minesweeper.game.engine.BoardGenerator;
+import com.deviget.minesweeper.game.engine.GameEngine;
+import com.deviget.minesweeper.game.engine.MoveResult;
+import com.deviget.minesweeper.game.pool.BoardPool;
+import com.deviget.minesweeper.game.solver.NoGuessGenerator;
+import com.deviget.minesweeper.game.writebehind.GameWriteBehindStore;
+import com.deviget.minesweeper.model.Cell;
+import com.deviget.minesweeper.model.CellStatus;
 import com.deviget.minesweeper.model.Game;
+import com.deviget.minesweeper.model.GameMove;
 import com.deviget.minesweeper.model.GameStatus;
+import com.deviget.minesweeper.model.MoveType;
+import com.deviget.minesweeper.model.PackedBoard;
 import com.deviget.minesweeper.payload.dto.GameDto;
+import com.deviget.minesweeper.payload.request.ActionsRequest;
+import com.deviget.minesweeper.payload.request.Move;
+import com.deviget.minesweeper.payload.request.MovesRequest;
+import com.deviget.minesweeper.payload.response.ActionResult;
 import com.deviget.minesweeper.payload.response.MessageResponse;
+import com.deviget.minesweeper.payload.response.RegionResponse;
+import com.deviget.minesweeper.repository.GameMoveRepository;
+import com.deviget.minesweeper.repository.GameListingVersion;
 import com.deviget.minesweeper.repository.GameRepository;
+import com.deviget.minesweeper.repository.GameSummary;
 
 /**
  * Service class implementing all operations for {@link Game} management.
@@ -22,71 +57,623 @@ import com.deviget.minesweeper.repository.GameRepository;
 @Transactional
 public class GameService {
 
+    private static final Logger logger = LoggerFactory.getLogger(GameService.class);
+
     @Autowired
     private GameRepository gameRepository;
 
+    @Autowired
+    private GameDeletionService gameDeletionService;
+
+    @Autowired
+    private GameCache gameCache;
+
+    @Autowired
+    private GameWriteBehindStore writeBehindStore;
+
+    @Autowired
+    private GameMoveLogService gameMoveLogService;
+
+    @Autowired
+    private GameMoveRepository gameMoveRepository;
+
+    @Autowired
+    private BoardPool boardPool;
+
+    @Autowired
+    private NoGuessGenerator noGuessGenerator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${minesweeper.game.maxBatchSize:1000}")
+    private int maxBatchSize;
+
+    @Value("${minesweeper.game.maxRegionCells:65536}")
+    private int maxRegionCells;
+
+    @Value("${minesweeper.board.validateUploads:false}")
+    private boolean validateUploads;
+
     /**
      * Interacts with {@link GameRepository} to create a new game associated to the current user.
      *
      * @param request - a {@link GameDto} instance with the game details.
+     * @return a {@link GameUpdate} instance with the saved game and the cells which differ from the previous board.
      */
-    public Game saveGame(GameDto gameDto) {
+    public GameUpdate saveGame(GameDto gameDto) {
+        return saveGame(gameDto, null);
+    }
+
+    /**
+     * Interacts with {@link GameRepository} to create a new game associated to the current user, or to save an existing
+     * one if it was not updated after the given version.
+     * <p>
+     * Existing games are saved with an optimistic lock: the version sent in the {@link GameDto}, if any, must be the
+     * current one, and the update only succeeds if the game was not updated since it was read.
+     *
+     * @param request - a {@link GameDto} instance with the game details.
+     * @param expectedVersion - the version the saved game must have, or null to save it unconditionally.
+     * @return a {@link GameUpdate} instance with the saved game and the cells which differ from the previous board.
+     * @throws GameVersionMismatchException if the game does not have the expected version.
+     * @throws GameVersionConflictException if the game does not have the version sent in the {@link GameDto}.
+     */
+    public GameUpdate saveGame(GameDto gameDto, Long expectedVersion) {
         Game game;
         Long id = gameDto.getId();
+        BitSet changedCells = new BitSet();
+        if (id == null && !gameDto.hasBoard()) {
+            game = claimPooledGame(gameDto);
+            if (game != null) {
+                return new GameUpdate(game, changedCells);
+            }
+            game = newGeneratedGame(gameDto);
+            gameRepository.save(game);
+            return new GameUpdate(game, changedCells);
+        }
+        checkBoardDetails(gameDto);
+        if (id != null && (expectedVersion != null || gameDto.getVersion() != null)) {
+            // Rejects stale saves before loading the board.
+            checkVersion(id, getVersion(id), expectedVersion, gameDto.getVersion());
+        }
+        if (id != null && writeBehindStore.isEnabled()) {
+            game = writeBehindStore.update(id, () -> loadGame(id), pending -> {
+                checkOwner(pending);
+                checkVersion(id, pending.getVersion(), expectedVersion, gameDto.getVersion());
+                PackedBoard previous = pending.getPackedBoard();
+                updateGame(pending, gameDto);
+                pending.incrementVersion();
+                changedCells.or(diff(previous, pending.getPackedBoard()));
+            });
+            return new GameUpdate(game, changedCells);
+        }
         if (id != null) {
-            game = gameRepository.findById(id)
-                    .orElseThrow(() -> new GameNotFoundException("Game Not Found with id: " + id));
-            // rowRepository.deleteAllByGame(game);
-            game.setRowsFromCellArray(gameDto.getCells());
-            game.setRemainingCells(gameDto.getRemainingCells());
-            game.setTimer(gameDto.getTimer());
-            game.setStatus(GameStatus.valueOf(gameDto.getStatus()));
-            // Delete existing rows and cells because we're losing the id's.
-            // rowRepository.deleteAllByGame(game);
-        } else {
+            game = getGameForUpdate(id);
+            checkVersion(id, game.getVersion(), expectedVersion, gameDto.getVersion());
+            PackedBoard previous = game.hasUnsnapshottedMoves() ? gameMoveLogService.getCurrentBoard(game) : game.getPackedBoard();
+            updateGame(game, gameDto);
+            changedCells.or(diff(previous, game.getPackedBoard()));
+            // Flushed right away, so a concurrent update fails here and the returned game has the new version.
+            gameRepository.saveAndFlush(game);
+            return new GameUpdate(game, changedCells);
+        }
+        try {
             game = GameDto.toGame(gameDto);
-            UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext()
-                    .getAuthentication()
-                    .getPrincipal();
-            String username = userDetails.getUsername();
-            game.setUsername(username);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidBoardException(e.getMessage());
         }
+        game.setUsername(getCurrentUsername());
         game.setLastUpdated(LocalDateTime.now());
         gameRepository.save(game);
+        return new GameUpdate(game, changedCells);
+    }
+
+    private static void checkVersion(Long id, Long version, Long expectedVersion, Long gameVersion) {
+        if (version == null) {
+            return;
+        }
+        if (expectedVersion != null && version.longValue() != expectedVersion) {
+            throw new GameVersionMismatchException("Game " + id + " was updated, current version: " + version);
+        }
+        if (gameVersion != null && version.longValue() != gameVersion) {
+            throw new GameVersionConflictException(id, version);
+        }
+    }
+
+    /**
+     * @return the indexes of the cells which differ between two boards, or of all the cells if there is no previous
+     *         board of the same size.
+     */
+    private static BitSet diff(PackedBoard previous, PackedBoard current) {
+        BitSet changed = new BitSet();
+        if (current == null) {
+            return changed;
+        }
+        int length = current.getLength();
+        if (previous == null || previous.getHeight() != current.getHeight() || previous.getWidth() != current.getWidth()) {
+            changed.set(0, length);
+            return changed;
+        }
+        byte[] before = previous.getData();
+        byte[] after = current.getData();
+        for (int i = 0, offset = PackedBoard.HEADER_LENGTH; i < length; i++, offset++) {
+            if (before[offset] != after[offset]) {
+                changed.set(i);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Claims a ready game from the pool when the requested board matches a preset. Games with a given seed or timer,
+     * and no-guess games, are always created.
+     */
+    private Game claimPooledGame(GameDto gameDto) {
+        if (gameDto.getSeed() != null || Boolean.TRUE.equals(gameDto.getNoGuess()) || (gameDto.getTimer() != null && gameDto.getTimer() != 0L) || gameDto.getSize() == null
+                || gameDto.getMines() == null) {
+            return null;
+        }
+        return boardPool.claim(gameDto.getSize(), gameDto.getMines(), getCurrentUsername());
+    }
+
+    /**
+     * Creates a game whose board will be generated on the first reveal, so only its seed is stored until then.
+     */
+    private Game newGeneratedGame(GameDto gameDto) {
+        int size = gameDto.getSize();
+        int mines = gameDto.getMines();
+        if (size <= 0 || mines < 0 || mines >= size * size) {
+            throw new InvalidBoardException("Invalid board: " + size + "x" + size + " with " + mines + " mines");
+        }
+        Game game = new Game(null, getCurrentUsername(), gameDto.getTimer() != null ? gameDto.getTimer() : 0L, size, mines, null,
+                size * size - mines, GameStatus.IN_GAME, LocalDateTime.now());
+        game.setSeed(gameDto.getSeed() != null ? gameDto.getSeed() : ThreadLocalRandom.current()
+                .nextLong());
+        game.setNoGuess(Boolean.TRUE.equals(gameDto.getNoGuess()));
         return game;
     }
 
+    private void checkBoardDetails(GameDto gameDto) {
+        if (!gameDto.hasBoard() || gameDto.getRemainingCells() == null || gameDto.getStatus() == null) {
+            throw new InvalidBoardException("Cells, remaining cells and status are required to save a board");
+        }
+        if (!validateUploads) {
+            return;
+        }
+        PackedBoard board = gameDto.getPackedBoard();
+        if (board != null && (board.getHeight() != gameDto.getSize() || board.getWidth() != gameDto.getSize())) {
+            throw new InvalidBoardException("Invalid board: " + board.getHeight() + "x" + board.getWidth() + " cells for size " + gameDto.getSize());
+        }
+        if (gameDto.getBoardMines() >= 0 && gameDto.getBoardMines() != gameDto.getMines()) {
+            throw new InvalidBoardException("Invalid board: " + gameDto.getBoardMines() + " mines, expected " + gameDto.getMines());
+        }
+    }
+
+    private void updateGame(Game game, GameDto gameDto) {
+        // Legacy rows and cells, if any, are replaced by the packed board, which includes all the recorded moves.
+        setBoard(game, gameDto);
+        game.setSnapshotSeq(game.getMoveSeq());
+        game.setRemainingCells(gameDto.getRemainingCells());
+        game.setTimer(gameDto.getTimer());
+        game.setStatus(GameStatus.valueOf(gameDto.getStatus()));
+        game.setLastUpdated(LocalDateTime.now());
+    }
+
+    /**
+     * Interacts with {@link GameMoveLogService} and {@link GameRepository} to apply a list of cell changes to the board
+     * of a game associated to the current user, without rewriting the rest of the board.
+     *
+     * @param id - the game id.
+     * @param movesRequest - a {@link MovesRequest} instance with the cell changes and game details.
+     * @return a {@link GameUpdate} instance with the updated game and the changed cells.
+     */
+    public GameUpdate applyMoves(Long id, MovesRequest movesRequest) {
+        BitSet changedCells = new BitSet();
+        Game game = updateBoard(id, (current, board) -> {
+            applyMoves(current, board, movesRequest, changedCells);
+            return movesRequest.getMoves();
+        });
+        return new GameUpdate(game, changedCells);
+    }
+
+    /**
+     * Interacts with {@link GameEngine} to reveal a cell of a game associated to the current user, cascading to the
+     * adjacent cells, and updates the remaining cells and status of the game.
+     *
+     * @param id - the game id.
+     * @param y - the row of the cell.
+     * @param x - the column of the cell.
+     * @return a {@link GameUpdate} instance with the updated game and the opened cells.
+     */
+    public GameUpdate reveal(Long id, int y, int x) {
+        BitSet changedCells = new BitSet();
+        Game game = updateBoard(id, (current, board) -> play(current, board != null ? board : generateBoard(current, y, x), new Move(y, x, MoveType.OPEN),
+                changedCells));
+        return new GameUpdate(game, changedCells);
+    }
+
+    /**
+     * Interacts with {@link GameEngine} to flag a covered cell of a game associated to the current user, or to remove
+     * the flag of a flagged one.
+     *
+     * @param id - the game id.
+     * @param y - the row of the cell.
+     * @param x - the column of the cell.
+     * @return a {@link GameUpdate} instance with the updated game and the changed cell.
+     */
+    public GameUpdate flag(Long id, int y, int x) {
+        BitSet changedCells = new BitSet();
+        Game game = updateBoard(id, (current, board) -> {
+            checkCell(current, board, y, x);
+            MoveType action = board.getStatus(board.indexOf(y, x)) == CellStatus.FLAGGED ? MoveType.UNFLAG : MoveType.FLAG;
+            return play(current, board, new Move(y, x, action), changedCells);
+        });
+        return new GameUpdate(game, changedCells);
+    }
+
+    /**
+     * Interacts with {@link GameEngine} to play an ordered batch of actions on a game associated to the current user,
+     * loading and writing the game once. Each action is applied on the board left by the previous ones; an invalid
+     * action is rejected without undoing the others, and the actions after the end of the game are rejected too.
+     *
+     * @param id - the game id.
+     * @param actionsRequest - an {@link ActionsRequest} instance with the actions and the optional timer.
+     * @return a {@link BatchResult} instance with the updated game, the outcome of each action and the changed cells.
+     */
+    public BatchResult applyActions(Long id, ActionsRequest actionsRequest) {
+        List<Move> actions = actionsRequest.getActions();
+        if (actions.size() > maxBatchSize) {
+            throw new InvalidMoveException("Too many actions: " + actions.size() + ", the maximum is " + maxBatchSize);
+        }
+        List<ActionResult> results = new ArrayList<>(actions.size());
+        BitSet changedCells = new BitSet();
+        Game game = updateBoard(id, (current, board) -> {
+            List<Move> applied = new ArrayList<>(actions.size());
+            for (Move action : actions) {
+                Move move = action.getAction() == MoveType.REVEAL ? new Move(action.getY(), action.getX(), MoveType.OPEN) : action;
+                try {
+                    if (board == null && move.getAction() == MoveType.OPEN) {
+                        board = generateBoard(current, move.getY(), move.getX());
+                    }
+                    addChangedCells(changedCells, playMove(current, board, move));
+                    applied.add(move);
+                    results.add(new ActionResult(move.getY(), move.getX(), move.getAction(), true, null));
+                } catch (InvalidMoveException e) {
+                    results.add(new ActionResult(move.getY(), move.getX(), move.getAction(), false, e.getMessage()));
+                }
+            }
+            if (actionsRequest.getTimer() != null) {
+                current.setTimer(actionsRequest.getTimer());
+                current.setLastUpdated(LocalDateTime.now());
+            }
+            return applied;
+        });
+        return new BatchResult(game, results, changedCells);
+    }
+
     /**
-     * Interacts with {@link GameRepository} to get all games for current user.
+     * Applies a change to the current board of a game associated to the current user, and persists it through
+     * {@link GameWriteBehindStore} or {@link GameMoveLogService}.
      *
-     * @return a {@link List} of {@link Game} instances associated to the authenticated user.
+     * @param id - the game id.
+     * @param update - applies the change to the game and its board, returning the moves to record.
+     * @return the updated {@link Game} instance.
      */
-    public List<Game> getAllGamesForCurrentUser() {
+    private Game updateBoard(Long id, BiFunction<Game, PackedBoard, List<Move>> update) {
+        if (writeBehindStore.isEnabled()) {
+            return writeBehindStore.update(id, () -> gameMoveLogService.getCurrentState(loadGame(id)), pending -> {
+                checkOwner(pending);
+                update.apply(pending, pending.getPackedBoard());
+                pending.incrementVersion();
+            });
+        }
+        Game game = getGameForUpdate(id);
+        PackedBoard board = gameMoveLogService.getCurrentBoard(game);
+        List<Move> moves = update.apply(game, board);
+        if (board == null) {
+            // Generated by the update.
+            board = game.getPackedBoard();
+        }
+        boolean snapshot = gameMoveLogService.record(game, board, moves);
+        // Flushed right away, so a concurrent update fails here and the returned game has the new version.
+        gameRepository.saveAndFlush(game);
+        if (snapshot) {
+            return game;
+        }
+        // Only the moves were recorded, return the current board without storing it.
+        Game current = game.copy();
+        current.setPackedBoard(board);
+        return current;
+    }
+
+    private List<Move> play(Game game, PackedBoard board, Move move, BitSet changedCells) {
+        addChangedCells(changedCells, playMove(game, board, move));
+        return Collections.singletonList(move);
+    }
+
+    private static void addChangedCells(BitSet changedCells, MoveResult result) {
+        for (int cell : result.getChangedCells()) {
+            changedCells.set(cell);
+        }
+    }
+
+    private MoveResult playMove(Game game, PackedBoard board, Move move) {
+        checkCell(game, board, move.getY(), move.getX());
+        if (game.getStatus() != GameStatus.IN_GAME) {
+            throw new InvalidMoveException("Game is over: " + game.getId());
+        }
+        if (game.getRemainingCells() == null) {
+            game.setRemainingCells(GameEngine.countRemainingCells(board));
+        }
+        MoveResult result = GameMoveLogService.applyMove(board, move.getY(), move.getX(), move.getAction());
+        if (result.isMine()) {
+            game.setStatus(GameStatus.LOST);
+        } else if (move.getAction() == MoveType.OPEN || move.getAction() == MoveType.CHORD) {
+            int remainingCells = game.getRemainingCells() - result.getChangedCount();
+            game.setRemainingCells(remainingCells);
+            if (remainingCells <= 0) {
+                game.setStatus(GameStatus.WINNED);
+            }
+        }
+        game.setLastUpdated(LocalDateTime.now());
+        return result;
+    }
+
+    /**
+     * Interacts with {@link BoardGenerator}, or {@link NoGuessGenerator} for no-guess games, to generate the board of a
+     * game on its first reveal, keeping the revealed cell safe.
+     */
+    private PackedBoard generateBoard(Game game, int y, int x) {
+        if (!game.isPendingGeneration()) {
+            return null;
+        }
+        PackedBoard board;
+        try {
+            board = game.isNoGuess() ? noGuessGenerator.generate(game.getSize(), game.getMines(), game.getSeed(), y, x)
+                    : BoardGenerator.generate(game.getSize(), game.getSize(), game.getMines(), game.getSeed(), y, x);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidMoveException(e.getMessage());
+        }
+        game.setPackedBoard(board);
+        game.setFirstClick(board.indexOf(y, x));
+        game.setSnapshotSeq(game.getMoveSeq());
+        return board;
+    }
+
+    private void checkCell(Game game, PackedBoard board, int y, int x) {
+        checkBoard(game, board);
+        if (!board.contains(y, x)) {
+            throw new InvalidMoveException("Cell out of the board: " + y + "," + x);
+        }
+    }
+
+    private void checkBoard(Game game, PackedBoard board) {
+        if (board == null) {
+            throw new InvalidMoveException(game.isPendingGeneration() ? "Board not generated yet, reveal a cell first: " + game.getId()
+                    : "Game has no board: " + game.getId());
+        }
+    }
+
+    private void applyMoves(Game game, PackedBoard board, MovesRequest movesRequest, BitSet changedCells) {
+        checkBoard(game, board);
+        // Checked before any move is applied, so a rejected request leaves the board untouched.
+        GameStatus status = movesRequest.getStatus() != null ? toGameStatus(movesRequest.getStatus()) : null;
+        for (Move move : movesRequest.getMoves()) {
+            addChangedCells(changedCells, GameMoveLogService.applyMove(board, move.getY(), move.getX(), move.getAction()));
+        }
+        if (movesRequest.getRemainingCells() != null) {
+            game.setRemainingCells(movesRequest.getRemainingCells());
+        }
+        if (movesRequest.getTimer() != null) {
+            game.setTimer(movesRequest.getTimer());
+        }
+        if (status != null) {
+            game.setStatus(status);
+        }
+        game.setLastUpdated(LocalDateTime.now());
+    }
+
+    private static GameStatus toGameStatus(String status) {
+        try {
+            return GameStatus.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidMoveException("Invalid game status: " + status);
+        }
+    }
+
+    private void setBoard(Game game, GameDto gameDto) {
+        try {
+            gameDto.copyBoardTo(game);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidBoardException(e.getMessage());
+        }
+    }
+
+    /**
+     * Interacts with {@link GameRepository} to get the summaries of all games for current user, most recently updated
+     * first.
+     *
+     * @return a {@link List} of {@link GameSummary} instances associated to the authenticated user.
+     */
+    public List<GameSummary> getAllGamesForCurrentUser() {
+        return gameRepository.findSummariesByUsernameOrderByLastUpdatedDesc(getCurrentUsername());
+    }
+
+    /**
+     * Interacts with {@link GameRepository} to get a page of game summaries for current user, most recently updated
+     * first.
+     *
+     * @param cursor - the position of the last game of the previous page, or null for the first page.
+     * @param limit - the maximum number of games to retrieve.
+     * @return a {@link List} of {@link GameSummary} instances associated to the authenticated user.
+     */
+    public List<GameSummary> getGamesPageForCurrentUser(GameCursor cursor, int limit) {
+        String username = getCurrentUsername();
+        PageRequest page = PageRequest.of(0, limit);
+        if (cursor == null) {
+            return gameRepository.findSummariesByUsernameOrderByLastUpdatedDescIdDesc(username, page);
+        }
+        return gameRepository.findSummariesByUsernameAfter(username, cursor.getLastUpdated(), cursor.getId(), page);
+    }
+
+    /**
+     * Interacts with {@link GameRepository} to pass the summaries of all games for the given user to a consumer, as
+     * they are read from a database cursor, without holding them in memory.
+     *
+     * @param username - the user name.
+     * @param consumer - the consumer of each {@link GameSummary} instance.
+     */
+    public void forEachGameSummary(String username, Consumer<GameSummary> consumer) {
+        try (Stream<GameSummary> summaries = gameRepository.streamSummariesByUsernameOrderByLastUpdatedDescIdDesc(username)) {
+            summaries.forEach(consumer);
+        }
+    }
+
+    /**
+     * @return the user name of the authenticated user.
+     */
+    public String getCurrentUsername() {
         UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext()
                 .getAuthentication()
                 .getPrincipal();
-        String username = userDetails.getUsername();
-        List<Game> games = gameRepository.findAllByUsername(username);
-        return games;
+        return userDetails.getUsername();
     }
 
     /**
-     * Interacts with {@link GameRepository} to get an individual game.
+     * Interacts with {@link GameWriteBehindStore}, {@link GameCache}, {@link GameRepository} and
+     * {@link GameMoveLogService} to get an individual game. The returned instance may be shared with other requests,
+     * and must not be modified.
      *
      * @param id - the game id.
      * @return a {@link Game} instance if the game is associated to the authenticated user, an error otherwise.
      */
     public Game getGame(Long id) {
+        Game game = writeBehindStore.get(id);
+        if (game == null) {
+            game = gameCache.get(id);
+        }
+        if (game == null) {
+            long stamp = gameCache.stamp(id);
+            Game loaded = loadGame(id);
+            game = gameMoveLogService.getCurrentState(loaded);
+            if (game.getBoard() != null) {
+                // Never share an instance managed by the persistence context of this request.
+                entityManager.detach(loaded);
+                gameCache.put(game, stamp);
+            }
+        }
+        checkOwner(game);
+        return game;
+    }
+
+    /**
+     * Retrieves the current version of a game associated to the current user, without loading its board.
+     *
+     * @param id - the game id.
+     * @return the game version, or null if the game is not found for the current user.
+     */
+    public Long getVersion(Long id) {
+        Game game = writeBehindStore.get(id);
+        if (game == null) {
+            game = gameCache.get(id);
+        }
+        if (game != null) {
+            return getCurrentUsername().equals(game.getUsername()) ? game.getVersion() : null;
+        }
+        return gameRepository.findVersion(id, getCurrentUsername());
+    }
+
+    /**
+     * Retrieves a version of the list of games of the current user, which changes whenever one of them is created,
+     * updated or deleted, without loading them.
+     *
+     * @return the listing version.
+     */
+    public String getListingVersion() {
+        GameListingVersion version = gameRepository.findListingVersion(getCurrentUsername());
+        LocalDateTime lastUpdated = version.getLastUpdated();
+        return version.getCount() + "-" + version.getVersions() + "-" + (lastUpdated != null ? lastUpdated.toString() : "0");
+    }
+
+    /**
+     * Retrieves a rectangular window of the board of a game associated to the current user. Only the cells of the
+     * window are decoded, from the board kept in {@link GameCache}.
+     *
+     * @param id - the game id.
+     * @param y - the first row of the window.
+     * @param x - the first column of the window.
+     * @param height - the number of rows of the window.
+     * @param width - the number of columns of the window.
+     * @return a {@link RegionResponse} instance with the window cells, clipped to the board.
+     */
+    public RegionResponse getRegion(Long id, int y, int x, int height, int width) {
+        if (y < 0 || x < 0 || height <= 0 || width <= 0 || (long) height * width > maxRegionCells) {
+            throw new InvalidBoardException("Invalid region: " + width + "x" + height + " at " + y + "," + x + ", the maximum is "
+                    + maxRegionCells + " cells");
+        }
+        Game game = getGame(id);
+        Cell[][] cells = game.getCellArrayFromBoard(y, x, height, width);
+        if (cells == null) {
+            throw new InvalidBoardException("Game has no board: " + id);
+        }
+        return new RegionResponse(game, y, x, cells);
+    }
+
+    /**
+     * Interacts with {@link GameMoveLogService} to get the moves recorded for a game associated to the current user,
+     * in the order they were applied.
+     *
+     * @param id - the game id.
+     * @return a {@link List} of {@link GameMove} instances if the game is associated to the authenticated user, an
+     *         error otherwise.
+     */
+    public List<GameMove> getMoves(Long id) {
         Game game = gameRepository.findById(id)
                 .orElseThrow(() -> new GameNotFoundException("Game Not Found with id: " + id));
-        UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext()
-                .getAuthentication()
-                .getPrincipal();
-        String username = userDetails.getUsername();
+        checkOwner(game);
+        return gameMoveLogService.getMoves(id);
+    }
+
+    /**
+     * Interacts with {@link GameRepository} to get an individual game to be modified, and removes it from
+     * {@link GameCache}.
+     *
+     * @param id - the game id.
+     * @return a {@link Game} instance if the game is associated to the authenticated user, an error otherwise.
+     */
+    private Game getGameForUpdate(Long id) {
+        Game game = loadGame(id);
+        checkOwner(game);
+        invalidateCache(id);
+        return game;
+    }
+
+    private Game loadGame(Long id) {
+        return gameRepository.findWithBoardById(id)
+                .orElseThrow(() -> new GameNotFoundException("Game Not Found with id: " + id));
+    }
+
+    private void checkOwner(Game game) {
+        String username = getCurrentUsername();
         if (!username.equals(game.getUsername())) {
             throw new GameNotAvailableException("Game Not Available for current user: " + username);
         }
-        return game;
+    }
+
+    /**
+     * Removes a game from {@link GameCache} right away, and once again after the current transaction completes, so
+     * copies loaded before the commit are discarded too.
+     */
+    private void invalidateCache(Long id) {
+        gameCache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    gameCache.invalidate(id);
+                }
+            });
+        }
     }
 
     /**
@@ -96,31 +683,45 @@ public class GameService {
      * @return a {@link MessageResponse} indicating if the deletion was successful or not.
      */
     public void deleteGame(Long id) {
-        Game game = gameRepository.findById(id)
-                .orElseThrow(() -> new GameNotFoundException("Game Not Found with id: " + id));
-        UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext()
-                .getAuthentication()
-                .getPrincipal();
-        String username = userDetails.getUsername();
-        if (!username.equals(game.getUsername())) {
-            throw new GameNotAvailableException("Game Not Available for user: " + username);
-        }
+        Game game = getGameForUpdate(id);
+        writeBehindStore.discard(id);
+        gameMoveRepository.deleteMovesByGameId(id);
         gameRepository.delete(game);
     }
 
     /**
-     * Interacts with {@link GameRepository} to delete all games associated to the current user.
-     *
-     * @return a {@link MessageResponse} indicating if the deletion was successful or not.
+     * Interacts with {@link GameRepository} to delete all games associated to the current user, with a few set-based
+     * statements that never load the games.
      */
     public void deleteAllGamesForCurrentUser() {
-        UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext()
-                .getAuthentication()
-                .getPrincipal();
-        String username = userDetails.getUsername();
-        List<Game> games = gameRepository.findAllByUsername(username);
-        for (Game game : games) {
-            gameRepository.delete(game);
+        String username = getCurrentUsername();
+        gameMoveRepository.deleteMovesByUsername(username);
+        gameRepository.deleteLegacyCellsByUsername(username);
+        gameRepository.deleteLegacyRowsByUsername(username);
+        int deleted = gameRepository.deleteGamesByUsername(username);
+        logger.debug(">>> deleted {} games for {}", deleted, username);
+        writeBehindStore.discardAll(username);
+        gameCache.invalidateAll(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    gameCache.invalidateAll(username);
+                }
+            });
+        }
+    }
+
+    /**
+     * Interacts with {@link GameDeletionService} to delete, in the background, all games associated to the current
+     * user at the time of the call.
+     */
+    public void deleteAllGamesForCurrentUserAsync() {
+        String username = getCurrentUsername();
+        Long maxId = gameRepository.findMaxIdByUsername(username);
+        if (maxId != null) {
+            writeBehindStore.discardAll(username);
+            gameDeletionService.deleteGamesInBatches(username, maxId);
         }
     }
 }
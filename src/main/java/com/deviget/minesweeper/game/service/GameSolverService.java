@@ -0,0 +1,169 @@
+package com.deviget.minesweeper.game.service;
+
+import java.util.Arrays;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import com.deviget.minesweeper.game.solver.BoardSolver;
+import com.deviget.minesweeper.game.solver.ComponentCache;
+import com.deviget.minesweeper.game.solver.MineProbabilities;
+import com.deviget.minesweeper.game.solver.SolverPool;
+import com.deviget.minesweeper.model.CellStatus;
+import com.deviget.minesweeper.model.Game;
+import com.deviget.minesweeper.model.GameStatus;
+import com.deviget.minesweeper.model.MoveType;
+import com.deviget.minesweeper.model.PackedBoard;
+import com.deviget.minesweeper.payload.response.HintResponse;
+import com.deviget.minesweeper.payload.response.ProbabilitiesResponse;
+
+/**
+ * Service class which analyzes the boards of games with {@link BoardSolver}, using only the information visible to the
+ * player.
+ * <p>
+ * Solvers are borrowed from bounded pools, which keep about one idle solver per core, so their buffers are reused across
+ * requests. Solvers grown beyond <code>minesweeper.solver.maxRetainedCells</code> cells are dropped after use. Hints
+ * are bounded by <code>minesweeper.solver.timeBudgetMs</code>, and probabilities by
+ * <code>minesweeper.solver.probabilityBudgetMs</code>. The counts of the frontier components are memoized across
+ * requests, up to <code>minesweeper.solver.cacheMaxBytes</code> bytes.
+ *
+ * @author david.rios
+ */
+@Service
+public class GameSolverService {
+
+    static final String FIRST_MOVE = "FIRST_MOVE";
+
+    static final String NONE = "NONE";
+
+    static final String TIMEOUT = "TIMEOUT";
+
+    @Autowired
+    private GameService gameService;
+
+    @Value("${minesweeper.solver.timeBudgetMs:100}")
+    private long timeBudgetMs;
+
+    @Value("${minesweeper.solver.maxEnumerationCells:48}")
+    private int maxEnumerationCells;
+
+    @Value("${minesweeper.solver.probabilityBudgetMs:500}")
+    private long probabilityBudgetMs;
+
+    @Value("${minesweeper.solver.samples:2000}")
+    private int samples;
+
+    @Value("${minesweeper.solver.cacheMaxBytes:33554432}")
+    private long cacheMaxBytes;
+
+    @Value("${minesweeper.solver.maxRetainedCells:262144}")
+    private int maxRetainedCells;
+
+    private SolverPool<BoardSolver> solvers;
+
+    private ComponentCache componentCache;
+
+    private SolverPool<MineProbabilities> probabilitySolvers;
+
+    @PostConstruct
+    public void init() {
+        componentCache = new ComponentCache(cacheMaxBytes);
+        int processors = Runtime.getRuntime()
+                .availableProcessors();
+        solvers = new SolverPool<>(processors, maxRetainedCells, () -> new BoardSolver(maxEnumerationCells), BoardSolver::getCapacity);
+        probabilitySolvers = new SolverPool<>(processors, maxRetainedCells,
+                () -> new MineProbabilities(maxEnumerationCells, samples, componentCache), MineProbabilities::getCapacity);
+    }
+
+    /**
+     * Interacts with {@link GameService} and {@link BoardSolver} to suggest the next move of a game associated to the
+     * current user: a cell that is certainly safe, or else a cell that is certainly a mine and not flagged yet.
+     *
+     * @param id - the game id.
+     * @return a {@link HintResponse} instance.
+     */
+    public HintResponse getHint(Long id) {
+        Game game = gameService.getGame(id);
+        if (game.getStatus() != GameStatus.IN_GAME) {
+            throw new InvalidMoveException("Game is over: " + id);
+        }
+        if (game.isPendingGeneration()) {
+            // The first reveal of a generated board is always safe.
+            int center = game.getSize() / 2;
+            return new HintResponse(center, center, MoveType.OPEN, FIRST_MOVE, true);
+        }
+        PackedBoard board = game.getPackedBoard();
+        if (board == null) {
+            throw new InvalidMoveException("Game has no board: " + id);
+        }
+        BoardSolver solver = solvers.acquire();
+        try {
+            boolean complete = solver.solve(board, System.nanoTime() + timeBudgetMs * 1_000_000L);
+            int mine = -1;
+            for (int i = 0, count = solver.getDeducedCount(); i < count; i++) {
+                int cell = solver.getDeducedCell(i);
+                boolean flagged = board.getStatus(cell) == CellStatus.FLAGGED;
+                if (solver.getState(cell) == BoardSolver.SAFE) {
+                    return hint(board, cell, flagged ? MoveType.UNFLAG : MoveType.OPEN, solver.getDeducedStage(i)
+                            .name(), complete);
+                }
+                if (mine < 0 && !flagged) {
+                    mine = i;
+                }
+            }
+            if (mine >= 0) {
+                return hint(board, solver.getDeducedCell(mine), MoveType.FLAG, solver.getDeducedStage(mine)
+                        .name(), complete);
+            }
+            return new HintResponse(null, null, null, complete ? NONE : TIMEOUT, complete);
+        } finally {
+            solvers.release(solver);
+        }
+    }
+
+    /**
+     * Interacts with {@link GameService} and {@link MineProbabilities} to compute the probability of each covered cell
+     * of a game associated to the current user being a mine.
+     *
+     * @param id - the game id.
+     * @return a {@link ProbabilitiesResponse} instance.
+     */
+    public ProbabilitiesResponse getProbabilities(Long id) {
+        Game game = gameService.getGame(id);
+        if (game.getStatus() != GameStatus.IN_GAME) {
+            throw new InvalidMoveException("Game is over: " + id);
+        }
+        if (game.isPendingGeneration()) {
+            int size = game.getSize();
+            double[][] probabilities = new double[size][size];
+            double density = (double) game.getMines() / (size * size);
+            for (double[] row : probabilities) {
+                Arrays.fill(row, density);
+            }
+            return new ProbabilitiesResponse(probabilities, true, true, 0);
+        }
+        PackedBoard board = game.getPackedBoard();
+        if (board == null) {
+            throw new InvalidMoveException("Game has no board: " + id);
+        }
+        MineProbabilities solver = probabilitySolvers.acquire();
+        try {
+            boolean complete = solver.compute(board, game.getMines(), System.nanoTime() + probabilityBudgetMs * 1_000_000L);
+            // Sized from the stored board, which may not match the game size.
+            double[][] probabilities = new double[board.getHeight()][board.getWidth()];
+            for (int y = 0; y < probabilities.length; y++) {
+                for (int x = 0; x < probabilities[y].length; x++) {
+                    probabilities[y][x] = solver.getProbability(board.indexOf(y, x));
+                }
+            }
+            return new ProbabilitiesResponse(probabilities, solver.isExact(), complete, solver.getMaxError());
+        } finally {
+            probabilitySolvers.release(solver);
+        }
+    }
+
+    private static HintResponse hint(PackedBoard board, int cell, MoveType action, String reason, boolean complete) {
+        int y = cell / board.getWidth();
+        return new HintResponse(y, cell - y * board.getWidth(), action, reason, complete);
+    }
+}
@@ -0,0 +1,30 @@
+package com.deviget.minesweeper.game.service;
+
+import java.util.BitSet;
+import com.deviget.minesweeper.model.Game;
+
+/**
+ * Outcome of an update applied by {@link GameService}: the updated game, and the indexes of the board cells whose
+ * status changed, so clients can be answered with the changed cells only.
+ *
+ * @author david.rios
+ */
+public class GameUpdate {
+
+    private final Game game;
+
+    private final BitSet changedCells;
+
+    public GameUpdate(Game game, BitSet changedCells) {
+        this.game = game;
+        this.changedCells = changedCells;
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    public BitSet getChangedCells() {
+        return changedCells;
+    }
+}
@@ -0,0 +1,37 @@
+package com.deviget.minesweeper.game.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown if a game cannot be saved because it was updated after the version read by the client.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class GameVersionConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    private final Long version;
+
+    /**
+     * Constructs a <code>GameVersionConflictException</code> for the specified game.
+     *
+     * @param id - the game id.
+     * @param version - the current version of the game.
+     */
+    public GameVersionConflictException(Long id, Long version) {
+        super("Game " + id + " was updated, current version: " + version);
+        this.id = id;
+        this.version = version;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
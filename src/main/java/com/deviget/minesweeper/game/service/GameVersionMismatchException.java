@@ -0,0 +1,22 @@
+package com.deviget.minesweeper.game.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown if a game was updated after the version given by the client in a conditional request.
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class GameVersionMismatchException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a <code>GameVersionMismatchException</code> with the specified message.
+     *
+     * @param msg - the detail message.
+     */
+    public GameVersionMismatchException(String msg) {
+        super(msg);
+    }
+}
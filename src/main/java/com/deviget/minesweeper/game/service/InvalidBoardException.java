@@ -0,0 +1,22 @@
+package com.deviget.minesweeper.game.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown if a game board cannot be encoded or decoded.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidBoardException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs an <code>InvalidBoardException</code> with the specified message.
+     *
+     * @param msg - the detail message.
+     */
+    public InvalidBoardException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,22 @@
+package com.deviget.minesweeper.game.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown if a pagination cursor cannot be decoded.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs an <code>InvalidCursorException</code> with the specified message.
+     *
+     * @param msg - the detail message.
+     */
+    public InvalidCursorException(String msg) {
+        super(msg);
+    }
+}
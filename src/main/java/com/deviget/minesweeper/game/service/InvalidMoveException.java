@@ -0,0 +1,22 @@
+package com.deviget.minesweeper.game.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown if a move cannot be applied to the board of a {@link Game}.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidMoveException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs an <code>InvalidMoveException</code> with the specified message.
+     *
+     * @param msg - the detail message.
+     */
+    public InvalidMoveException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,713 @@
+package com.deviget.minesweeper.game.solver;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import com.deviget.minesweeper.model.CellStatus;
+import com.deviget.minesweeper.model.PackedBoard;
+
+/**
+ * Deduces which covered cells of a board are safe or mined, using only what a player can see: the open cells and their
+ * numbers. Flags are not trusted.
+ * <p>
+ * Each open cell is a constraint over its covered neighbours. Constraints are first propagated from a work queue (no
+ * mines left means all safe, as many mines as cells means all mined), then compared in pairs when one covers a subset
+ * of the other. When both stall, the covered frontier is split into independent components, connected through shared
+ * constraints, and every component small enough is enumerated by backtracking: a cell mined in none of the consistent
+ * configurations is safe, and mined in all of them is a mine. Components are enumerated in parallel on the common
+ * fork-join pool.
+ * <p>
+ * Solving stops at the given deadline, keeping the deductions made so far. Instances are not thread safe, and keep
+ * their buffers between calls, so a reused solver does not allocate once its buffers fit the board. The board itself
+ * is not kept.
+ *
+ * @author david.rios
+ */
+public class BoardSolver {
+
+    /**
+     * Deduction method of a cell.
+     */
+    public enum Stage {
+        PROPAGATION, SUBSET, ENUMERATION
+    }
+
+    public static final byte UNKNOWN = 0;
+
+    public static final byte SAFE = 1;
+
+    public static final byte MINE = 2;
+
+    public static final byte OPEN = 3;
+
+    private static final int DEADLINE_CHECK_MASK = 0xFF;
+
+    private static final Stage[] STAGES = Stage.values();
+
+    private final int maxEnumerationCells;
+
+    private int width;
+
+    private int height;
+
+    private int length;
+
+    private long deadline;
+
+    private volatile boolean timedOut;
+
+    private Stage stage;
+
+    /** Knowledge of each cell. */
+    private byte[] state = new byte[0];
+
+    /** Constraint of each open cell, or -1. */
+    private int[] constraintOf = new int[0];
+
+    /** Component of each frontier cell, also used as the union-find parent while grouping. */
+    private int[] component = new int[0];
+
+    /** Open cell of each constraint. */
+    private int[] constraintCell = new int[0];
+
+    /** Number of the open cell of each constraint, so the board is not kept after solving. */
+    private int[] constraintMines = new int[0];
+
+    private int constraintCount;
+
+    private int[] queue = new int[0];
+
+    private int queueHead;
+
+    private int queueTail;
+
+    private int queueSize;
+
+    private boolean[] queued = new boolean[0];
+
+    /** Deduced cells, in order. */
+    private int[] deduced = new int[0];
+
+    private byte[] deducedStage = new byte[0];
+
+    private int deducedCount;
+
+    /** Frontier cells grouped by component, and the start of each group. */
+    private int[] componentCells = new int[0];
+
+    private int[] componentStart = new int[0];
+
+    private int componentCount;
+
+    /** Enumeration state, by position in componentCells and by constraint. */
+    private byte[] assignment = new byte[0];
+
+    private long[] mineSolutions = new long[0];
+
+    private long[] solutions = new long[0];
+
+    private int[] assignedMines = new int[0];
+
+    private int[] unassigned = new int[0];
+
+    private int[] pendingMines = new int[0];
+
+    private final int[] cellsA = new int[8];
+
+    private final int[] cellsB = new int[8];
+
+    /**
+     * @param maxEnumerationCells - the largest component of the frontier enumerated, in cells.
+     */
+    public BoardSolver(int maxEnumerationCells) {
+        this.maxEnumerationCells = maxEnumerationCells;
+    }
+
+    /**
+     * Deduces the safe and mined cells of a board.
+     *
+     * @param board - the board, which is not modified.
+     * @param deadline - the {@link System#nanoTime()} at which solving stops.
+     * @return true if solving completed, false if it was stopped by the deadline.
+     */
+    public boolean solve(PackedBoard board, long deadline) {
+        this.deadline = deadline;
+        this.timedOut = false;
+        this.deducedCount = 0;
+        init(board);
+        for (int c = 0; c < constraintCount; c++) {
+            enqueue(c);
+        }
+        // Every round checks the deadline, besides the periodic checks within each stage.
+        while (!checkDeadline(0)) {
+            stage = Stage.PROPAGATION;
+            propagate();
+            if (timedOut) {
+                break;
+            }
+            stage = Stage.SUBSET;
+            if (compareSubsets()) {
+                continue;
+            }
+            if (timedOut) {
+                break;
+            }
+            stage = Stage.ENUMERATION;
+            if (!enumerate()) {
+                break;
+            }
+        }
+        return !timedOut;
+    }
+
+    /**
+     * @param index - the cell index.
+     * @return the knowledge of the cell after the last solve: {@link #UNKNOWN}, {@link #SAFE}, {@link #MINE} or
+     *         {@link #OPEN}.
+     */
+    public byte getState(int index) {
+        return state[index];
+    }
+
+    /**
+     * @return the number of cells the buffers of this solver fit.
+     */
+    public int getCapacity() {
+        return state.length;
+    }
+
+    /**
+     * @return the number of cells deduced by the last solve.
+     */
+    public int getDeducedCount() {
+        return deducedCount;
+    }
+
+    /**
+     * @param i - the position of the deduction, in the order they were made.
+     * @return the index of the deduced cell.
+     */
+    public int getDeducedCell(int i) {
+        return deduced[i];
+    }
+
+    /**
+     * @param i - the position of the deduction, in the order they were made.
+     * @return the method which deduced the cell.
+     */
+    public Stage getDeducedStage(int i) {
+        return STAGES[deducedStage[i]];
+    }
+
+    /**
+     * Groups the unknown cells of the frontier left by the last solve in independent components.
+     *
+     * @return the number of components.
+     */
+    int groupFrontier() {
+        groupComponents();
+        return componentCount;
+    }
+
+    /**
+     * @param k - the component number, up to the number of components for the end of the last one.
+     * @return the position of the first cell of the component.
+     */
+    int getComponentStart(int k) {
+        return componentStart[k];
+    }
+
+    /**
+     * @param p - the position of the cell in its component.
+     * @return the cell index.
+     */
+    int getComponentCell(int p) {
+        return componentCells[p];
+    }
+
+    /**
+     * Describes a component by its cells, and the open cells constraining them with the mines they are missing, so
+     * components with the same description have the same configurations.
+     *
+     * @param k - the component number.
+     * @return the description of the component.
+     */
+    int[] describeComponent(int k) {
+        int from = componentStart[k];
+        int to = componentStart[k + 1];
+        int[] description = new int[(to - from) * 19];
+        int size = 0;
+        for (int p = from; p < to; p++) {
+            int cell = componentCells[p];
+            description[size++] = cell;
+            int y = cell / width;
+            int x = cell - y * width;
+            for (int ny = Math.max(0, y - 1), toY = Math.min(height - 1, y + 1); ny <= toY; ny++) {
+                for (int nx = Math.max(0, x - 1), toX = Math.min(width - 1, x + 1); nx <= toX; nx++) {
+                    int neighbour = ny * width + nx;
+                    if (constraintOf[neighbour] >= 0) {
+                        description[size++] = -1 - neighbour;
+                        description[size++] = remainingMines(neighbour);
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(description, size);
+    }
+
+    private void init(PackedBoard board) {
+        width = board.getWidth();
+        height = board.getHeight();
+        length = board.getLength();
+        if (state.length < length) {
+            state = new byte[length];
+            constraintOf = new int[length];
+            component = new int[length];
+            constraintCell = new int[length];
+            constraintMines = new int[length];
+            queue = new int[length];
+            queued = new boolean[length];
+            deduced = new int[length];
+            deducedStage = new byte[length];
+            componentCells = new int[length];
+            componentStart = new int[length + 1];
+            assignment = new byte[length];
+            mineSolutions = new long[length];
+            solutions = new long[length];
+            assignedMines = new int[length];
+            unassigned = new int[length];
+            pendingMines = new int[length];
+        }
+        constraintCount = 0;
+        queueHead = 0;
+        queueTail = 0;
+        queueSize = 0;
+        boolean lost = false;
+        for (int i = 0; i < length; i++) {
+            boolean open = board.getStatus(i) == CellStatus.OPEN;
+            state[i] = open ? OPEN : UNKNOWN;
+            constraintOf[i] = -1;
+            lost |= open && board.isMine(i);
+        }
+        if (lost) {
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            if (state[i] == OPEN && hasClosedNeighbour(i)) {
+                constraintOf[i] = constraintCount;
+                constraintCell[constraintCount] = i;
+                constraintMines[constraintCount] = board.getProximityMines(i);
+                queued[constraintCount] = false;
+                constraintCount++;
+            }
+        }
+    }
+
+    private boolean hasClosedNeighbour(int cell) {
+        int y = cell / width;
+        int x = cell - y * width;
+        for (int ny = Math.max(0, y - 1), toY = Math.min(height - 1, y + 1); ny <= toY; ny++) {
+            for (int nx = Math.max(0, x - 1), toX = Math.min(width - 1, x + 1); nx <= toX; nx++) {
+                if (state[ny * width + nx] != OPEN) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void enqueue(int c) {
+        if (!queued[c]) {
+            queued[c] = true;
+            // Each constraint is queued at most once at a time, so the buffer is used as a ring.
+            queue[queueTail] = c;
+            queueTail = queueTail + 1 == constraintCount ? 0 : queueTail + 1;
+            queueSize++;
+        }
+    }
+
+    private boolean checkDeadline(int iteration) {
+        if ((iteration & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() - deadline > 0) {
+            timedOut = true;
+        }
+        return timedOut;
+    }
+
+    /**
+     * Applies the trivial rule to the queued constraints until none is left.
+     */
+    private void propagate() {
+        int iteration = 0;
+        while (queueSize > 0) {
+            if (checkDeadline(++iteration)) {
+                return;
+            }
+            int c = queue[queueHead];
+            queueHead = queueHead + 1 == constraintCount ? 0 : queueHead + 1;
+            queueSize--;
+            queued[c] = false;
+            int unknown = collectUnknown(constraintCell[c], cellsA);
+            if (unknown == 0) {
+                continue;
+            }
+            int remaining = remainingMines(constraintCell[c]);
+            if (remaining == 0) {
+                markAll(cellsA, unknown, SAFE);
+            } else if (remaining == unknown) {
+                markAll(cellsA, unknown, MINE);
+            }
+        }
+    }
+
+    /**
+     * Compares each constraint with the constraints around it. If the unknown cells of one are a subset of the other's,
+     * the cells left over hold the difference of their mines.
+     *
+     * @return true if any cell was deduced.
+     */
+    private boolean compareSubsets() {
+        boolean changed = false;
+        for (int a = 0; a < constraintCount; a++) {
+            if (checkDeadline(a + 1)) {
+                return changed;
+            }
+            int cellA = constraintCell[a];
+            int unknownA = collectUnknown(cellA, cellsA);
+            if (unknownA == 0) {
+                continue;
+            }
+            int remainingA = remainingMines(cellA);
+            int y = cellA / width;
+            int x = cellA - y * width;
+            // Constraints sharing a cell are at most two rows or columns apart.
+            for (int ny = Math.max(0, y - 2), toY = Math.min(height - 1, y + 2); ny <= toY; ny++) {
+                for (int nx = Math.max(0, x - 2), toX = Math.min(width - 1, x + 2); nx <= toX; nx++) {
+                    int cellB = ny * width + nx;
+                    if (cellB == cellA || constraintOf[cellB] < 0 || !containsAll(cellB, cellsA, unknownA)) {
+                        continue;
+                    }
+                    int unknownB = collectUnknown(cellB, cellsB);
+                    int extra = unknownB - unknownA;
+                    if (extra == 0) {
+                        continue;
+                    }
+                    int extraMines = remainingMines(cellB) - remainingA;
+                    if (extraMines == 0 || extraMines == extra) {
+                        byte value = extraMines == 0 ? SAFE : MINE;
+                        for (int i = 0; i < unknownB; i++) {
+                            if (!isNeighbour(cellA, cellsB[i])) {
+                                mark(cellsB[i], value);
+                            }
+                        }
+                        changed = true;
+                        unknownA = collectUnknown(cellA, cellsA);
+                        if (unknownA == 0) {
+                            break;
+                        }
+                        remainingA = remainingMines(cellA);
+                    }
+                }
+                if (unknownA == 0) {
+                    break;
+                }
+            }
+        }
+        return changed;
+    }
+
+    private boolean containsAll(int cell, int[] cells, int count) {
+        for (int i = 0; i < count; i++) {
+            if (!isNeighbour(cell, cells[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isNeighbour(int cell, int other) {
+        int y = cell / width;
+        int oy = other / width;
+        return Math.abs(y - oy) <= 1 && Math.abs(cell - y * width - (other - oy * width)) <= 1;
+    }
+
+    /**
+     * Groups the frontier in independent components and enumerates the configurations of each small enough one.
+     *
+     * @return true if any cell was deduced.
+     */
+    private boolean enumerate() {
+        groupComponents();
+        int[] eligible = IntStream.range(0, componentCount)
+                .filter(k -> componentStart[k + 1] - componentStart[k] <= maxEnumerationCells)
+                .toArray();
+        if (eligible.length == 0) {
+            return false;
+        }
+        IntStream components = Arrays.stream(eligible);
+        if (eligible.length > 1 && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            components = components.parallel();
+        }
+        components.forEach(this::enumerateComponent);
+        if (timedOut) {
+            return false;
+        }
+        // Deductions are recorded sequentially, once all the components are enumerated.
+        boolean changed = false;
+        for (int k : eligible) {
+            long total = solutions[k];
+            if (total == 0) {
+                continue;
+            }
+            for (int p = componentStart[k]; p < componentStart[k + 1]; p++) {
+                if (mineSolutions[p] == 0) {
+                    mark(componentCells[p], SAFE);
+                    changed = true;
+                } else if (mineSolutions[p] == total) {
+                    mark(componentCells[p], MINE);
+                    changed = true;
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Splits the unknown cells next to a constraint in components, connecting the cells of each constraint with a
+     * union-find, and lays them out grouped by component in {@link #componentCells}.
+     */
+    private void groupComponents() {
+        for (int i = 0; i < length; i++) {
+            component[i] = -1;
+        }
+        for (int c = 0; c < constraintCount; c++) {
+            int unknown = collectUnknown(constraintCell[c], cellsA);
+            for (int i = 0; i < unknown; i++) {
+                if (component[cellsA[i]] < 0) {
+                    component[cellsA[i]] = cellsA[i];
+                }
+                if (i > 0) {
+                    union(cellsA[0], cellsA[i]);
+                }
+            }
+        }
+        // Roots become component numbers, encoded as negative values below -1 so they are not taken for cells.
+        componentCount = 0;
+        int frontier = 0;
+        for (int i = 0; i < length; i++) {
+            if (component[i] >= 0 && find(i) == i) {
+                solutions[componentCount] = 0;
+                componentStart[componentCount] = 0;
+                component[i] = -2 - componentCount++;
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            if (component[i] != -1) {
+                componentStart[componentNumber(i)]++;
+                frontier++;
+            }
+        }
+        int start = 0;
+        for (int k = 0; k < componentCount; k++) {
+            int size = componentStart[k];
+            componentStart[k] = start;
+            start += size;
+        }
+        componentStart[componentCount] = frontier;
+        // The solution counters are not in use yet, and serve as the fill position of each component.
+        for (int i = 0; i < length; i++) {
+            if (component[i] != -1) {
+                int k = componentNumber(i);
+                componentCells[componentStart[k] + (int) solutions[k]++] = i;
+            }
+        }
+        for (int k = 0; k < componentCount; k++) {
+            solutions[k] = 0;
+        }
+    }
+
+    private int find(int cell) {
+        int root = cell;
+        while (component[root] >= 0 && component[root] != root) {
+            root = component[root];
+        }
+        while (component[cell] >= 0 && component[cell] != root) {
+            int next = component[cell];
+            component[cell] = root;
+            cell = next;
+        }
+        return root;
+    }
+
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA != rootB) {
+            component[rootB] = rootA;
+        }
+    }
+
+    private int componentNumber(int cell) {
+        int root = cell;
+        while (component[root] >= 0) {
+            root = component[root];
+        }
+        return -2 - component[root];
+    }
+
+    private void enumerateComponent(int k) {
+        int from = componentStart[k];
+        int to = componentStart[k + 1];
+        for (int p = from; p < to; p++) {
+            mineSolutions[p] = 0;
+        }
+        prepareComponent(k);
+        solutions[k] = 0;
+        backtrack(k, from, to, from, 0);
+    }
+
+    /**
+     * Resets the counters of the constraints of a component before assigning its cells.
+     *
+     * @param k - the component number.
+     */
+    void prepareComponent(int k) {
+        for (int p = componentStart[k]; p < componentStart[k + 1]; p++) {
+            int cell = componentCells[p];
+            int y = cell / width;
+            int x = cell - y * width;
+            for (int ny = Math.max(0, y - 1), toY = Math.min(height - 1, y + 1); ny <= toY; ny++) {
+                for (int nx = Math.max(0, x - 1), toX = Math.min(width - 1, x + 1); nx <= toX; nx++) {
+                    int c = constraintOf[ny * width + nx];
+                    if (c >= 0) {
+                        // The constraints of a component only touch its own cells, so components share no counters.
+                        assignedMines[c] = 0;
+                        unassigned[c] = countUnknown(constraintCell[c]);
+                        pendingMines[c] = remainingMines(constraintCell[c]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of nodes visited so far, to check the deadline periodically.
+     */
+    private long backtrack(int k, int from, int to, int p, long nodes) {
+        if (timedOut || (++nodes & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() - deadline > 0) {
+            timedOut = true;
+            return nodes;
+        }
+        if (p == to) {
+            solutions[k]++;
+            for (int i = from; i < to; i++) {
+                mineSolutions[i] += assignment[i];
+            }
+            return nodes;
+        }
+        int cell = componentCells[p];
+        for (byte value = 0; value <= 1; value++) {
+            if (assign(cell, value, 1)) {
+                assignment[p] = value;
+                nodes = backtrack(k, from, to, p + 1, nodes);
+            }
+            assign(cell, value, -1);
+            if (timedOut) {
+                break;
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Assigns or unassigns a value to a cell, updating the counters of its constraints.
+     *
+     * @return true if the assignment keeps every constraint of the cell satisfiable.
+     */
+    boolean assign(int cell, int value, int direction) {
+        int y = cell / width;
+        int x = cell - y * width;
+        boolean feasible = true;
+        for (int ny = Math.max(0, y - 1), toY = Math.min(height - 1, y + 1); ny <= toY; ny++) {
+            for (int nx = Math.max(0, x - 1), toX = Math.min(width - 1, x + 1); nx <= toX; nx++) {
+                int c = constraintOf[ny * width + nx];
+                if (c >= 0) {
+                    assignedMines[c] += value * direction;
+                    unassigned[c] -= direction;
+                    feasible &= assignedMines[c] <= pendingMines[c] && assignedMines[c] + unassigned[c] >= pendingMines[c];
+                }
+            }
+        }
+        return feasible;
+    }
+
+    private int collectUnknown(int cell, int[] cells) {
+        int y = cell / width;
+        int x = cell - y * width;
+        int count = 0;
+        for (int ny = Math.max(0, y - 1), toY = Math.min(height - 1, y + 1); ny <= toY; ny++) {
+            for (int nx = Math.max(0, x - 1), toX = Math.min(width - 1, x + 1); nx <= toX; nx++) {
+                int neighbour = ny * width + nx;
+                if (state[neighbour] == UNKNOWN) {
+                    cells[count++] = neighbour;
+                }
+            }
+        }
+        return count;
+    }
+
+    private int countUnknown(int cell) {
+        int y = cell / width;
+        int x = cell - y * width;
+        int count = 0;
+        for (int ny = Math.max(0, y - 1), toY = Math.min(height - 1, y + 1); ny <= toY; ny++) {
+            for (int nx = Math.max(0, x - 1), toX = Math.min(width - 1, x + 1); nx <= toX; nx++) {
+                if (state[ny * width + nx] == UNKNOWN) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the mines around the open cell of a constraint not deduced yet.
+     */
+    private int remainingMines(int cell) {
+        int y = cell / width;
+        int x = cell - y * width;
+        int remaining = constraintMines[constraintOf[cell]];
+        for (int ny = Math.max(0, y - 1), toY = Math.min(height - 1, y + 1); ny <= toY; ny++) {
+            for (int nx = Math.max(0, x - 1), toX = Math.min(width - 1, x + 1); nx <= toX; nx++) {
+                if (state[ny * width + nx] == MINE) {
+                    remaining--;
+                }
+            }
+        }
+        return remaining;
+    }
+
+    private void markAll(int[] cells, int count, byte value) {
+        for (int i = 0; i < count; i++) {
+            mark(cells[i], value);
+        }
+    }
+
+    private void mark(int cell, byte value) {
+        if (state[cell] != UNKNOWN) {
+            return;
+        }
+        state[cell] = value;
+        deduced[deducedCount] = cell;
+        deducedStage[deducedCount++] = (byte) stage.ordinal();
+        int y = cell / width;
+        int x = cell - y * width;
+        for (int ny = Math.max(0, y - 1), toY = Math.min(height - 1, y + 1); ny <= toY; ny++) {
+            for (int nx = Math.max(0, x - 1), toX = Math.min(width - 1, x + 1); nx <= toX; nx++) {
+                int c = constraintOf[ny * width + nx];
+                if (c >= 0) {
+                    enqueue(c);
+                }
+            }
+        }
+    }
+}
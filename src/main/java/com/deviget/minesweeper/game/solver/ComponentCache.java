@@ -0,0 +1,85 @@
+package com.deviget.minesweeper.game.solver;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import com.deviget.minesweeper.game.solver.MineProbabilities.ComponentCounts;
+import com.deviget.minesweeper.game.solver.MineProbabilities.ComponentKey;
+
+/**
+ * Bounded cache of the memoized counts of frontier components, shared by all the {@link MineProbabilities} instances.
+ * <p>
+ * The counts of a component grow with the square of its cells, so entries are weighted by their approximate size, and
+ * evicted in least recently used order once the total exceeds the configured amount of bytes. Entries larger than the
+ * whole budget are not cached.
+ *
+ * @author david.rios
+ */
+public class ComponentCache {
+
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final LinkedHashMap<ComponentKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final long maxBytes;
+
+    private long bytes;
+
+    /**
+     * @param maxBytes - the largest total size of the cached entries.
+     */
+    public ComponentCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @param key - the description of the component.
+     * @return the cached {@link ComponentCounts} instance, or null if not cached.
+     */
+    public synchronized ComponentCounts get(ComponentKey key) {
+        Entry entry = entries.get(key);
+        return entry != null ? entry.counts : null;
+    }
+
+    /**
+     * Caches the counts of a component, evicting the least recently used entries beyond the size limit.
+     *
+     * @param key - the description of the component.
+     * @param counts - the counts, which must not be modified afterwards.
+     * @return true if the counts were cached.
+     */
+    public synchronized boolean put(ComponentKey key, ComponentCounts counts) {
+        long weight = key.getBytes() + counts.getBytes() + ENTRY_OVERHEAD;
+        if (weight > maxBytes) {
+            return false;
+        }
+        Entry previous = entries.put(key, new Entry(counts, weight));
+        bytes += weight - (previous != null ? previous.weight : 0);
+        Iterator<Entry> eldest = entries.values()
+                .iterator();
+        while (bytes > maxBytes) {
+            bytes -= eldest.next().weight;
+            eldest.remove();
+        }
+        return true;
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static class Entry {
+
+        private final ComponentCounts counts;
+
+        private final long weight;
+
+        private Entry(ComponentCounts counts, long weight) {
+            this.counts = counts;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,598 @@
+package com.deviget.minesweeper.game.solver;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import com.deviget.minesweeper.model.PackedBoard;
+
+/**
+ * Computes the probability of each covered cell of a board being a mine, given the open cells and the total number of
+ * mines.
+ * <p>
+ * Cells deduced by {@link BoardSolver} are certain. The rest of the frontier is split in independent components, and
+ * the consistent configurations of each one are counted by number of mines. The probabilities then weight every
+ * combination of components by the ways to place the remaining mines in the unconstrained interior. Components are
+ * counted in parallel, and their counts are memoized by their description, so components untouched since the last
+ * request are not enumerated again.
+ * <p>
+ * Components larger than the enumeration limit of the solver are sampled instead, drawing configurations cell by cell
+ * among the values their constraints still allow, and weighting each sample by the inverse of its probability. The
+ * results are then approximated, with the 95% error bound given by the effective number of samples. Frontiers with too
+ * many components to combine exactly weight each component independently, with the odds of a mine in the interior.
+ * <p>
+ * Instances are not thread safe, and reuse their buffers and their {@link BoardSolver} between calls. The board is not
+ * kept after computing.
+ *
+ * @author david.rios
+ */
+public class MineProbabilities {
+
+    /**
+     * Largest number of operations combining the components exactly.
+     */
+    private static final long MAX_COMBINATION_COST = 1L << 24;
+
+    private static final int DEADLINE_CHECK_MASK = 0xFF;
+
+    private static final double Z_95 = 1.96;
+
+    private final BoardSolver solver;
+
+    private final int maxEnumerationCells;
+
+    private final int samples;
+
+    private final ComponentCache cache;
+
+    private PackedBoard board;
+
+    private long deadline;
+
+    private volatile boolean timedOut;
+
+    private double[] probabilities = new double[0];
+
+    private double[] logFactorials = { 0 };
+
+    private byte[] assignment = new byte[0];
+
+    private boolean exact;
+
+    private double maxError;
+
+    /**
+     * @param maxEnumerationCells - the largest component of the frontier enumerated, in cells.
+     * @param samples - the number of samples drawn from larger components.
+     * @param cache - the memoized counts of the components, shared by all instances.
+     */
+    public MineProbabilities(int maxEnumerationCells, int samples, ComponentCache cache) {
+        this.solver = new BoardSolver(maxEnumerationCells);
+        this.maxEnumerationCells = maxEnumerationCells;
+        this.samples = samples;
+        this.cache = cache;
+    }
+
+    /**
+     * Computes the mine probabilities of a board.
+     *
+     * @param board - the board, which is not modified.
+     * @param mines - the total number of mines.
+     * @param deadline - the {@link System#nanoTime()} at which computing stops.
+     * @return true if computing completed, false if it was stopped by the deadline, and the probabilities of the cells
+     *         not deduced are the average density of mines.
+     */
+    public boolean compute(PackedBoard board, int mines, long deadline) {
+        this.board = board;
+        this.deadline = deadline;
+        this.timedOut = false;
+        this.exact = true;
+        this.maxError = 0;
+        int length = board.getLength();
+        if (probabilities.length < length) {
+            probabilities = new double[length];
+            assignment = new byte[length];
+        }
+        boolean solved = solver.solve(board, deadline);
+        int knownMines = 0;
+        int unknown = 0;
+        for (int i = 0; i < length; i++) {
+            byte state = solver.getState(i);
+            probabilities[i] = state == BoardSolver.OPEN ? Double.NaN : state == BoardSolver.MINE ? 1 : 0;
+            if (state == BoardSolver.MINE) {
+                knownMines++;
+            } else if (state == BoardSolver.UNKNOWN) {
+                unknown++;
+            }
+        }
+        int remaining = mines - knownMines;
+        double density = unknown > 0 ? Math.min(1, Math.max(0, (double) remaining / unknown)) : 0;
+        if (!solved || unknown == 0) {
+            return finish(density, solved);
+        }
+        int count = solver.groupFrontier();
+        int frontier = solver.getComponentStart(count);
+        ComponentCounts[] components = new ComponentCounts[count];
+        IntStream numbers = IntStream.range(0, count);
+        if (count > 1 && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            numbers = numbers.parallel();
+        }
+        numbers.forEach(k -> components[k] = count(k, density));
+        if (timedOut) {
+            return finish(density, false);
+        }
+        int interior = unknown - frontier;
+        double[][] odds = combine(components, interior, remaining, density);
+        if (odds == null) {
+            // The open cells contradict the number of mines.
+            exact = false;
+            fillUnknown(density);
+            return finish(density, true);
+        }
+        for (int k = 0; k < count; k++) {
+            assignProbabilities(k, components[k], odds[k], density);
+        }
+        if (interior > 0) {
+            double interiorProbability = odds[count][0];
+            for (int i = 0; i < length; i++) {
+                if (solver.getState(i) == BoardSolver.UNKNOWN && !isFrontier(i)) {
+                    probabilities[i] = interiorProbability;
+                }
+            }
+        }
+        return finish(density, !timedOut);
+    }
+
+    /**
+     * @param index - the cell index.
+     * @return the probability of the cell being a mine after the last compute, or NaN if it is open.
+     */
+    public double getProbability(int index) {
+        return probabilities[index];
+    }
+
+    /**
+     * @return the number of cells the buffers of this instance fit.
+     */
+    public int getCapacity() {
+        return Math.max(probabilities.length, solver.getCapacity());
+    }
+
+    /**
+     * @return true if the last probabilities were computed exactly, without sampling nor approximations.
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * @return the largest error of the last probabilities, with a 95% confidence, or 0 if they are exact.
+     */
+    public double getMaxError() {
+        return maxError;
+    }
+
+    private boolean finish(double density, boolean complete) {
+        if (!complete) {
+            exact = false;
+            fillUnknown(density);
+        }
+        board = null;
+        return complete;
+    }
+
+    private void fillUnknown(double density) {
+        for (int i = 0, length = board.getLength(); i < length; i++) {
+            if (solver.getState(i) == BoardSolver.UNKNOWN) {
+                probabilities[i] = density;
+            }
+        }
+    }
+
+    private boolean isFrontier(int cell) {
+        int width = board.getWidth();
+        int height = board.getHeight();
+        int y = cell / width;
+        int x = cell - y * width;
+        for (int ny = Math.max(0, y - 1), toY = Math.min(height - 1, y + 1); ny <= toY; ny++) {
+            for (int nx = Math.max(0, x - 1), toX = Math.min(width - 1, x + 1); nx <= toX; nx++) {
+                if (solver.getState(ny * width + nx) == BoardSolver.OPEN) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean checkDeadline(long iteration) {
+        if ((iteration & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() - deadline > 0) {
+            timedOut = true;
+        }
+        return timedOut;
+    }
+
+    /**
+     * Counts the configurations of a component by number of mines, enumerating or sampling it.
+     */
+    private ComponentCounts count(int k, double density) {
+        int from = solver.getComponentStart(k);
+        int cells = solver.getComponentStart(k + 1) - from;
+        if (cells > maxEnumerationCells) {
+            ComponentCounts counts = new ComponentCounts(cells, false);
+            sample(k, counts, null, density);
+            return counts;
+        }
+        ComponentKey key = new ComponentKey(solver.describeComponent(k));
+        ComponentCounts counts = cache.get(key);
+        if (counts == null) {
+            counts = new ComponentCounts(cells, true);
+            solver.prepareComponent(k);
+            enumerate(counts, from, from + cells, from, 0, 0);
+            if (timedOut) {
+                return counts;
+            }
+            cache.put(key, counts);
+        }
+        return counts;
+    }
+
+    /**
+     * @return the number of nodes visited so far, to check the deadline periodically.
+     */
+    private long enumerate(ComponentCounts counts, int from, int to, int p, int mines, long nodes) {
+        if (timedOut || checkDeadline(++nodes)) {
+            return nodes;
+        }
+        if (p == to) {
+            counts.weights[mines]++;
+            for (int i = from; i < to; i++) {
+                if (assignment[i] != 0) {
+                    counts.cellWeights[(i - from) * (counts.cells + 1) + mines]++;
+                }
+            }
+            return nodes;
+        }
+        int cell = solver.getComponentCell(p);
+        for (byte value = 0; value <= 1; value++) {
+            if (solver.assign(cell, value, 1)) {
+                assignment[p] = value;
+                nodes = enumerate(counts, from, to, p + 1, mines + value, nodes);
+            }
+            solver.assign(cell, value, -1);
+            if (timedOut) {
+                break;
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Samples a component, drawing each cell among the values its constraints allow, as a mine with the average
+     * density. Without odds, the weights of the samples are added by number of mines. With odds, the weighted
+     * frequency of a mine in each cell is stored as its probability.
+     */
+    private void sample(int k, ComponentCounts counts, double[] odds, double density) {
+        int from = solver.getComponentStart(k);
+        int to = solver.getComponentStart(k + 1);
+        double mineChance = Math.min(0.95, Math.max(0.05, density));
+        double logMine = -Math.log(mineChance);
+        double logSafe = -Math.log(1 - mineChance);
+        double[] cellSums = odds != null ? new double[counts.cells] : null;
+        double sum = 0;
+        double sumSquares = 0;
+        double reference = Double.NEGATIVE_INFINITY;
+        // The same samples are drawn on both passes.
+        SplittableRandom random = new SplittableRandom(solver.getComponentCell(from));
+        solver.prepareComponent(k);
+        for (int s = 0; s < samples && !checkDeadline(s + 1L); s++) {
+            double logWeight = 0;
+            int mines = 0;
+            int p = from;
+            for (; p < to; p++) {
+                int cell = solver.getComponentCell(p);
+                boolean canSafe = solver.assign(cell, 0, 1);
+                solver.assign(cell, 0, -1);
+                boolean canMine = solver.assign(cell, 1, 1);
+                solver.assign(cell, 1, -1);
+                byte value;
+                if (canSafe && canMine) {
+                    value = random.nextDouble() < mineChance ? (byte) 1 : 0;
+                    logWeight += value != 0 ? logMine : logSafe;
+                } else if (canSafe || canMine) {
+                    value = canMine ? (byte) 1 : 0;
+                } else {
+                    break;
+                }
+                solver.assign(cell, value, 1);
+                assignment[p] = value;
+                mines += value;
+            }
+            boolean complete = p == to;
+            for (int i = from; i < p; i++) {
+                solver.assign(solver.getComponentCell(i), assignment[i], -1);
+            }
+            if (!complete || odds != null && odds[mines] == 0) {
+                continue;
+            }
+            if (odds != null) {
+                logWeight += Math.log(odds[mines]);
+            }
+            if (logWeight > reference) {
+                // Weights are kept relative to the largest one, rescaling the sums when it grows.
+                double scale = Math.exp(reference - logWeight);
+                sum *= scale;
+                sumSquares *= scale * scale;
+                if (odds != null) {
+                    for (int i = 0; i < counts.cells; i++) {
+                        cellSums[i] *= scale;
+                    }
+                } else {
+                    for (int i = 0; i <= counts.cells; i++) {
+                        counts.weights[i] *= scale;
+                    }
+                }
+                reference = logWeight;
+            }
+            double weight = Math.exp(logWeight - reference);
+            sum += weight;
+            sumSquares += weight * weight;
+            if (odds != null) {
+                for (int i = from; i < to; i++) {
+                    if (assignment[i] != 0) {
+                        cellSums[i - from] += weight;
+                    }
+                }
+            } else {
+                counts.weights[mines] += weight;
+            }
+        }
+        if (odds == null) {
+            return;
+        }
+        for (int i = 0; i < counts.cells; i++) {
+            probabilities[solver.getComponentCell(from + i)] = sum > 0 ? cellSums[i] / sum : density;
+        }
+        // Worst case error of a frequency, given the effective number of samples.
+        double effectiveSamples = sumSquares > 0 ? sum * sum / sumSquares : 0;
+        maxError = Math.max(maxError, effectiveSamples > 0 ? Math.min(1, Z_95 * 0.5 / Math.sqrt(effectiveSamples)) : 1);
+    }
+
+    /**
+     * Combines the components with the interior, computing for each component the relative odds of each number of
+     * mines, given the other components and the interior. The last entry holds the probability of an interior cell.
+     *
+     * @return the odds of each component, or null if no combination fits the number of mines.
+     */
+    private double[][] combine(ComponentCounts[] components, int interior, int remaining, double density) {
+        int count = components.length;
+        double[][] odds = new double[count + 1][];
+        int frontier = 0;
+        for (ComponentCounts counts : components) {
+            frontier += counts.cells;
+        }
+        long cost = 0;
+        for (ComponentCounts counts : components) {
+            cost += (long) (frontier + 1) * (counts.cells + 1);
+        }
+        if (remaining < 0 || remaining > frontier + interior) {
+            return null;
+        }
+        if (cost * 2 > MAX_COMBINATION_COST) {
+            return combineIndependently(components, interior, remaining, density, odds);
+        }
+        ensureLogFactorials(interior);
+        // Ways to place the rest of the mines in the interior, relative to the largest.
+        double[] interiorWays = new double[frontier + 1];
+        double maxLog = Double.NEGATIVE_INFINITY;
+        for (int mines = 0; mines <= frontier; mines++) {
+            int left = remaining - mines;
+            interiorWays[mines] = left >= 0 && left <= interior ? logCombinations(interior, left) : Double.NEGATIVE_INFINITY;
+            maxLog = Math.max(maxLog, interiorWays[mines]);
+        }
+        if (maxLog == Double.NEGATIVE_INFINITY) {
+            return null;
+        }
+        for (int mines = 0; mines <= frontier; mines++) {
+            interiorWays[mines] = Math.exp(interiorWays[mines] - maxLog);
+        }
+        double[][] prefix = new double[count + 1][];
+        double[][] suffix = new double[count + 1][];
+        prefix[0] = new double[] { 1 };
+        suffix[count] = new double[] { 1 };
+        for (int k = 0; k < count; k++) {
+            prefix[k + 1] = convolve(prefix[k], components[k].weights);
+            suffix[count - k - 1] = convolve(suffix[count - k], components[count - k - 1].weights);
+        }
+        double[] all = prefix[count];
+        double total = 0;
+        double interiorMines = 0;
+        for (int mines = 0; mines < all.length; mines++) {
+            total += all[mines] * interiorWays[mines];
+            interiorMines += interior > 0 ? all[mines] * interiorWays[mines] * (remaining - mines) / interior : 0;
+        }
+        if (total == 0) {
+            return null;
+        }
+        odds[count] = new double[] { interiorMines / total };
+        for (int k = 0; k < count; k++) {
+            double[] others = convolve(prefix[k], suffix[k + 1]);
+            double[] componentOdds = new double[components[k].cells + 1];
+            double max = 0;
+            for (int mines = 0; mines < componentOdds.length; mines++) {
+                double sum = 0;
+                for (int rest = 0; rest < others.length && mines + rest <= frontier; rest++) {
+                    sum += others[rest] * interiorWays[mines + rest];
+                }
+                componentOdds[mines] = sum;
+                max = Math.max(max, sum);
+            }
+            normalize(componentOdds, max);
+            odds[k] = componentOdds;
+        }
+        return odds;
+    }
+
+    /**
+     * Approximates the combination weighting each component independently by the odds of a mine in the interior,
+     * found by iterating on the expected number of mines of the frontier.
+     */
+    private double[][] combineIndependently(ComponentCounts[] components, int interior, int remaining, double density,
+            double[][] odds) {
+        exact = false;
+        double interiorDensity = density;
+        for (int iteration = 0; iteration < 20; iteration++) {
+            double logOdds = interior > 0 ? Math.log(clamp(interiorDensity) / (1 - clamp(interiorDensity))) : 0;
+            double expected = 0;
+            for (int k = 0; k < components.length; k++) {
+                odds[k] = powers(logOdds, components[k].cells);
+                expected += components[k].expectedMines(odds[k]);
+            }
+            if (interior == 0) {
+                break;
+            }
+            interiorDensity = clamp((remaining - expected) / interior);
+        }
+        odds[components.length] = new double[] { interior > 0 ? interiorDensity : 0 };
+        return odds;
+    }
+
+    private void assignProbabilities(int k, ComponentCounts counts, double[] odds, double density) {
+        int from = solver.getComponentStart(k);
+        if (!counts.enumerated) {
+            exact = false;
+            sample(k, counts, odds, density);
+            return;
+        }
+        double total = 0;
+        for (int mines = 0; mines <= counts.cells; mines++) {
+            total += counts.weights[mines] * odds[mines];
+        }
+        for (int i = 0; i < counts.cells; i++) {
+            double sum = 0;
+            for (int mines = 0; mines <= counts.cells; mines++) {
+                sum += counts.cellWeights[i * (counts.cells + 1) + mines] * odds[mines];
+            }
+            probabilities[solver.getComponentCell(from + i)] = total > 0 ? sum / total : density;
+        }
+    }
+
+    private static double[] powers(double logOdds, int cells) {
+        double[] powers = new double[cells + 1];
+        double max = Math.max(0, logOdds * cells);
+        for (int mines = 0; mines <= cells; mines++) {
+            powers[mines] = Math.exp(logOdds * mines - max);
+        }
+        return powers;
+    }
+
+    private static double clamp(double density) {
+        return Math.min(1 - 1e-9, Math.max(1e-9, density));
+    }
+
+    private static double[] convolve(double[] a, double[] b) {
+        double[] result = new double[a.length + b.length - 1];
+        double max = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == 0) {
+                continue;
+            }
+            for (int j = 0; j < b.length; j++) {
+                result[i + j] += a[i] * b[j];
+            }
+        }
+        for (double value : result) {
+            max = Math.max(max, value);
+        }
+        // Scaling a component does not change the probabilities, and keeps long products in range.
+        normalize(result, max);
+        return result;
+    }
+
+    private static void normalize(double[] values, double max) {
+        if (max > 0) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] /= max;
+            }
+        }
+    }
+
+    private void ensureLogFactorials(int n) {
+        if (logFactorials.length <= n) {
+            int from = logFactorials.length;
+            logFactorials = Arrays.copyOf(logFactorials, n + 1);
+            for (int i = from; i <= n; i++) {
+                logFactorials[i] = logFactorials[i - 1] + Math.log(i);
+            }
+        }
+    }
+
+    private double logCombinations(int n, int k) {
+        return logFactorials[n] - logFactorials[k] - logFactorials[n - k];
+    }
+
+    /**
+     * Description of a frontier component, used as the key of the memoized counts.
+     */
+    public static final class ComponentKey {
+
+        private final int[] description;
+
+        private final int hash;
+
+        ComponentKey(int[] description) {
+            this.description = description;
+            this.hash = Arrays.hashCode(description);
+        }
+
+        long getBytes() {
+            return 16 + 4L * description.length;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ComponentKey && hash == ((ComponentKey) obj).hash
+                    && Arrays.equals(description, ((ComponentKey) obj).description);
+        }
+    }
+
+    /**
+     * Configurations of a frontier component by number of mines, in total and for each of its cells, enumerated or
+     * estimated by sampling.
+     */
+    public static final class ComponentCounts {
+
+        private final int cells;
+
+        private final boolean enumerated;
+
+        private final double[] weights;
+
+        private final double[] cellWeights;
+
+        ComponentCounts(int cells, boolean enumerated) {
+            this.cells = cells;
+            this.enumerated = enumerated;
+            this.weights = new double[cells + 1];
+            this.cellWeights = enumerated ? new double[cells * (cells + 1)] : null;
+        }
+
+        long getBytes() {
+            return 8L * (weights.length + (cellWeights != null ? cellWeights.length : 0));
+        }
+
+        private double expectedMines(double[] odds) {
+            double total = 0;
+            double mines = 0;
+            for (int k = 0; k <= cells; k++) {
+                total += weights[k] * odds[k];
+                mines += k * weights[k] * odds[k];
+            }
+            return total > 0 ? mines / total : 0;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.deviget.minesweeper.game.solver;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import javax.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.deviget.minesweeper.game.engine.BoardGenerator;
+import com.deviget.minesweeper.game.engine.GameEngine;
+import com.deviget.minesweeper.model.CellStatus;
+import com.deviget.minesweeper.model.PackedBoard;
+
+/**
+ * Generates boards that can be solved from the first click without guessing.
+ * <p>
+ * Candidate boards are generated by {@link BoardGenerator} from seeds derived from the game seed, and played by
+ * {@link BoardSolver}, revealing every cell it deduces as safe until the board is cleared or no safe cell is left. A
+ * batch of candidates, one per core, is verified in parallel, and the first solvable candidate of the batch wins, so
+ * the result only depends on the game seed and the first click. Candidates after a solvable one stop early.
+ * <p>
+ * The winning candidate seed is cached by board size, mines, seed and first click. If no candidate is solvable within
+ * <code>minesweeper.noGuess.timeBudgetMs</code>, the candidate which opened the most cells is used, without caching it.
+ *
+ * @author david.rios
+ */
+@Component
+public class NoGuessGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(NoGuessGenerator.class);
+
+    @Value("${minesweeper.noGuess.timeBudgetMs:2000}")
+    private long timeBudgetMs;
+
+    @Value("${minesweeper.noGuess.cacheSize:1000}")
+    private int cacheSize;
+
+    @Value("${minesweeper.solver.maxEnumerationCells:48}")
+    private int maxEnumerationCells;
+
+    @Value("${minesweeper.solver.maxRetainedCells:262144}")
+    private int maxRetainedCells;
+
+    private SolverPool<BoardSolver> solvers;
+
+    private Map<String, Long> candidateSeeds;
+
+    @PostConstruct
+    public void init() {
+        solvers = new SolverPool<>(Runtime.getRuntime()
+                .availableProcessors(), maxRetainedCells, () -> new BoardSolver(maxEnumerationCells), BoardSolver::getCapacity);
+        candidateSeeds = Collections.synchronizedMap(new LinkedHashMap<String, Long>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Generates a board solvable without guessing, with all its cells covered.
+     *
+     * @param size - the number of rows and columns.
+     * @param mines - the number of mines.
+     * @param seed - the seed of the game.
+     * @param safeY - the row of the first revealed cell.
+     * @param safeX - the column of the first revealed cell.
+     * @return a new {@link PackedBoard} instance.
+     * @throws IllegalArgumentException if the mines do not fit in the board.
+     */
+    public PackedBoard generate(int size, int mines, long seed, int safeY, int safeX) {
+        String key = size + ":" + mines + ":" + seed + ":" + safeY + ":" + safeX;
+        Long cached = candidateSeeds.get(key);
+        if (cached != null) {
+            return BoardGenerator.generate(size, size, mines, cached, safeY, safeX);
+        }
+        long deadline = System.nanoTime() + timeBudgetMs * 1_000_000L;
+        int batchSize = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+        SplittableRandom seeds = new SplittableRandom(seed);
+        Candidate best = null;
+        int candidates = 0;
+        do {
+            long[] batchSeeds = new long[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                batchSeeds[i] = seeds.nextLong();
+            }
+            Candidate[] results = new Candidate[batchSize];
+            AtomicInteger solved = new AtomicInteger(batchSize);
+            IntStream batch = IntStream.range(0, batchSize);
+            if (batchSize > 1) {
+                batch = batch.parallel();
+            }
+            batch.forEach(i -> results[i] = verify(i, solved, batchSeeds[i], size, mines, safeY, safeX, deadline));
+            candidates += batchSize;
+            for (Candidate result : results) {
+                if (result == null) {
+                    continue;
+                }
+                if (result.solved) {
+                    logger.debug(">>> no-guess board found after {} candidates", candidates);
+                    candidateSeeds.put(key, result.seed);
+                    return result.board;
+                }
+                if (best == null || result.remaining < best.remaining) {
+                    best = result;
+                }
+            }
+        } while (System.nanoTime() - deadline < 0);
+        logger.debug(">>> no-guess board not found after {} candidates", candidates);
+        return best != null ? best.board : BoardGenerator.generate(size, size, mines, seed, safeY, safeX);
+    }
+
+    /**
+     * Plays a candidate board with the solver from the first click.
+     *
+     * @return the played candidate, or null if it was stopped because a previous candidate of the batch is solvable.
+     */
+    private Candidate verify(int index, AtomicInteger solved, long seed, int size, int mines, int safeY, int safeX, long deadline) {
+        PackedBoard board = BoardGenerator.generate(size, size, mines, seed, safeY, safeX);
+        PackedBoard played = board.copy();
+        GameEngine.reveal(played, played.indexOf(safeY, safeX));
+        BoardSolver solver = solvers.acquire();
+        try {
+            boolean progress = true;
+            while (progress && solver.solve(played, deadline)) {
+                if (solved.get() < index) {
+                    return null;
+                }
+                progress = false;
+                for (int i = 0, count = solver.getDeducedCount(); i < count; i++) {
+                    int cell = solver.getDeducedCell(i);
+                    if (solver.getState(cell) == BoardSolver.SAFE && played.getStatus(cell) != CellStatus.OPEN) {
+                        GameEngine.reveal(played, cell);
+                        progress = true;
+                    }
+                }
+            }
+        } finally {
+            solvers.release(solver);
+        }
+        int remaining = GameEngine.countRemainingCells(played);
+        if (remaining == 0) {
+            solved.accumulateAndGet(index, Math::min);
+        }
+        return new Candidate(seed, board, remaining);
+    }
+
+    private static class Candidate {
+
+        private final long seed;
+
+        private final PackedBoard board;
+
+        private final int remaining;
+
+        private final boolean solved;
+
+        private Candidate(long seed, PackedBoard board, int remaining) {
+            this.seed = seed;
+            this.board = board;
+            this.remaining = remaining;
+            this.solved = remaining == 0;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.deviget.minesweeper.game.solver;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bounded pool of solvers, so their buffers are reused across requests without being retained by every thread.
+ * <p>
+ * Solvers are created when none is idle, so acquiring never waits. Released solvers are kept up to the given number of
+ * idle instances, and only while their buffers fit the given number of cells: solvers grown by larger boards are
+ * dropped, and their buffers left to the garbage collector.
+ *
+ * @param <T> - the solver type.
+ * @author david.rios
+ */
+public class SolverPool<T> {
+
+    private final BlockingQueue<T> idle;
+
+    private final Supplier<T> factory;
+
+    private final ToIntFunction<T> capacity;
+
+    private final int maxRetainedCells;
+
+    /**
+     * @param maxIdle - the largest number of idle solvers kept.
+     * @param maxRetainedCells - the largest number of cells the buffers of a kept solver may fit.
+     * @param factory - creates a new solver.
+     * @param capacity - the number of cells the buffers of a solver fit.
+     */
+    public SolverPool(int maxIdle, int maxRetainedCells, Supplier<T> factory, ToIntFunction<T> capacity) {
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, maxIdle));
+        this.factory = factory;
+        this.capacity = capacity;
+        this.maxRetainedCells = maxRetainedCells;
+    }
+
+    /**
+     * @return an idle solver, or a new one if none is idle.
+     */
+    public T acquire() {
+        T solver = idle.poll();
+        return solver != null ? solver : factory.get();
+    }
+
+    /**
+     * Returns a solver to the pool, which keeps it if it has room and the solver buffers are not too large.
+     *
+     * @param solver - the solver, which must not be used afterwards.
+     */
+    public void release(T solver) {
+        if (capacity.applyAsInt(solver) <= maxRetainedCells) {
+            idle.offer(solver);
+        }
+    }
+
+    /**
+     * @return the number of idle solvers kept.
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+}
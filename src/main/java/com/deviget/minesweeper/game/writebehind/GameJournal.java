@@ -0,0 +1,408 @@
+package com.deviget.minesweeper.game.writebehind;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.deviget.minesweeper.model.Game;
+import com.deviget.minesweeper.model.GameStatus;
+import com.deviget.minesweeper.model.PackedBoard;
+
+/**
+ * Append-only file holding the game updates not yet written to the data source, used to recover them after a crash.
+ * <p>
+ * Each record is framed by its length and followed by a CRC32 checksum, so a record torn by a crash is detected and
+ * ignored on recovery. The first record of a game holds its full state; the following ones only hold the game columns
+ * and the board cells changed since the previous record, and are framed with the complement of their length. Records
+ * are written under a short lock, and concurrent appends share a single sync to the storage device.
+ * <p>
+ * Every record starts with the version of its format, which must be incremented whenever the format changes. Records
+ * of other versions are not recovered.
+ *
+ * @author david.rios
+ */
+public class GameJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameJournal.class);
+
+    static final byte FORMAT_VERSION = 1;
+
+    private final Path path;
+
+    private final boolean sync;
+
+    private FileChannel channel;
+
+    private final Object syncLock = new Object();
+
+    /**
+     * Number of records appended, and number of them known to be on the storage device.
+     */
+    private long appended;
+
+    private long synced;
+
+    /**
+     * @param path - the journal file.
+     * @param sync - if true, each record is forced to the storage device before returning.
+     */
+    public GameJournal(Path path, boolean sync) {
+        this.path = path;
+        this.sync = sync;
+    }
+
+    /**
+     * Reads the latest state of each game found in the journal.
+     *
+     * @return a {@link Map} of {@link Game} instances by id, in journal order.
+     */
+    public synchronized Map<Long, Game> read() {
+        Map<Long, Game> games = new LinkedHashMap<>();
+        if (!Files.exists(path)) {
+            return games;
+        }
+        try (InputStream input = Files.newInputStream(path); DataInputStream data = new DataInputStream(input)) {
+            long remaining = Files.size(path);
+            while (true) {
+                int length = data.readInt();
+                boolean delta = length < 0;
+                if (delta) {
+                    length = ~length;
+                }
+                if (length > remaining) {
+                    logger.warn("Corrupted journal record in {}, ignoring the rest of the journal", path);
+                    break;
+                }
+                remaining -= length;
+                byte[] payload = new byte[length];
+                data.readFully(payload);
+                long checksum = data.readLong();
+                if (checksum != checksum(payload)) {
+                    logger.warn("Corrupted journal record in {}, ignoring the rest of the journal", path);
+                    break;
+                }
+                if (length == 0 || payload[0] != FORMAT_VERSION) {
+                    logger.warn("Unsupported journal record version in {}, ignoring the rest of the journal", path);
+                    break;
+                }
+                Game game = delta ? decodeDelta(payload, games) : decode(payload);
+                if (game == null) {
+                    logger.warn("Journal record in {} changes a game with no previous record, ignoring it", path);
+                    continue;
+                }
+                games.remove(game.getId());
+                games.put(game.getId(), game);
+            }
+        } catch (EOFException e) {
+            // End of the journal, possibly a torn record.
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return games;
+    }
+
+    /**
+     * Appends the state of a game, and waits until it is synced to the storage device. Only the cells changed since
+     * the previous state are written, if that state is the last one journaled for the game.
+     *
+     * @param game - the game.
+     * @param previous - the last state journaled for the game, or null to write its full state.
+     * @param publish - run once the record is written, before any other record is appended or the journal is
+     *            rewritten.
+     * @throws UncheckedIOException if the record cannot be written or synced.
+     */
+    public void append(Game game, Game previous, Runnable publish) {
+        long position;
+        synchronized (this) {
+            try {
+                FileChannel target = channel();
+                long size = target.size();
+                try {
+                    write(target, game, previous);
+                } catch (IOException e) {
+                    // Drops the torn record, so the records appended after it can still be read.
+                    target.truncate(size);
+                    throw e;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            position = ++appended;
+            publish.run();
+        }
+        if (sync) {
+            sync(position);
+        }
+    }
+
+    /**
+     * Syncs the journal up to the given record. The records appended while a sync is in progress are synced together
+     * by the next one.
+     */
+    private void sync(long position) {
+        synchronized (syncLock) {
+            if (synced >= position) {
+                return;
+            }
+            long target;
+            FileChannel current;
+            synchronized (this) {
+                target = appended;
+                current = channel;
+            }
+            try {
+                if (current != null) {
+                    current.force(false);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            synced = target;
+        }
+    }
+
+    /**
+     * Replaces the content of the journal with the full state of the given games, atomically. The games are retrieved
+     * while holding the journal, so no record appended concurrently is lost.
+     *
+     * @param pending - supplies the games still pending.
+     */
+    public void rewrite(Supplier<Collection<Game>> pending) {
+        synchronized (syncLock) {
+            synchronized (this) {
+                try {
+                    close();
+                    Collection<Game> games = pending.get();
+                    if (games.isEmpty()) {
+                        Files.deleteIfExists(path);
+                    } else {
+                        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+                        try (FileChannel tempChannel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                StandardOpenOption.TRUNCATE_EXISTING)) {
+                            for (Game game : games) {
+                                write(tempChannel, game, null);
+                            }
+                            tempChannel.force(false);
+                        }
+                        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                // The pending games were synced in full, the rest were written to the data source.
+                synced = appended;
+            }
+        }
+    }
+
+    /**
+     * @return the size of the journal, in bytes.
+     */
+    public synchronized long size() {
+        try {
+            return Files.exists(path) ? Files.size(path) : 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    private static void write(FileChannel target, Game game, Game previous) throws IOException {
+        byte[] payload = previous != null ? encodeDelta(game, previous) : null;
+        int length;
+        if (payload != null) {
+            length = ~payload.length;
+        } else {
+            payload = encode(game);
+            length = payload.length;
+        }
+        ByteBuffer record = ByteBuffer.allocate(4 + payload.length + 8);
+        record.putInt(length)
+                .put(payload)
+                .putLong(checksum(payload));
+        record.flip();
+        while (record.hasRemaining()) {
+            target.write(record);
+        }
+    }
+
+    private static byte[] encode(Game game) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream data = new DataOutputStream(bytes)) {
+            data.writeByte(FORMAT_VERSION);
+            data.writeLong(game.getId());
+            data.writeUTF(game.getUsername());
+            writeNullableLong(data, game.getTimer());
+            data.writeInt(game.getSize());
+            data.writeInt(game.getMines());
+            writeNullableInt(data, game.getRemainingCells());
+            data.writeUTF(game.getStatus()
+                    .name());
+            data.writeUTF(game.getLastUpdated() != null ? game.getLastUpdated()
+                    .toString() : "");
+            writeNullableLong(data, game.getSeed());
+            writeNullableInt(data, game.getFirstClick());
+            byte[] board = game.getBoard();
+            data.writeInt(board != null ? board.length : -1);
+            if (board != null) {
+                data.write(board);
+            }
+            data.writeBoolean(game.isNoGuess());
+            data.writeLong(game.getVersion() != null ? game.getVersion() : 0L);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Encodes the game columns and the board cells which differ from the previous state, as index and value pairs.
+     *
+     * @return the record payload, or null if the full state is not larger.
+     */
+    private static byte[] encodeDelta(Game game, Game previous) throws IOException {
+        byte[] board = game.getBoard();
+        byte[] before = previous.getBoard();
+        if (board == null || before == null || board.length != before.length) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream data = new DataOutputStream(bytes)) {
+            data.writeByte(FORMAT_VERSION);
+            data.writeLong(game.getId());
+            writeNullableLong(data, game.getTimer());
+            writeNullableInt(data, game.getRemainingCells());
+            data.writeUTF(game.getStatus()
+                    .name());
+            data.writeUTF(game.getLastUpdated() != null ? game.getLastUpdated()
+                    .toString() : "");
+            writeNullableInt(data, game.getFirstClick());
+            data.writeLong(game.getVersion() != null ? game.getVersion() : 0L);
+            int changed = 0;
+            for (int i = 0; i < board.length; i++) {
+                if (board[i] != before[i]) {
+                    changed++;
+                }
+            }
+            if (changed * 5 >= board.length) {
+                return null;
+            }
+            data.writeInt(changed);
+            for (int i = 0; i < board.length; i++) {
+                if (board[i] != before[i]) {
+                    data.writeInt(i);
+                    data.writeByte(board[i]);
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Game decode(byte[] payload) throws IOException {
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(payload, 1, payload.length - 1));
+        Long id = data.readLong();
+        String username = data.readUTF();
+        Long timer = readNullableLong(data);
+        int size = data.readInt();
+        int mines = data.readInt();
+        Integer remainingCells = readNullableInt(data);
+        GameStatus status = GameStatus.valueOf(data.readUTF());
+        String lastUpdated = data.readUTF();
+        Game game = new Game(id, username, timer, size, mines, null, remainingCells, status,
+                lastUpdated.isEmpty() ? null : LocalDateTime.parse(lastUpdated));
+        game.setSeed(readNullableLong(data));
+        game.setFirstClick(readNullableInt(data));
+        int boardLength = data.readInt();
+        if (boardLength >= 0) {
+            byte[] board = new byte[boardLength];
+            data.readFully(board);
+            game.setPackedBoard(PackedBoard.fromBytes(board));
+        }
+        game.setNoGuess(data.readBoolean());
+        game.setVersion(data.readLong());
+        return game;
+    }
+
+    /**
+     * Applies a record of changed cells to the previous state of its game.
+     *
+     * @return the new state of the game, or null if the game has no previous state.
+     */
+    private static Game decodeDelta(byte[] payload, Map<Long, Game> games) throws IOException {
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(payload, 1, payload.length - 1));
+        Game previous = games.get(data.readLong());
+        if (previous == null || previous.getBoard() == null) {
+            return null;
+        }
+        Game game = previous.copy();
+        game.setTimer(readNullableLong(data));
+        game.setRemainingCells(readNullableInt(data));
+        game.setStatus(GameStatus.valueOf(data.readUTF()));
+        String lastUpdated = data.readUTF();
+        game.setLastUpdated(lastUpdated.isEmpty() ? null : LocalDateTime.parse(lastUpdated));
+        game.setFirstClick(readNullableInt(data));
+        game.setVersion(data.readLong());
+        byte[] board = game.getBoard();
+        for (int changed = data.readInt(); changed > 0; changed--) {
+            board[data.readInt()] = data.readByte();
+        }
+        return game;
+    }
+
+    private static void writeNullableLong(DataOutputStream data, Long value) throws IOException {
+        data.writeBoolean(value != null);
+        data.writeLong(value != null ? value : 0);
+    }
+
+    private static Long readNullableLong(DataInputStream data) throws IOException {
+        boolean present = data.readBoolean();
+        long value = data.readLong();
+        return present ? value : null;
+    }
+
+    private static void writeNullableInt(DataOutputStream data, Integer value) throws IOException {
+        data.writeBoolean(value != null);
+        data.writeInt(value != null ? value : 0);
+    }
+
+    private static Integer readNullableInt(DataInputStream data) throws IOException {
+        boolean present = data.readBoolean();
+        int value = data.readInt();
+        return present ? value : null;
+    }
+
+    private static long checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,299 @@
+package com.deviget.minesweeper.game.writebehind;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.deviget.minesweeper.game.cache.GameCache;
+import com.deviget.minesweeper.model.Game;
+import com.deviget.minesweeper.model.GameStatus;
+import com.deviget.minesweeper.repository.GameRepository;
+
+/**
+ * Write-behind store for in-progress games.
+ * <p>
+ * When enabled, game updates are applied to an in-memory copy, which becomes the authoritative state of the game, and
+ * are written to the data source later by a background flusher. Repeated updates of the same game are coalesced into a
+ * single write: a game is flushed once it has been idle for the flush interval, or once its oldest unwritten update
+ * reaches the maximum staleness. Games reaching a terminal status are flushed right away, and all pending games are
+ * flushed on shutdown.
+ * <p>
+ * Every update is appended to a {@link GameJournal} before it becomes the pending state and is acknowledged, and games
+ * found in the journal on startup are written to the data source, so a crash loses at most the updates not yet synced
+ * to the journal. An update which cannot be journaled fails, and leaves the previous pending state in place.
+ * <p>
+ * Pending instances are shared between requests and must never be modified: updates always work on a copy. Pending
+ * games count every update in their version, and are only written if the stored game has an older version.
+ *
+ * @author david.rios
+ */
+@Component
+@DependsOn("boardMigrationService")
+public class GameWriteBehindStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameWriteBehindStore.class);
+
+    private static final int STRIPES = 64;
+
+    private final Map<Long, PendingGame> pending = new ConcurrentHashMap<>();
+
+    private final Object[] locks = new Object[STRIPES];
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GameCache gameCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${minesweeper.writeBehind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${minesweeper.writeBehind.flushIntervalMs:1000}")
+    private long flushIntervalMs;
+
+    @Value("${minesweeper.writeBehind.maxStalenessMs:10000}")
+    private long maxStalenessMs;
+
+    @Value("${minesweeper.writeBehind.journal:write-behind.journal}")
+    private String journalPath;
+
+    @Value("${minesweeper.writeBehind.journalSync:true}")
+    private boolean journalSync;
+
+    @Value("${minesweeper.writeBehind.journalMaxBytes:67108864}")
+    private long journalMaxBytes;
+
+    private TransactionTemplate transactionTemplate;
+
+    private GameJournal journal;
+
+    public GameWriteBehindStore() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Writes to the data source the games left in the journal by a previous run.
+     */
+    @PostConstruct
+    public void recover() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        journal = new GameJournal(Paths.get(journalPath), journalSync);
+        Map<Long, Game> journaled = journal.read();
+        long now = System.currentTimeMillis();
+        for (Game game : journaled.values()) {
+            pending.put(game.getId(), new PendingGame(game, now, now, true));
+            flush(game.getId());
+        }
+        if (!journaled.isEmpty()) {
+            logger.info("Recovered {} games from write-behind journal, {} still pending", journaled.size(), pending.size());
+        }
+        compactJournal();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Retrieves the pending state of a game.
+     *
+     * @param id - the game id.
+     * @return the pending {@link Game} instance, or null if the game has no unwritten updates.
+     */
+    public Game get(Long id) {
+        PendingGame entry = pending.get(id);
+        return entry != null ? entry.game : null;
+    }
+
+    /**
+     * Applies an update to a copy of the current state of a game, which becomes its pending state.
+     *
+     * @param id - the game id.
+     * @param loader - loads the game from the data source, if it has no pending state.
+     * @param update - the update to apply on the copy.
+     * @return the updated {@link Game} instance, which must not be modified afterwards.
+     */
+    public Game update(Long id, Supplier<Game> loader, Consumer<Game> update) {
+        Game game;
+        synchronized (lock(id)) {
+            PendingGame current = pending.get(id);
+            game = (current != null ? current.game : loader.get()).copy();
+            update.accept(game);
+            long now = System.currentTimeMillis();
+            PendingGame entry = new PendingGame(game, current != null ? current.dirtySince : now, now, true);
+            try {
+                // Published while holding the journal, so a concurrent compaction keeps it.
+                journal.append(game, current != null && current.journaled ? current.game : null, () -> pending.put(id, entry));
+            } catch (UncheckedIOException e) {
+                if (current != null) {
+                    // The journal may or may not hold the failed update, so the next one is journaled in full.
+                    pending.put(id, new PendingGame(current.game, current.dirtySince, current.lastUpdate, false));
+                } else {
+                    pending.remove(id);
+                }
+                throw e;
+            }
+            gameCache.invalidate(id);
+        }
+        if (game.getStatus() != GameStatus.IN_GAME) {
+            flush(id);
+        }
+        return game;
+    }
+
+    /**
+     * Discards the pending state of a game, when it's being deleted.
+     *
+     * @param id - the game id.
+     */
+    public void discard(Long id) {
+        synchronized (lock(id)) {
+            pending.remove(id);
+        }
+    }
+
+    /**
+     * Discards the pending state of all the games associated to the given user, when they're being deleted.
+     *
+     * @param username - the user name.
+     */
+    public void discardAll(String username) {
+        for (PendingGame entry : pending.values()) {
+            if (username.equals(entry.game.getUsername())) {
+                discard(entry.game.getId());
+            }
+        }
+    }
+
+    /**
+     * Writes the games idle for the flush interval, or pending for the maximum staleness, and compacts the journal.
+     */
+    @Scheduled(fixedDelayString = "${minesweeper.writeBehind.flushIntervalMs:1000}")
+    public void flushDue() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Long, PendingGame> entry : pending.entrySet()) {
+            PendingGame game = entry.getValue();
+            if (now - game.lastUpdate >= flushIntervalMs || now - game.dirtySince >= maxStalenessMs) {
+                flush(entry.getKey());
+            }
+        }
+        compactJournal();
+    }
+
+    /**
+     * Writes all the pending games, on shutdown.
+     */
+    @PreDestroy
+    public void flushAll() throws IOException {
+        for (Long id : new ArrayList<>(pending.keySet())) {
+            flush(id);
+        }
+        compactJournal();
+        journal.close();
+    }
+
+    /**
+     * Writes the pending state of a game, if any, to the data source.
+     *
+     * @param id - the game id.
+     */
+    public void flush(Long id) {
+        synchronized (lock(id)) {
+            PendingGame entry = pending.get(id);
+            if (entry == null) {
+                return;
+            }
+            try {
+                write(entry.game);
+                pending.remove(id, entry);
+            } catch (RuntimeException e) {
+                logger.error("Cannot flush game {}: {}", id, e.getMessage());
+            }
+        }
+    }
+
+    private void write(Game pendingGame) {
+        transactionTemplate.executeWithoutResult(status -> gameRepository.findById(pendingGame.getId())
+                .ifPresent(game -> {
+                    if (game.getVersion() >= pendingGame.getVersion()) {
+                        logger.warn("Game {} was updated to version {}, discarding pending version {}", game.getId(), game.getVersion(),
+                                pendingGame.getVersion());
+                        return;
+                    }
+                    game.setPackedBoard(pendingGame.getPackedBoard()
+                            .copy());
+                    // The pending board includes all the moves recorded in the move log.
+                    game.setSnapshotSeq(game.getMoveSeq());
+                    game.setFirstClick(pendingGame.getFirstClick());
+                    game.setRemainingCells(pendingGame.getRemainingCells());
+                    game.setTimer(pendingGame.getTimer());
+                    game.setStatus(pendingGame.getStatus());
+                    game.setLastUpdated(pendingGame.getLastUpdated());
+                    gameRepository.save(game);
+                    // The update increments the stored version once, while the pending game counts every update.
+                    gameRepository.advanceVersion(game.getId(), pendingGame.getVersion());
+                }));
+        gameCache.invalidate(pendingGame.getId());
+    }
+
+    private void compactJournal() {
+        long size = journal.size();
+        if (size > 0 && (pending.isEmpty() || size > journalMaxBytes)) {
+            journal.rewrite(() -> {
+                List<Game> games = new ArrayList<>();
+                for (PendingGame entry : pending.values()) {
+                    games.add(entry.game);
+                }
+                return games;
+            });
+        }
+    }
+
+    private Object lock(Long id) {
+        return locks[(int) (id & (STRIPES - 1))];
+    }
+
+    private static class PendingGame {
+
+        private final Game game;
+
+        private final long dirtySince;
+
+        private final long lastUpdate;
+
+        /**
+         * Whether this is the last state journaled for the game, so the next update only needs the changed cells.
+         */
+        private final boolean journaled;
+
+        private PendingGame(Game game, long dirtySince, long lastUpdate, boolean journaled) {
+            this.game = game;
+            this.dirtySince = dirtySince;
+            this.lastUpdate = lastUpdate;
+            this.journaled = journaled;
+        }
+    }
+}
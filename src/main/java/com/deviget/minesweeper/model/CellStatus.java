@@ -0,0 +1,66 @@
+package com.deviget.minesweeper.model;
+
+/**
+ * Enumerated class containing the possible statuses for a {@link Cell}, along with the code used to store them in a
+ * {@link PackedBoard}.
+ *
+ * @author david.rios
+ */
+public enum CellStatus {
+
+    COVERED("covered"),
+    OPEN("open"),
+    FLAGGED("flagged"),
+    QUESTION("question");
+
+    private static final CellStatus[] BY_CODE = values();
+
+    private final String value;
+
+    CellStatus(String value) {
+        this.value = value;
+    }
+
+    /**
+     * @return the status as exchanged with the clients in {@link Cell#getStatus()}.
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * @return the status code stored in a {@link PackedBoard} cell.
+     */
+    public int getCode() {
+        return ordinal();
+    }
+
+    /**
+     * Resolves a status from its packed code.
+     *
+     * @param code - the status code.
+     * @return the {@link CellStatus} instance.
+     */
+    public static CellStatus fromCode(int code) {
+        return BY_CODE[code];
+    }
+
+    /**
+     * Resolves a status from the value exchanged with the clients. A missing value is considered a covered cell.
+     *
+     * @param value - the status value.
+     * @return the {@link CellStatus} instance.
+     * @throws IllegalArgumentException if the value is not a known status.
+     */
+    public static CellStatus fromValue(String value) {
+        if (value == null) {
+            return COVERED;
+        }
+        for (CellStatus status : BY_CODE) {
+            if (status.value.equalsIgnoreCase(value)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown cell status: " + value);
+    }
+}
@@ -11,16 +11,28 @@ import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.OneToMany;
+import javax.persistence.OrderBy;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+import javax.persistence.Version;
+import org.hibernate.annotations.DynamicUpdate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Entity class representing a mine sweeper game as it will be persisted in the underline data source.
+ * <p>
+ * Updates only write the changed columns, so recording moves without taking a new snapshot does not rewrite the
+ * board. Games are versioned: every update checks the version read along with the game, so concurrent updates fail
+ * instead of overwriting each other.
  *
  * @author david.rios
  */
 @Entity
+@DynamicUpdate
+@Table(indexes = @Index(name = "idx_game_username_last_updated", columnList = "username, last_updated"))
 public class Game {
 
     private static final Logger logger = LoggerFactory.getLogger(Game.class);
@@ -37,9 +49,19 @@ public class Game {
 
     private Integer mines;
 
+    /**
+     * Legacy row/cell representation of the board, only kept to migrate games saved before the packed board existed.
+     */
     @OneToMany(mappedBy = "game", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
     private List<Row> rows;
 
+    @Column(name = "board", length = Integer.MAX_VALUE)
+    private byte[] board;
+
+    @Transient
+    private PackedBoard packedBoard;
+
     @Column(name = "remaining_cells")
     private Integer remainingCells;
 
@@ -49,6 +71,42 @@ public class Game {
     @Column(name = "last_updated")
     private LocalDateTime lastUpdated;
 
+    /**
+     * Number of the last move recorded in the move log of the game.
+     */
+    @Column(name = "move_seq")
+    private Integer moveSeq;
+
+    /**
+     * Number of the last move included in the board.
+     */
+    @Column(name = "snapshot_seq")
+    private Integer snapshotSeq;
+
+    /**
+     * Seed of the mine placement, for boards generated on the server. The board is generated on the first reveal, so
+     * an untouched game stores no board at all.
+     */
+    private Long seed;
+
+    /**
+     * Index of the first revealed cell, which together with the seed reproduces a generated board.
+     */
+    @Column(name = "first_click")
+    private Integer firstClick;
+
+    /**
+     * Whether the generated board must be solvable without guessing.
+     */
+    @Column(name = "no_guess")
+    private Boolean noGuess;
+
+    /**
+     * Revision of the game, checked and incremented on every update, which identifies its state in the game ETag.
+     */
+    @Version
+    private Long version;
+
     public Game() {
     }
 
@@ -75,35 +133,144 @@ public class Game {
         }
     }
 
-    public void setRowsFromCellArray(Cell[][] cellsArray) {
-        if (this.rows != null) {
-            this.rows.clear();
+    /**
+     * Encodes the given two dimensional array of cells into the packed board column.
+     *
+     * @param cellsArray - the board cells.
+     */
+    public void setBoardFromCellArray(Cell[][] cellsArray) {
+        setPackedBoard(PackedBoard.fromCells(cellsArray));
+        logger.debug(">>> board: {}x{}", packedBoard.getHeight(), packedBoard.getWidth());
+    }
+
+    /**
+     * Decodes the packed board column into a two dimensional array of cells. Boards not generated yet are returned
+     * fully covered, with no mines.
+     *
+     * @return the board cells, or null if the game has no board.
+     */
+    public Cell[][] getCellArrayFromBoard() {
+        PackedBoard packed = getPackedBoard();
+        if (packed == null && isPendingGeneration()) {
+            packed = new PackedBoard(size, size);
+        }
+        return packed != null ? packed.toCells() : null;
+    }
+
+    /**
+     * Decodes a rectangular window of the packed board column, clipped to the stored board, which may not match the
+     * game size. Boards not generated yet are returned fully covered, with no mines.
+     *
+     * @param y - the first row of the window.
+     * @param x - the first column of the window.
+     * @param height - the number of rows of the window.
+     * @param width - the number of columns of the window.
+     * @return the window cells, or null if the game has no board.
+     */
+    public Cell[][] getCellArrayFromBoard(int y, int x, int height, int width) {
+        PackedBoard packed = getPackedBoard();
+        if (packed == null && !isPendingGeneration()) {
+            return null;
+        }
+        int boardHeight = packed != null ? packed.getHeight() : size;
+        int boardWidth = packed != null ? packed.getWidth() : size;
+        int rows = (int) Math.max(0, Math.min((long) y + height, boardHeight) - y);
+        int columns = (int) Math.max(0, Math.min((long) x + width, boardWidth) - x);
+        if (packed != null) {
+            return packed.toCells(y, x, rows, columns);
+        }
+        Cell[][] cellsArray = new Cell[rows][columns];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                cellsArray[i][j] = PackedBoard.decode(y + i, x + j, (byte) 0);
+            }
         }
-        for (int i = 0; i < cellsArray.length; i++) {
-            Row row = new Row();
-            for (int j = 0; j < cellsArray[i].length; j++) {
-                Cell cell = cellsArray[i][j];
-                row.addCell(cell);
+        return cellsArray;
+    }
+
+    /**
+     * @return true if the board will be generated on the server on the first reveal.
+     */
+    public boolean isPendingGeneration() {
+        return seed != null && firstClick == null && board == null;
+    }
+
+    /**
+     * Retrieves the packed board, decoding it from the legacy rows and cells if the game was not migrated yet.
+     *
+     * @return a {@link PackedBoard} instance backed by the board column, or null if the game has no board.
+     */
+    public PackedBoard getPackedBoard() {
+        if (packedBoard == null) {
+            if (board != null) {
+                packedBoard = PackedBoard.fromBytes(board);
+            } else if (rows != null && !rows.isEmpty()) {
+                packedBoard = PackedBoard.fromCells(getCellArrayFromRows());
             }
-            this.addRow(row);
         }
-        for (Row row : this.getRows()) {
-            logger.debug(">>> row:" + row);
+        return packedBoard;
+    }
+
+    /**
+     * Stores the given packed board, dropping the legacy rows and cells if present.
+     *
+     * @param packedBoard - the packed board.
+     */
+    public void setPackedBoard(PackedBoard packedBoard) {
+        if (board == null && rows != null) {
+            rows.clear();
         }
+        this.packedBoard = packedBoard;
+        this.board = packedBoard != null ? packedBoard.getData() : null;
     }
 
-    public Cell[][] getCellArrayFromRows() {
-        Cell[][] cellsArray = new Cell[rows.size()][rows.size()];
+    /**
+     * Creates a detached copy of this game, with its own copy of the packed board and without legacy rows.
+     *
+     * @return a {@link Game} instance.
+     */
+    public Game copy() {
+        Game copy = new Game(id, username, timer, size, mines, null, remainingCells, status, lastUpdated);
+        copy.moveSeq = moveSeq;
+        copy.snapshotSeq = snapshotSeq;
+        copy.seed = seed;
+        copy.firstClick = firstClick;
+        copy.noGuess = noGuess;
+        copy.version = version;
+        PackedBoard packed = getPackedBoard();
+        copy.setPackedBoard(packed != null ? packed.copy() : null);
+        return copy;
+    }
+
+    /**
+     * Rebuilds the legacy board placing each cell by its coordinates. Boards whose cells do not fill every position
+     * exactly once fall back to the order of the rows and cells ids.
+     */
+    private Cell[][] getCellArrayFromRows() {
+        int height = rows.size();
+        int width = 0;
+        for (Row row : rows) {
+            width = Math.max(width, row.getCells()
+                    .size());
+        }
+        Cell[][] byPosition = new Cell[height][];
+        Cell[][] byCoordinates = new Cell[height][width];
+        int placed = 0;
         int i = 0;
         for (Row row : rows) {
-            int j = 0;
-            for (Cell cell : row.getCells()) {
-                cellsArray[i][j] = cell;
-                j++;
+            byPosition[i] = row.getCells()
+                    .toArray(new Cell[0]);
+            for (Cell cell : byPosition[i]) {
+                Integer y = cell.getY();
+                Integer x = cell.getX();
+                if (y != null && x != null && y >= 0 && y < height && x >= 0 && x < width && byCoordinates[y][x] == null) {
+                    byCoordinates[y][x] = cell;
+                    placed++;
+                }
             }
             i++;
         }
-        return cellsArray;
+        return placed == height * width ? byCoordinates : byPosition;
     }
 
     public Long getId() {
@@ -170,6 +337,15 @@ public class Game {
         this.rows = rows;
     }
 
+    public byte[] getBoard() {
+        return board;
+    }
+
+    public void setBoard(byte[] board) {
+        this.board = board;
+        this.packedBoard = null;
+    }
+
     public Integer getRemainingCells() {
         return remainingCells;
     }
@@ -185,4 +361,69 @@ public class Game {
     public void setMines(Integer mines) {
         this.mines = mines;
     }
+
+    public int getMoveSeq() {
+        return moveSeq != null ? moveSeq : 0;
+    }
+
+    public void setMoveSeq(int moveSeq) {
+        this.moveSeq = moveSeq;
+    }
+
+    public int getSnapshotSeq() {
+        return snapshotSeq != null ? snapshotSeq : 0;
+    }
+
+    public void setSnapshotSeq(int snapshotSeq) {
+        this.snapshotSeq = snapshotSeq;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    public Integer getFirstClick() {
+        return firstClick;
+    }
+
+    public void setFirstClick(Integer firstClick) {
+        this.firstClick = firstClick;
+    }
+
+    public boolean isNoGuess() {
+        return noGuess != null && noGuess;
+    }
+
+    public void setNoGuess(boolean noGuess) {
+        this.noGuess = noGuess;
+    }
+
+    /**
+     * @return the version of the game, or null if it was not saved yet.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * Marks a new revision of a game held in memory. Stored games are incremented by the data source on every update.
+     */
+    public void incrementVersion() {
+        version = version != null ? version + 1 : 1L;
+    }
+
+    /**
+     * @return true if the move log holds moves not included in the board yet.
+     */
+    public boolean hasUnsnapshottedMoves() {
+        return getMoveSeq() > getSnapshotSeq();
+    }
 }
@@ -0,0 +1,126 @@
+package com.deviget.minesweeper.model;
+
+import java.time.LocalDateTime;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Entity class representing a move applied to a mine sweeper game board, as it will be persisted in the append-only
+ * move log of the game.
+ * <p>
+ * Moves are numbered per game in the order they were applied. The board stored in the {@link Game} is a snapshot
+ * holding all the moves up to {@link Game#getSnapshotSeq()}, the rest of them are replayed on top of it when the game
+ * is loaded.
+ *
+ * @author david.rios
+ */
+@Entity
+@Table(name = "game_move", indexes = @Index(name = "idx_game_move_game_id_seq", columnList = "game_id, seq", unique = true))
+public class GameMove {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JsonIgnore
+    @Column(name = "game_id", nullable = false)
+    private Long gameId;
+
+    private int seq;
+
+    private int y;
+
+    private int x;
+
+    @Enumerated(EnumType.STRING)
+    private MoveType action;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public GameMove() {
+    }
+
+    public GameMove(Long gameId, int seq, int y, int x, MoveType action, LocalDateTime createdAt) {
+        this.gameId = gameId;
+        this.seq = seq;
+        this.y = y;
+        this.x = x;
+        this.action = action;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(Long gameId) {
+        this.gameId = gameId;
+    }
+
+    public int getSeq() {
+        return seq;
+    }
+
+    public void setSeq(int seq) {
+        this.seq = seq;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public void setY(int y) {
+        this.y = y;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public void setX(int x) {
+        this.x = x;
+    }
+
+    public MoveType getAction() {
+        return action;
+    }
+
+    public void setAction(MoveType action) {
+        this.action = action;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this).append("seq", seq)
+                .append("y", y)
+                .append("x", x)
+                .append("action", action)
+                .toString();
+    }
+}
@@ -0,0 +1,19 @@
+package com.deviget.minesweeper.model;
+
+/**
+ * Enumerated class containing the supported changes on a single {@link Cell} of a {@link Game} board.
+ * <p>
+ * <code>REVEAL</code> only opens the given cell, as computed by the client, while <code>OPEN</code> is a reveal
+ * played by the server, cascading to the adjacent cells. <code>CHORD</code> reveals the unflagged neighbours of an open
+ * cell whose adjacent mines are all flagged.
+ * 
+ * @author david.rios
+ */
+public enum MoveType {
+
+    REVEAL,
+    FLAG,
+    UNFLAG,
+    OPEN,
+    CHORD
+}
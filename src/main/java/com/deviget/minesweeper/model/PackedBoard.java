@@ -0,0 +1,274 @@
+package com.deviget.minesweeper.model;
+
+/**
+ * Compact representation of a mine sweeper game board, as it will be persisted in a single binary column of the
+ * underline data source.
+ * <p>
+ * The board is backed by a byte array holding a fixed size header (format version, height and width) followed by one
+ * byte per cell in row-major order, where each cell is encoded as:
+ * <ol>
+ * <li>bits 0-3: number of adjacent mines (0 to 8)</li>
+ * <li>bit 4: mined cell</li>
+ * <li>bits 5-6: cell status code (see {@link CellStatus})</li>
+ * </ol>
+ *
+ * @author david.rios
+ */
+public class PackedBoard {
+
+    public static final byte FORMAT_VERSION = 1;
+
+    public static final int HEADER_LENGTH = 9;
+
+    /**
+     * Largest number of rows or columns of a board, as accepted for the size of a game.
+     */
+    public static final int MAX_SIZE = 1000;
+
+    public static final int PROXIMITY_MASK = 0x0F;
+
+    public static final int MINE_MASK = 0x10;
+
+    public static final int STATUS_SHIFT = 5;
+
+    public static final int STATUS_MASK = 0x03 << STATUS_SHIFT;
+
+    private final int height;
+
+    private final int width;
+
+    private final byte[] data;
+
+    /**
+     * Creates an empty board, where all the cells are covered and not mined.
+     *
+     * @param height - the number of rows.
+     * @param width - the number of columns.
+     * @throws IllegalArgumentException if a dimension is negative or larger than {@link #MAX_SIZE}.
+     */
+    public PackedBoard(int height, int width) {
+        if (height < 0 || width < 0 || height > MAX_SIZE || width > MAX_SIZE) {
+            throw new IllegalArgumentException("Invalid board dimensions: " + height + "x" + width);
+        }
+        this.height = height;
+        this.width = width;
+        this.data = new byte[HEADER_LENGTH + height * width];
+        data[0] = FORMAT_VERSION;
+        writeInt(data, 1, height);
+        writeInt(data, 5, width);
+    }
+
+    private PackedBoard(byte[] data) {
+        if (data.length < HEADER_LENGTH || data[0] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported board format");
+        }
+        this.height = readInt(data, 1);
+        this.width = readInt(data, 5);
+        // Checked before multiplying, so corrupted dimensions can't overflow into a matching length.
+        if (height < 0 || width < 0 || height > MAX_SIZE || width > MAX_SIZE || data.length != HEADER_LENGTH + (long) height * width) {
+            throw new IllegalArgumentException("Corrupted board: " + height + "x" + width + " in " + data.length + " bytes");
+        }
+        this.data = data;
+    }
+
+    /**
+     * Wraps a packed board as stored in the data source. The given array is not copied.
+     *
+     * @param data - the packed board bytes.
+     * @return a {@link PackedBoard} instance backed by the given array.
+     */
+    public static PackedBoard fromBytes(byte[] data) {
+        return new PackedBoard(data);
+    }
+
+    /**
+     * Encodes a two dimensional array of cells, as received from the clients. The cells coordinates are implied by
+     * their position in the array. Large boards are encoded in parallel, see {@link RowBands}.
+     *
+     * @param cellsArray - the board cells.
+     * @return a {@link PackedBoard} instance.
+     */
+    public static PackedBoard fromCells(Cell[][] cellsArray) {
+        int height = cellsArray.length;
+        int width = height > 0 && cellsArray[0] != null ? cellsArray[0].length : 0;
+        PackedBoard board = new PackedBoard(height, width);
+        byte[] data = board.data;
+        RowBands.forEach(height, width, (fromRow, toRow) -> {
+            for (int i = fromRow; i < toRow; i++) {
+                Cell[] row = cellsArray[i];
+                if (row == null || row.length != width) {
+                    throw new IllegalArgumentException("Board row " + i + " does not have " + width + " cells");
+                }
+                int offset = HEADER_LENGTH + i * width;
+                for (int j = 0; j < width; j++) {
+                    Cell cell = row[j];
+                    if (cell != null) {
+                        data[offset + j] = encode(cell);
+                    }
+                }
+            }
+        });
+        return board;
+    }
+
+    /**
+     * Decodes the board as a two dimensional array of cells, as expected by the clients. Large boards are decoded in
+     * parallel, see {@link RowBands}.
+     *
+     * @return the board cells.
+     */
+    public Cell[][] toCells() {
+        Cell[][] cellsArray = new Cell[height][];
+        RowBands.forEach(height, width, (fromRow, toRow) -> {
+            for (int i = fromRow; i < toRow; i++) {
+                Cell[] row = new Cell[width];
+                int offset = HEADER_LENGTH + i * width;
+                for (int j = 0; j < width; j++) {
+                    row[j] = decode(i, j, data[offset + j]);
+                }
+                cellsArray[i] = row;
+            }
+        });
+        return cellsArray;
+    }
+
+    /**
+     * Decodes a rectangular window of the board, keeping the board coordinates in the decoded cells. Only the cells of
+     * the window are decoded.
+     *
+     * @param fromY - the first row of the window.
+     * @param fromX - the first column of the window.
+     * @param rows - the number of rows, within the board.
+     * @param columns - the number of columns, within the board.
+     * @return the window cells.
+     */
+    public Cell[][] toCells(int fromY, int fromX, int rows, int columns) {
+        Cell[][] cellsArray = new Cell[rows][];
+        for (int i = 0; i < rows; i++) {
+            Cell[] row = new Cell[columns];
+            int offset = HEADER_LENGTH + (fromY + i) * width + fromX;
+            for (int j = 0; j < columns; j++) {
+                row[j] = decode(fromY + i, fromX + j, data[offset + j]);
+            }
+            cellsArray[i] = row;
+        }
+        return cellsArray;
+    }
+
+    /**
+     * Encodes a single cell.
+     *
+     * @param cell - the cell.
+     * @return the packed cell.
+     */
+    public static byte encode(Cell cell) {
+        return encode(cell.getStatus(), cell.isMine(), cell.getProximityMines() != null ? cell.getProximityMines() : 0);
+    }
+
+    /**
+     * Encodes a single cell from its fields.
+     *
+     * @param status - the status value, as exchanged with the clients.
+     * @param mine - whether the cell is mined.
+     * @param proximity - the number of adjacent mines.
+     * @return the packed cell.
+     */
+    public static byte encode(String status, boolean mine, int proximity) {
+        if (proximity < 0 || proximity > 8) {
+            throw new IllegalArgumentException("Invalid proximity mines: " + proximity);
+        }
+        int code = CellStatus.fromValue(status)
+                .getCode();
+        return (byte) (proximity | (mine ? MINE_MASK : 0) | (code << STATUS_SHIFT));
+    }
+
+    /**
+     * Decodes a single cell.
+     *
+     * @param y - the row of the cell.
+     * @param x - the column of the cell.
+     * @param packed - the packed cell.
+     * @return a {@link Cell} instance.
+     */
+    public static Cell decode(int y, int x, byte packed) {
+        return new Cell(y, x, statusOf(packed).getValue(), (packed & MINE_MASK) != 0, packed & PROXIMITY_MASK);
+    }
+
+    public static CellStatus statusOf(byte packed) {
+        return CellStatus.fromCode((packed & STATUS_MASK) >>> STATUS_SHIFT);
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the number of cells in the board.
+     */
+    public int getLength() {
+        return height * width;
+    }
+
+    /**
+     * @return the backing array, header included, as it will be persisted.
+     */
+    public byte[] getData() {
+        return data;
+    }
+
+    /**
+     * @return a deep copy of this board.
+     */
+    public PackedBoard copy() {
+        return new PackedBoard(data.clone());
+    }
+
+    public int indexOf(int y, int x) {
+        return y * width + x;
+    }
+
+    public boolean contains(int y, int x) {
+        return y >= 0 && y < height && x >= 0 && x < width;
+    }
+
+    public byte get(int index) {
+        return data[HEADER_LENGTH + index];
+    }
+
+    public void set(int index, byte packed) {
+        data[HEADER_LENGTH + index] = packed;
+    }
+
+    public boolean isMine(int index) {
+        return (data[HEADER_LENGTH + index] & MINE_MASK) != 0;
+    }
+
+    public int getProximityMines(int index) {
+        return data[HEADER_LENGTH + index] & PROXIMITY_MASK;
+    }
+
+    public CellStatus getStatus(int index) {
+        return statusOf(data[HEADER_LENGTH + index]);
+    }
+
+    public void setStatus(int index, CellStatus status) {
+        int offset = HEADER_LENGTH + index;
+        data[offset] = (byte) ((data[offset] & ~STATUS_MASK) | (status.getCode() << STATUS_SHIFT));
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16) | ((bytes[offset + 2] & 0xFF) << 8)
+                | (bytes[offset + 3] & 0xFF);
+    }
+}
@@ -0,0 +1,88 @@
+package com.deviget.minesweeper.model;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs board-wide passes over bands of rows, in parallel on the common fork-join pool for large boards.
+ * <p>
+ * Boards smaller than {@link #PARALLEL_THRESHOLD} cells, or running on a single core, are processed sequentially on the
+ * calling thread, as splitting them costs more than it saves. Each band must only write its own rows.
+ *
+ * @author david.rios
+ */
+public final class RowBands {
+
+    /**
+     * Minimum number of cells of a board processed in parallel.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * Minimum number of cells of a band, below which it is not split any further.
+     */
+    private static final int MIN_BAND_CELLS = 1 << 14;
+
+    private RowBands() {
+    }
+
+    /**
+     * Processes the rows of a board, split in bands.
+     *
+     * @param height - the number of rows.
+     * @param width - the number of columns.
+     * @param band - the pass to run over each band.
+     */
+    public static void forEach(int height, int width, RowBand band) {
+        if ((long) height * width < PARALLEL_THRESHOLD || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            band.apply(0, height);
+            return;
+        }
+        int minRows = Math.max(1, MIN_BAND_CELLS / Math.max(1, width));
+        ForkJoinPool.commonPool()
+                .invoke(new BandTask(band, 0, height, minRows));
+    }
+
+    /**
+     * Pass over a band of rows.
+     */
+    @FunctionalInterface
+    public interface RowBand {
+
+        /**
+         * @param fromRow - the first row of the band, inclusive.
+         * @param toRow - the last row of the band, exclusive.
+         */
+        void apply(int fromRow, int toRow);
+    }
+
+    private static class BandTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient RowBand band;
+
+        private final int fromRow;
+
+        private final int toRow;
+
+        private final int minRows;
+
+        private BandTask(RowBand band, int fromRow, int toRow, int minRows) {
+            this.band = band;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.minRows = minRows;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRow - fromRow <= minRows) {
+                band.apply(fromRow, toRow);
+                return;
+            }
+            int middle = (fromRow + toRow) >>> 1;
+            invokeAll(new BandTask(band, fromRow, middle, minRows), new BandTask(band, middle, toRow, minRows));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.deviget.minesweeper.payload.dto;
+
+import java.io.IOException;
+import java.util.Arrays;
+import com.deviget.minesweeper.model.Cell;
+import com.deviget.minesweeper.model.PackedBoard;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+
+/**
+ * Reads the cells of a game board, sent as a two dimensional array of {@link Cell} objects, token by token straight
+ * into a packed board buffer, with no intermediate cells. The cells coordinates are implied by their position in the
+ * array, and null cells are covered cells without mines.
+ * <p>
+ * The rows length and the cell values are validated, and the mines are counted, in the same pass.
+ *
+ * @author david.rios
+ */
+public class BoardCellsDeserializer extends StdDeserializer<UploadedBoard> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    public BoardCellsDeserializer() {
+        super(UploadedBoard.class);
+    }
+
+    @Override
+    public UploadedBoard deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (!p.isExpectedStartArrayToken()) {
+            return (UploadedBoard) ctxt.handleUnexpectedToken(UploadedBoard.class, p);
+        }
+        byte[] cells = new byte[INITIAL_BUFFER_SIZE];
+        int count = 0;
+        int height = 0;
+        int width = -1;
+        int mines = 0;
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (!p.isExpectedStartArrayToken()) {
+                ctxt.reportInputMismatch(this, "Board row %d is not an array", height);
+            }
+            int rowStart = count;
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                if (count == cells.length) {
+                    cells = Arrays.copyOf(cells, cells.length * 2);
+                }
+                byte packed = p.currentToken() == JsonToken.VALUE_NULL ? 0 : readCell(p, ctxt);
+                if ((packed & PackedBoard.MINE_MASK) != 0) {
+                    mines++;
+                }
+                cells[count++] = packed;
+            }
+            int rowLength = count - rowStart;
+            if (width < 0) {
+                width = rowLength;
+            } else if (rowLength != width) {
+                ctxt.reportInputMismatch(this, "Board row %d does not have %d cells", height, width);
+            }
+            height++;
+        }
+        PackedBoard board = new PackedBoard(height, Math.max(width, 0));
+        System.arraycopy(cells, 0, board.getData(), PackedBoard.HEADER_LENGTH, count);
+        return new UploadedBoard(board, mines);
+    }
+
+    private byte readCell(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            ctxt.reportInputMismatch(this, "Board cell is not an object");
+        }
+        String status = null;
+        boolean mine = false;
+        int proximity = 0;
+        String field;
+        while ((field = p.nextFieldName()) != null) {
+            JsonToken token = p.nextToken();
+            switch (field) {
+            case "status":
+                status = token == JsonToken.VALUE_NULL ? null : p.getValueAsString();
+                break;
+            case "mine":
+                mine = p.getValueAsBoolean();
+                break;
+            case "proximityMines":
+                proximity = token == JsonToken.VALUE_NULL ? 0 : p.getValueAsInt();
+                break;
+            default:
+                p.skipChildren();
+            }
+        }
+        try {
+            return PackedBoard.encode(status, mine, proximity);
+        } catch (IllegalArgumentException e) {
+            throw MismatchedInputException.from(p, UploadedBoard.class, e.getMessage());
+        }
+    }
+}
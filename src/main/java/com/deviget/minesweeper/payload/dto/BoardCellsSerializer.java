@@ -0,0 +1,84 @@
+package com.deviget.minesweeper.payload.dto;
+
+import java.io.IOException;
+import com.deviget.minesweeper.model.Cell;
+import com.deviget.minesweeper.model.CellStatus;
+import com.deviget.minesweeper.model.PackedBoard;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Serializes the cells of a game board. A {@link PackedBoard} is written straight from its bytes with the same layout
+ * as a two dimensional array of {@link Cell} objects, so no intermediate cells are created and the memory used does
+ * not depend on the board size. Arrays of cells are serialized as usual.
+ *
+ * @author david.rios
+ */
+public class BoardCellsSerializer extends StdSerializer<Object> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final SerializableString ID = new SerializedString("id");
+
+    private static final SerializableString Y = new SerializedString("y");
+
+    private static final SerializableString X = new SerializedString("x");
+
+    private static final SerializableString STATUS = new SerializedString("status");
+
+    private static final SerializableString MINE = new SerializedString("mine");
+
+    private static final SerializableString PROXIMITY_MINES = new SerializedString("proximityMines");
+
+    private static final SerializableString[] STATUS_VALUES;
+
+    static {
+        CellStatus[] statuses = CellStatus.values();
+        STATUS_VALUES = new SerializableString[statuses.length];
+        for (CellStatus status : statuses) {
+            STATUS_VALUES[status.getCode()] = new SerializedString(status.getValue());
+        }
+    }
+
+    public BoardCellsSerializer() {
+        super(Object.class);
+    }
+
+    @Override
+    public void serialize(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (!(value instanceof PackedBoard)) {
+            provider.defaultSerializeValue(value, gen);
+            return;
+        }
+        PackedBoard board = (PackedBoard) value;
+        byte[] data = board.getData();
+        int height = board.getHeight();
+        int width = board.getWidth();
+        gen.writeStartArray();
+        for (int y = 0, offset = PackedBoard.HEADER_LENGTH; y < height; y++) {
+            gen.writeStartArray();
+            for (int x = 0; x < width; x++, offset++) {
+                int packed = data[offset];
+                gen.writeStartObject();
+                gen.writeFieldName(ID);
+                gen.writeNull();
+                gen.writeFieldName(Y);
+                gen.writeNumber(y);
+                gen.writeFieldName(X);
+                gen.writeNumber(x);
+                gen.writeFieldName(STATUS);
+                gen.writeString(STATUS_VALUES[(packed & PackedBoard.STATUS_MASK) >>> PackedBoard.STATUS_SHIFT]);
+                gen.writeFieldName(MINE);
+                gen.writeBoolean((packed & PackedBoard.MINE_MASK) != 0);
+                gen.writeFieldName(PROXIMITY_MINES);
+                gen.writeNumber(packed & PackedBoard.PROXIMITY_MASK);
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+        gen.writeEndArray();
+    }
+}
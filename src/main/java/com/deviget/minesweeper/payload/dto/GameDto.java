@@ -9,12 +9,21 @@ import org.slf4j.LoggerFactory;
 import com.deviget.minesweeper.model.Cell;
 import com.deviget.minesweeper.model.Game;
 import com.deviget.minesweeper.model.GameStatus;
+import com.deviget.minesweeper.model.PackedBoard;
+import com.deviget.minesweeper.repository.GameSummary;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonProperty.Access;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 /**
  * Payload class used for new games requests.
  *
  * @author david.rios
  */
+@JsonPropertyOrder({ "id", "username", "timer", "size", "mines", "cells", "remainingCells", "status", "lastUpdated", "noGuess", "version" })
 public class GameDto {
 
     private static final Logger logger = LoggerFactory.getLogger(GameDto.class);
@@ -26,24 +35,53 @@ public class GameDto {
     private Long timer;
 
     @NotNull
-    @Max(1000)
+    @Max(PackedBoard.MAX_SIZE)
     private Integer size;
 
     @NotNull
-    @Max(1000)
+    @Max(PackedBoard.MAX_SIZE)
     private Integer mines;
 
-    @NotNull
+    /**
+     * The board cells. New games without cells are generated on the server, on the first reveal.
+     */
     private Cell[][] cells;
 
-    @NotNull
+    /**
+     * The board as stored, used instead of the cells when present. It is written as is in the binary representation,
+     * and streamed cell by cell in JSON, see {@link BoardCellsSerializer}.
+     */
+    @JsonIgnore
+    private PackedBoard packedBoard;
+
+    /**
+     * The number of mines counted while reading the board from a request, or -1 if not counted.
+     */
+    @JsonIgnore
+    private int boardMines = -1;
+
     private Integer remainingCells;
 
-    @NotNull
     private String status;
 
     private LocalDateTime lastUpdated;
 
+    /**
+     * Optional seed for boards generated on the server, never returned to the clients.
+     */
+    @JsonProperty(access = Access.WRITE_ONLY)
+    private Long seed;
+
+    /**
+     * Whether a board generated on the server must be solvable without guessing.
+     */
+    private Boolean noGuess;
+
+    /**
+     * Version of the game. When sent along with a save, the game is only saved if it is still the current version.
+     */
+    private Long version;
+
     public GameDto() {
     }
 
@@ -61,7 +99,6 @@ public class GameDto {
     }
 
     public static Game toGame(GameDto gameDto) {
-        logger.debug(">>> cells.lenght:" + gameDto.getCells().length);
         //@formatter:off
         Game game = new Game(gameDto.getId(),
                 gameDto.getUsername(),
@@ -73,10 +110,32 @@ public class GameDto {
                 GameStatus.valueOf(gameDto.getStatus()),
                 gameDto.getLastUpdated());
         //@formatter:on
-        game.setRowsFromCellArray(gameDto.getCells());
+        gameDto.copyBoardTo(game);
         return game;
     }
 
+    /**
+     * Sets the board of a game from the packed board, if present, or from the cells otherwise.
+     *
+     * @param game - the game.
+     * @throws IllegalArgumentException if the cells cannot be encoded.
+     */
+    public void copyBoardTo(Game game) {
+        if (packedBoard != null) {
+            game.setPackedBoard(packedBoard);
+        } else {
+            logger.debug(">>> cells.lenght:" + cells.length);
+            game.setBoardFromCellArray(cells);
+        }
+    }
+
+    /**
+     * @return true if the board was given, either as cells or packed.
+     */
+    public boolean hasBoard() {
+        return cells != null || packedBoard != null;
+    }
+
     public static GameDto fromGame(Game game, boolean fullCopy) {
         //@formatter:off
         GameDto gameDto = new GameDto(game.getId(),
@@ -84,11 +143,38 @@ public class GameDto {
                 game.getTimer(),
                 game.getSize(),
                 game.getMines(),
-                fullCopy ? game.getCellArrayFromRows() : null,
+                null,
                 game.getRemainingCells(),
                 game.getStatus().name(),
                 game.getLastUpdated());
         //@formatter:on
+        gameDto.setNoGuess(game.isNoGuess());
+        gameDto.setVersion(game.getVersion());
+        if (fullCopy) {
+            // A copy of the packed board, not decoded into cells. Boards not generated yet are fully covered.
+            PackedBoard board = game.getPackedBoard();
+            if (board != null) {
+                gameDto.setPackedBoard(board.copy());
+            } else if (game.isPendingGeneration()) {
+                gameDto.setPackedBoard(new PackedBoard(game.getSize(), game.getSize()));
+            }
+        }
+        return gameDto;
+    }
+
+    public static GameDto fromSummary(GameSummary summary, String username) {
+        //@formatter:off
+        GameDto gameDto = new GameDto(summary.getId(),
+                username,
+                summary.getTimer(),
+                summary.getSize(),
+                summary.getMines(),
+                null,
+                summary.getRemainingCells(),
+                summary.getStatus().name(),
+                summary.getLastUpdated());
+        //@formatter:on
+        gameDto.setVersion(summary.getVersion());
         return gameDto;
     }
 
@@ -132,7 +218,14 @@ public class GameDto {
         this.mines = mines;
     }
 
+    /**
+     * @return the cells, decoded from the packed board if they were not given.
+     */
+    @JsonIgnore
     public Cell[][] getCells() {
+        if (cells == null && packedBoard != null) {
+            return packedBoard.toCells();
+        }
         return cells;
     }
 
@@ -140,6 +233,37 @@ public class GameDto {
         this.cells = cells;
     }
 
+    /**
+     * Sets the board as read from a JSON request, see {@link BoardCellsDeserializer}.
+     */
+    @JsonProperty("cells")
+    @JsonDeserialize(using = BoardCellsDeserializer.class)
+    public void setUploadedBoard(UploadedBoard uploadedBoard) {
+        this.packedBoard = uploadedBoard != null ? uploadedBoard.getBoard() : null;
+        this.boardMines = uploadedBoard != null ? uploadedBoard.getMines() : -1;
+    }
+
+    /**
+     * @return the board as serialized to JSON: the cells if given, or the packed board otherwise.
+     */
+    @JsonProperty("cells")
+    @JsonSerialize(using = BoardCellsSerializer.class)
+    public Object getBoardCells() {
+        return cells != null ? cells : packedBoard;
+    }
+
+    public PackedBoard getPackedBoard() {
+        return packedBoard;
+    }
+
+    public void setPackedBoard(PackedBoard packedBoard) {
+        this.packedBoard = packedBoard;
+    }
+
+    public int getBoardMines() {
+        return boardMines;
+    }
+
     public Integer getRemainingCells() {
         return remainingCells;
     }
@@ -164,6 +288,30 @@ public class GameDto {
         this.lastUpdated = lastUpdated;
     }
 
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    public Boolean getNoGuess() {
+        return noGuess;
+    }
+
+    public void setNoGuess(Boolean noGuess) {
+        this.noGuess = noGuess;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this).append("id", id)
@@ -174,6 +322,7 @@ public class GameDto {
                 .append("remainingCells", remainingCells)
                 .append("status", status)
                 .append("lastUpdated", lastUpdated)
+                .append("version", version)
                 .toString();
     }
 }
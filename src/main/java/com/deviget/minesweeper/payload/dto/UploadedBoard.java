@@ -0,0 +1,29 @@
+package com.deviget.minesweeper.payload.dto;
+
+import com.deviget.minesweeper.model.PackedBoard;
+
+/**
+ * A board read from a client request by {@link BoardCellsDeserializer}, along with the number of mines counted while
+ * reading it.
+ *
+ * @author david.rios
+ */
+public class UploadedBoard {
+
+    private final PackedBoard board;
+
+    private final int mines;
+
+    public UploadedBoard(PackedBoard board, int mines) {
+        this.board = board;
+        this.mines = mines;
+    }
+
+    public PackedBoard getBoard() {
+        return board;
+    }
+
+    public int getMines() {
+        return mines;
+    }
+}
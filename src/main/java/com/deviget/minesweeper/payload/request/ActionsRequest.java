@@ -0,0 +1,52 @@
+package com.deviget.minesweeper.payload.request;
+
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Payload class used to submit an ordered batch of actions played on the server, along with the optional timer of the
+ * game. <code>REVEAL</code> actions are played as <code>OPEN</code>.
+ *
+ * @author david.rios
+ */
+public class ActionsRequest {
+
+    @NotEmpty
+    @Valid
+    private List<Move> actions;
+
+    private Long timer;
+
+    public ActionsRequest() {
+    }
+
+    public ActionsRequest(List<Move> actions, Long timer) {
+        this.actions = actions;
+        this.timer = timer;
+    }
+
+    public List<Move> getActions() {
+        return actions;
+    }
+
+    public void setActions(List<Move> actions) {
+        this.actions = actions;
+    }
+
+    public Long getTimer() {
+        return timer;
+    }
+
+    public void setTimer(Long timer) {
+        this.timer = timer;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this).append("actions", actions)
+                .append("timer", timer)
+                .toString();
+    }
+}
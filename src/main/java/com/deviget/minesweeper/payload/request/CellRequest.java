@@ -0,0 +1,49 @@
+package com.deviget.minesweeper.payload.request;
+
+import javax.validation.constraints.NotNull;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Payload class used to play a single cell of a game board.
+ *
+ * @author david.rios
+ */
+public class CellRequest {
+
+    @NotNull
+    private Integer y;
+
+    @NotNull
+    private Integer x;
+
+    public CellRequest() {
+    }
+
+    public CellRequest(Integer y, Integer x) {
+        this.y = y;
+        this.x = x;
+    }
+
+    public Integer getY() {
+        return y;
+    }
+
+    public void setY(Integer y) {
+        this.y = y;
+    }
+
+    public Integer getX() {
+        return x;
+    }
+
+    public void setX(Integer x) {
+        this.x = x;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this).append("y", y)
+                .append("x", x)
+                .toString();
+    }
+}
@@ -0,0 +1,63 @@
+package com.deviget.minesweeper.payload.request;
+
+import javax.validation.constraints.NotNull;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import com.deviget.minesweeper.model.MoveType;
+
+/**
+ * Payload class representing a change on a single cell of a game board.
+ *
+ * @author david.rios
+ */
+public class Move {
+
+    @NotNull
+    private Integer y;
+
+    @NotNull
+    private Integer x;
+
+    @NotNull
+    private MoveType action;
+
+    public Move() {
+    }
+
+    public Move(Integer y, Integer x, MoveType action) {
+        this.y = y;
+        this.x = x;
+        this.action = action;
+    }
+
+    public Integer getY() {
+        return y;
+    }
+
+    public void setY(Integer y) {
+        this.y = y;
+    }
+
+    public Integer getX() {
+        return x;
+    }
+
+    public void setX(Integer x) {
+        this.x = x;
+    }
+
+    public MoveType getAction() {
+        return action;
+    }
+
+    public void setAction(MoveType action) {
+        this.action = action;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this).append("y", y)
+                .append("x", x)
+                .append("action", action)
+                .toString();
+    }
+}
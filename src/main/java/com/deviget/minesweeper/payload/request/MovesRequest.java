@@ -0,0 +1,76 @@
+package com.deviget.minesweeper.payload.request;
+
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Payload class used for incremental game updates: a list of cell changes, along with the optional game details
+ * updated by the client.
+ *
+ * @author david.rios
+ */
+public class MovesRequest {
+
+    @NotEmpty
+    @Valid
+    private List<Move> moves;
+
+    private Long timer;
+
+    private Integer remainingCells;
+
+    private String status;
+
+    public MovesRequest() {
+    }
+
+    public MovesRequest(List<Move> moves, Long timer, Integer remainingCells, String status) {
+        this.moves = moves;
+        this.timer = timer;
+        this.remainingCells = remainingCells;
+        this.status = status;
+    }
+
+    public List<Move> getMoves() {
+        return moves;
+    }
+
+    public void setMoves(List<Move> moves) {
+        this.moves = moves;
+    }
+
+    public Long getTimer() {
+        return timer;
+    }
+
+    public void setTimer(Long timer) {
+        this.timer = timer;
+    }
+
+    public Integer getRemainingCells() {
+        return remainingCells;
+    }
+
+    public void setRemainingCells(Integer remainingCells) {
+        this.remainingCells = remainingCells;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this).append("moves", moves)
+                .append("timer", timer)
+                .append("remainingCells", remainingCells)
+                .append("status", status)
+                .toString();
+    }
+}
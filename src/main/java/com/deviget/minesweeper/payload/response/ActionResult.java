@@ -0,0 +1,72 @@
+package com.deviget.minesweeper.payload.response;
+
+import com.deviget.minesweeper.model.MoveType;
+
+/**
+ * Payload class with the outcome of a single action of a batch. Rejected actions carry the reason in the message.
+ *
+ * @author david.rios
+ */
+public class ActionResult {
+
+    private int y;
+
+    private int x;
+
+    private MoveType action;
+
+    private boolean applied;
+
+    private String message;
+
+    public ActionResult() {
+    }
+
+    public ActionResult(int y, int x, MoveType action, boolean applied, String message) {
+        this.y = y;
+        this.x = x;
+        this.action = action;
+        this.applied = applied;
+        this.message = message;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public void setY(int y) {
+        this.y = y;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public void setX(int x) {
+        this.x = x;
+    }
+
+    public MoveType getAction() {
+        return action;
+    }
+
+    public void setAction(MoveType action) {
+        this.action = action;
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
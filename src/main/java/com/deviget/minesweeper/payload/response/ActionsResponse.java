@@ -0,0 +1,37 @@
+package com.deviget.minesweeper.payload.response;
+
+import java.util.List;
+import com.deviget.minesweeper.game.service.BatchResult;
+import com.deviget.minesweeper.model.Cell;
+import com.deviget.minesweeper.model.Game;
+
+/**
+ * Payload class answering a batch of actions: the game header after the batch, the outcome of each action, and only
+ * the cells which changed.
+ *
+ * @author david.rios
+ */
+public class ActionsResponse extends GameDiffResponse {
+
+    private List<ActionResult> actions;
+
+    public ActionsResponse() {
+    }
+
+    public ActionsResponse(Game game, List<ActionResult> actions, List<Cell> cells) {
+        super(game, cells);
+        this.actions = actions;
+    }
+
+    public static ActionsResponse fromBatch(BatchResult batch) {
+        return new ActionsResponse(batch.getGame(), batch.getActions(), changedCells(batch));
+    }
+
+    public List<ActionResult> getActions() {
+        return actions;
+    }
+
+    public void setActions(List<ActionResult> actions) {
+        this.actions = actions;
+    }
+}
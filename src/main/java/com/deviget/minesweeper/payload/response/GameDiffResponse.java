@@ -0,0 +1,113 @@
+package com.deviget.minesweeper.payload.response;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import com.deviget.minesweeper.game.service.GameUpdate;
+import com.deviget.minesweeper.model.Cell;
+import com.deviget.minesweeper.model.Game;
+import com.deviget.minesweeper.model.PackedBoard;
+
+/**
+ * Payload class answering a game update with the game header and only the cells which changed, instead of the whole
+ * board.
+ *
+ * @author david.rios
+ */
+public class GameDiffResponse {
+
+    private Long id;
+
+    private String status;
+
+    private Integer remainingCells;
+
+    private Long timer;
+
+    private LocalDateTime lastUpdated;
+
+    private List<Cell> cells;
+
+    public GameDiffResponse() {
+    }
+
+    public GameDiffResponse(Game game, List<Cell> cells) {
+        this.id = game.getId();
+        this.status = game.getStatus()
+                .name();
+        this.remainingCells = game.getRemainingCells();
+        this.timer = game.getTimer();
+        this.lastUpdated = game.getLastUpdated();
+        this.cells = cells;
+    }
+
+    public static GameDiffResponse fromUpdate(GameUpdate update) {
+        return new GameDiffResponse(update.getGame(), changedCells(update));
+    }
+
+    /**
+     * Decodes the changed cells of the updated board, in index order.
+     */
+    protected static List<Cell> changedCells(GameUpdate update) {
+        BitSet changed = update.getChangedCells();
+        PackedBoard board = update.getGame()
+                .getPackedBoard();
+        List<Cell> cells = new ArrayList<>(changed.cardinality());
+        if (board != null) {
+            int width = board.getWidth();
+            for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+                cells.add(PackedBoard.decode(i / width, i % width, board.get(i)));
+            }
+        }
+        return cells;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getRemainingCells() {
+        return remainingCells;
+    }
+
+    public void setRemainingCells(Integer remainingCells) {
+        this.remainingCells = remainingCells;
+    }
+
+    public Long getTimer() {
+        return timer;
+    }
+
+    public void setTimer(Long timer) {
+        this.timer = timer;
+    }
+
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public void setLastUpdated(LocalDateTime lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+
+    public List<Cell> getCells() {
+        return cells;
+    }
+
+    public void setCells(List<Cell> cells) {
+        this.cells = cells;
+    }
+}
@@ -0,0 +1,43 @@
+package com.deviget.minesweeper.payload.response;
+
+import java.util.List;
+import com.deviget.minesweeper.payload.dto.GameDto;
+
+/**
+ * Payload class used for paginated game lists.
+ * 
+ * @author david.rios
+ */
+public class GamePageResponse {
+
+    private List<GameDto> games;
+
+    private String nextCursor;
+
+    public GamePageResponse() {
+    }
+
+    public GamePageResponse(List<GameDto> games, String nextCursor) {
+        this.games = games;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<GameDto> getGames() {
+        return games;
+    }
+
+    public void setGames(List<GameDto> games) {
+        this.games = games;
+    }
+
+    /**
+     * @return the cursor to retrieve the next page, or null if this is the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
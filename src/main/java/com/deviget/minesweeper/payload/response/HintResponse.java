@@ -0,0 +1,73 @@
+package com.deviget.minesweeper.payload.response;
+
+import com.deviget.minesweeper.model.MoveType;
+
+/**
+ * Payload class used to suggest the next move of a game. When no move can be deduced, the cell and the action are
+ * null.
+ * 
+ * @author david.rios
+ */
+public class HintResponse {
+
+    private Integer y;
+
+    private Integer x;
+
+    private MoveType action;
+
+    private String reason;
+
+    private boolean complete;
+
+    public HintResponse() {
+    }
+
+    public HintResponse(Integer y, Integer x, MoveType action, String reason, boolean complete) {
+        this.y = y;
+        this.x = x;
+        this.action = action;
+        this.reason = reason;
+        this.complete = complete;
+    }
+
+    public Integer getY() {
+        return y;
+    }
+
+    public void setY(Integer y) {
+        this.y = y;
+    }
+
+    public Integer getX() {
+        return x;
+    }
+
+    public void setX(Integer x) {
+        this.x = x;
+    }
+
+    public MoveType getAction() {
+        return action;
+    }
+
+    public void setAction(MoveType action) {
+        this.action = action;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+}
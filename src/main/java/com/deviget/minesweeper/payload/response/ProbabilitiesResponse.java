@@ -0,0 +1,63 @@
+package com.deviget.minesweeper.payload.response;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Payload class used to return the probability of each cell of a board being a mine. Open cells have no probability,
+ * kept as NaN and returned as null, see {@link ProbabilitiesSerializer}.
+ * 
+ * @author david.rios
+ */
+public class ProbabilitiesResponse {
+
+    @JsonSerialize(using = ProbabilitiesSerializer.class)
+    private double[][] probabilities;
+
+    private boolean exact;
+
+    private boolean complete;
+
+    private double maxError;
+
+    public ProbabilitiesResponse() {
+    }
+
+    public ProbabilitiesResponse(double[][] probabilities, boolean exact, boolean complete, double maxError) {
+        this.probabilities = probabilities;
+        this.exact = exact;
+        this.complete = complete;
+        this.maxError = maxError;
+    }
+
+    public double[][] getProbabilities() {
+        return probabilities;
+    }
+
+    public void setProbabilities(double[][] probabilities) {
+        this.probabilities = probabilities;
+    }
+
+    public boolean isExact() {
+        return exact;
+    }
+
+    public void setExact(boolean exact) {
+        this.exact = exact;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+
+    public double getMaxError() {
+        return maxError;
+    }
+
+    public void setMaxError(double maxError) {
+        this.maxError = maxError;
+    }
+}
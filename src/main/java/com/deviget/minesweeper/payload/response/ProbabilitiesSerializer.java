@@ -0,0 +1,38 @@
+package com.deviget.minesweeper.payload.response;
+
+import java.io.IOException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Serializes the mine probabilities of a board from a primitive array, so no boxed values are created. Cells with no
+ * probability are kept as NaN and written as null.
+ *
+ * @author david.rios
+ */
+public class ProbabilitiesSerializer extends StdSerializer<double[][]> {
+
+    private static final long serialVersionUID = 1L;
+
+    public ProbabilitiesSerializer() {
+        super(double[][].class);
+    }
+
+    @Override
+    public void serialize(double[][] value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartArray();
+        for (double[] row : value) {
+            gen.writeStartArray();
+            for (double probability : row) {
+                if (Double.isNaN(probability)) {
+                    gen.writeNull();
+                } else {
+                    gen.writeNumber(probability);
+                }
+            }
+            gen.writeEndArray();
+        }
+        gen.writeEndArray();
+    }
+}
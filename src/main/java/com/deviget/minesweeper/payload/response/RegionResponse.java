@@ -0,0 +1,108 @@
+package com.deviget.minesweeper.payload.response;
+
+import com.deviget.minesweeper.model.Cell;
+import com.deviget.minesweeper.model.Game;
+
+/**
+ * Payload class with a rectangular window of a game board, along with the game header. The window is clipped to the
+ * board, and its cells keep their board coordinates.
+ *
+ * @author david.rios
+ */
+public class RegionResponse {
+
+    private Long id;
+
+    private String status;
+
+    private Integer remainingCells;
+
+    private Long timer;
+
+    private Integer size;
+
+    private int y;
+
+    private int x;
+
+    private Cell[][] cells;
+
+    public RegionResponse() {
+    }
+
+    public RegionResponse(Game game, int y, int x, Cell[][] cells) {
+        this.id = game.getId();
+        this.status = game.getStatus()
+                .name();
+        this.remainingCells = game.getRemainingCells();
+        this.timer = game.getTimer();
+        this.size = game.getSize();
+        this.y = y;
+        this.x = x;
+        this.cells = cells;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getRemainingCells() {
+        return remainingCells;
+    }
+
+    public void setRemainingCells(Integer remainingCells) {
+        this.remainingCells = remainingCells;
+    }
+
+    public Long getTimer() {
+        return timer;
+    }
+
+    public void setTimer(Long timer) {
+        this.timer = timer;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public void setY(int y) {
+        this.y = y;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public void setX(int x) {
+        this.x = x;
+    }
+
+    public Cell[][] getCells() {
+        return cells;
+    }
+
+    public void setCells(Cell[][] cells) {
+        this.cells = cells;
+    }
+}
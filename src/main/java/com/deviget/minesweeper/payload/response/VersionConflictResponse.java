@@ -0,0 +1,48 @@
+package com.deviget.minesweeper.payload.response;
+
+/**
+ * Payload class used to answer updates of a game which was updated after the version read by the client.
+ * 
+ * @author david.rios
+ */
+public class VersionConflictResponse {
+
+    private String message;
+
+    private Long id;
+
+    private Long version;
+
+    public VersionConflictResponse() {
+    }
+
+    public VersionConflictResponse(String message, Long id, Long version) {
+        this.message = message;
+        this.id = id;
+        this.version = version;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
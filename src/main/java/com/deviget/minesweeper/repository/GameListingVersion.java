@@ -0,0 +1,19 @@
+package com.deviget.minesweeper.repository;
+
+import java.time.LocalDateTime;
+import com.deviget.minesweeper.model.Game;
+
+/**
+ * Projection summarizing the list of games of a user, which changes whenever one of its {@link Game} instances is
+ * created, updated or deleted.
+ * 
+ * @author david.rios
+ */
+public interface GameListingVersion {
+
+    Long getCount();
+
+    Long getVersions();
+
+    LocalDateTime getLastUpdated();
+}
@@ -0,0 +1,65 @@
+package com.deviget.minesweeper.repository;
+
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import com.deviget.minesweeper.model.GameMove;
+
+/**
+ * Repository class for {@link GameMove} persistence.
+ *
+ * @author david.rios
+ */
+@Repository
+public interface GameMoveRepository extends JpaRepository<GameMove, Long> {
+
+    /**
+     * Retrieves all the moves applied to a game, in the order they were applied.
+     *
+     * @param gameId - the game id.
+     * @return a {@link List} of {@link GameMove} instances.
+     */
+    List<GameMove> findByGameIdOrderBySeq(Long gameId);
+
+    /**
+     * Retrieves the moves applied to a game after the given one, in the order they were applied.
+     *
+     * @param gameId - the game id.
+     * @param seq - the number of the last move to skip.
+     * @return a {@link List} of {@link GameMove} instances.
+     */
+    List<GameMove> findByGameIdAndSeqGreaterThanOrderBySeq(Long gameId, int seq);
+
+    /**
+     * Deletes, in a single statement, the moves of a game.
+     *
+     * @param gameId - the game id.
+     * @return the number of deleted moves.
+     */
+    @Modifying
+    @Query("delete from GameMove m where m.gameId = :gameId")
+    int deleteMovesByGameId(@Param("gameId") Long gameId);
+
+    /**
+     * Deletes, in a single statement, the moves of all the games associated to the provided user name.
+     *
+     * @param username - the user name.
+     * @return the number of deleted moves.
+     */
+    @Modifying
+    @Query("delete from GameMove m where m.gameId in (select g.id from Game g where g.username = :username)")
+    int deleteMovesByUsername(@Param("username") String username);
+
+    /**
+     * Deletes, in a single statement, the moves of the given games.
+     *
+     * @param ids - the game ids.
+     * @return the number of deleted moves.
+     */
+    @Modifying
+    @Query("delete from GameMove m where m.gameId in :ids")
+    int deleteMovesByGameIds(@Param("ids") List<Long> ids);
+}
@@ -1,9 +1,19 @@
 package com.deviget.minesweeper.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.deviget.minesweeper.model.Game;
+import com.deviget.minesweeper.model.Row;
 
 /**
  * Repository class for {@link Game} persistence.
@@ -14,10 +24,231 @@ import com.deviget.minesweeper.model.Game;
 public interface GameRepository extends JpaRepository<Game, Long> {
 
     /**
-     * Retrieves a list of games associated to the provided user name.
+     * Retrieves the summaries of the games associated to the provided user name, most recently updated first. Only
+     * the game columns are selected, neither the board nor the legacy rows are loaded.
      * 
      * @param username - the user name.
+     * @return a {@link List} of {@link GameSummary} instances.
+     */
+    List<GameSummary> findSummariesByUsernameOrderByLastUpdatedDesc(String username);
+
+    /**
+     * Retrieves the first page of game summaries associated to the provided user name, most recently updated first.
+     * 
+     * @param username - the user name.
+     * @param pageable - the page size.
+     * @return a {@link List} of {@link GameSummary} instances.
+     */
+    List<GameSummary> findSummariesByUsernameOrderByLastUpdatedDescIdDesc(String username, Pageable pageable);
+
+    /**
+     * Retrieves the page of game summaries associated to the provided user name that follows the given position,
+     * most recently updated first. The position is used as a key in the index, so skipping previous pages costs
+     * nothing.
+     * 
+     * @param username - the user name.
+     * @param lastUpdated - the last update of the last game of the previous page.
+     * @param id - the id of the last game of the previous page.
+     * @param pageable - the page size.
+     * @return a {@link List} of {@link GameSummary} instances.
+     */
+    //@formatter:off
+    @Query("select g.id as id, g.size as size, g.mines as mines, g.timer as timer, g.remainingCells as remainingCells,"
+            + " g.status as status, g.lastUpdated as lastUpdated, g.version as version from Game g"
+            + " where g.username = :username and (g.lastUpdated < :lastUpdated or (g.lastUpdated = :lastUpdated and g.id < :id))"
+            + " order by g.lastUpdated desc, g.id desc")
+    //@formatter:on
+    List<GameSummary> findSummariesByUsernameAfter(@Param("username") String username, @Param("lastUpdated") LocalDateTime lastUpdated,
+            @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Streams the game summaries associated to the provided user name, most recently updated first, reading them
+     * from a database cursor. Must be consumed inside a transaction, and closed afterwards.
+     * 
+     * @param username - the user name.
+     * @return a {@link Stream} of {@link GameSummary} instances.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<GameSummary> streamSummariesByUsernameOrderByLastUpdatedDescIdDesc(String username);
+
+    /**
+     * Retrieves a game ready to decode its board in a constant number of queries: the packed board is loaded along
+     * with the game, and legacy rows and cells, if any, are fetched with a single join.
+     * 
+     * @param id - the game id.
+     * @return an optional {@link Game} instance.
+     */
+    default Optional<Game> findWithBoardById(Long id) {
+        Optional<Game> game = findById(id);
+        if (game.isPresent() && game.get()
+                .getBoard() == null) {
+            findLegacyRowsByGameId(id);
+        }
+        return game;
+    }
+
+    /**
+     * Retrieves the legacy rows of a game, fetching all their cells in the same query.
+     * 
+     * @param gameId - the game id.
+     * @return a {@link List} of {@link Row} instances.
+     */
+    @Query("select distinct r from Row r left join fetch r.cells where r.game.id = :gameId")
+    List<Row> findLegacyRowsByGameId(@Param("gameId") Long gameId);
+
+    /**
+     * Retrieves the ids of the games still stored as legacy rows and cells, without a packed board.
+     * 
+     * @param afterId - the last id of the previous batch.
+     * @param pageable - the batch size.
+     * @return a {@link List} of game ids, in ascending order.
+     */
+    @Query("select g.id from Game g where g.id > :afterId and g.board is null and g.rows is not empty order by g.id")
+    List<Long> findIdsWithLegacyBoard(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Retrieves the highest game id associated to the provided user name.
+     * 
+     * @param username - the user name.
+     * @return the highest game id, or null if the user has no games.
+     */
+    @Query("select max(g.id) from Game g where g.username = :username")
+    Long findMaxIdByUsername(@Param("username") String username);
+
+    /**
+     * Retrieves a batch of game ids associated to the provided user name, up to the given id.
+     * 
+     * @param username - the user name.
+     * @param maxId - the highest id to retrieve.
+     * @param pageable - the batch size.
+     * @return a {@link List} of game ids, in ascending order.
+     */
+    @Query("select g.id from Game g where g.username = :username and g.id <= :maxId order by g.id")
+    List<Long> findIdsByUsername(@Param("username") String username, @Param("maxId") Long maxId, Pageable pageable);
+
+    /**
+     * Deletes, in a single statement, the legacy cells of all the games associated to the provided user name.
+     * 
+     * @param username - the user name.
+     * @return the number of deleted cells.
+     */
+    @Modifying
+    @Query("delete from Cell c where c.row.id in (select r.id from Row r where r.game.id in (select g.id from Game g where g.username = :username))")
+    int deleteLegacyCellsByUsername(@Param("username") String username);
+
+    /**
+     * Deletes, in a single statement, the legacy rows of all the games associated to the provided user name.
+     * 
+     * @param username - the user name.
+     * @return the number of deleted rows.
+     */
+    @Modifying
+    @Query("delete from Row r where r.game.id in (select g.id from Game g where g.username = :username)")
+    int deleteLegacyRowsByUsername(@Param("username") String username);
+
+    /**
+     * Deletes, in a single statement, all the games associated to the provided user name. Legacy rows and cells must
+     * be deleted first.
+     * 
+     * @param username - the user name.
+     * @return the number of deleted games.
+     */
+    @Modifying
+    @Query("delete from Game g where g.username = :username")
+    int deleteGamesByUsername(@Param("username") String username);
+
+    /**
+     * Deletes, in a single statement, the legacy cells of the given games.
+     * 
+     * @param ids - the game ids.
+     * @return the number of deleted cells.
+     */
+    @Modifying
+    @Query("delete from Cell c where c.row.id in (select r.id from Row r where r.game.id in :ids)")
+    int deleteLegacyCellsByGameIds(@Param("ids") List<Long> ids);
+
+    /**
+     * Deletes, in a single statement, the legacy rows of the given games.
+     * 
+     * @param ids - the game ids.
+     * @return the number of deleted rows.
+     */
+    @Modifying
+    @Query("delete from Row r where r.game.id in :ids")
+    int deleteLegacyRowsByGameIds(@Param("ids") List<Long> ids);
+
+    /**
+     * Deletes, in a single statement, the given games. Legacy rows and cells must be deleted first.
+     * 
+     * @param ids - the game ids.
+     * @return the number of deleted games.
+     */
+    @Modifying
+    @Query("delete from Game g where g.id in :ids")
+    int deleteGamesByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * Retrieves the version of a game associated to the given user, without loading it.
+     * 
+     * @param id - the game id.
+     * @param username - the user name.
+     * @return the game version, or null if the game is not found for the user.
+     */
+    @Query("select g.version from Game g where g.id = :id and g.username = :username")
+    Long findVersion(@Param("id") Long id, @Param("username") String username);
+
+    /**
+     * Retrieves the version of the list of games of the given user: the number of games, the sum of their versions and
+     * the last update, which change whenever a game is created, updated or deleted.
+     * 
+     * @param username - the user name.
+     * @return a {@link GameListingVersion} instance.
+     */
+    @Query("select count(g) as count, coalesce(sum(g.version), 0) as versions, max(g.lastUpdated) as lastUpdated from Game g"
+            + " where g.username = :username")
+    GameListingVersion findListingVersion(@Param("username") String username);
+
+    /**
+     * Sets the version of the games saved before games were versioned.
+     * 
+     * @return the number of updated games.
+     */
+    @Modifying
+    @Query("update Game g set g.version = 0 where g.version is null")
+    int initializeVersions();
+
+    /**
+     * Advances the version of a game to the given one, in a single statement that only succeeds if the stored version
+     * is older. Pending changes are flushed first.
+     * 
+     * @param id - the game id.
+     * @param version - the new version.
+     * @return 1 if the version was updated, 0 otherwise.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Game g set g.version = :version where g.id = :id and g.version < :version")
+    int advanceVersion(@Param("id") Long id, @Param("version") Long version);
+
+    /**
+     * Retrieves the pooled games of a board preset: games not claimed by any user, whose board is not generated yet.
+     * 
+     * @param size - the board size.
+     * @param mines - the number of mines.
      * @return a {@link List} of {@link Game} instances.
      */
-    List<Game> findAllByUsername(String username);
+    @Query("select g from Game g where g.username is null and g.board is null and g.size = :size and g.mines = :mines")
+    List<Game> findPooledGames(@Param("size") Integer size, @Param("mines") Integer mines);
+
+    /**
+     * Assigns a pooled game to a user, in a single statement that only succeeds if the game is still unclaimed.
+     * 
+     * @param id - the game id.
+     * @param username - the user name.
+     * @param lastUpdated - the time of the claim.
+     * @return 1 if the game was claimed, 0 if it was already claimed.
+     */
+    @Modifying
+    @Query("update Game g set g.username = :username, g.lastUpdated = :lastUpdated, g.version = g.version + 1"
+            + " where g.id = :id and g.username is null")
+    int claimPooledGame(@Param("id") Long id, @Param("username") String username, @Param("lastUpdated") LocalDateTime lastUpdated);
 }
@@ -0,0 +1,29 @@
+package com.deviget.minesweeper.repository;
+
+import java.time.LocalDateTime;
+import com.deviget.minesweeper.model.Game;
+import com.deviget.minesweeper.model.GameStatus;
+
+/**
+ * Projection of a {@link Game} without its board, used to list games without loading them.
+ * 
+ * @author david.rios
+ */
+public interface GameSummary {
+
+    Long getId();
+
+    Integer getSize();
+
+    Integer getMines();
+
+    Long getTimer();
+
+    Integer getRemainingCells();
+
+    GameStatus getStatus();
+
+    LocalDateTime getLastUpdated();
+
+    Long getVersion();
+}
@@ -0,0 +1,154 @@
+package com.deviget.minesweeper.security.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded in-memory cache of the principals of recently authenticated users, so requests with a valid token don't load
+ * the user from the data source.
+ * <p>
+ * Principals expire the configured time after being loaded, even if they are used meanwhile, and are evicted in least
+ * recently used order once the configured number of users is exceeded. Any change of a user must invalidate its
+ * principal.
+ * <p>
+ * A principal loaded while any user was being invalidated is not cached, so a stale copy can't replace the invalidated
+ * one.
+ *
+ * @author david.rios
+ */
+@Component
+public class UserDetailsCache {
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final boolean enabled;
+
+    private final int maxSize;
+
+    private final long ttlMs;
+
+    private long invalidations;
+
+    private long hits;
+
+    private long misses;
+
+    public UserDetailsCache(@Value("${minesweeper.principalCache.enabled:true}") boolean enabled,
+            @Value("${minesweeper.principalCache.maxSize:10000}") int maxSize, @Value("${minesweeper.principalCache.ttlMs:60000}") long ttlMs,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+        FunctionCounter.builder("minesweeper.principalCache.hits", this, UserDetailsCache::getHits)
+                .register(meterRegistry);
+        FunctionCounter.builder("minesweeper.principalCache.misses", this, UserDetailsCache::getMisses)
+                .register(meterRegistry);
+        Gauge.builder("minesweeper.principalCache.size", this, UserDetailsCache::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Retrieves a cached principal.
+     *
+     * @param username - the user name.
+     * @return the cached {@link UserDetails} instance, or null if not cached or expired.
+     */
+    public synchronized UserDetails get(String username) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = entries.get(username);
+        if (entry != null && System.currentTimeMillis() - entry.loadedAt > ttlMs) {
+            entries.remove(username);
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.userDetails;
+    }
+
+    /**
+     * @return the invalidation stamp to pass to {@link #put(UserDetails, long)} for a principal about to be loaded.
+     */
+    public synchronized long stamp() {
+        return invalidations;
+    }
+
+    /**
+     * Caches a principal loaded from the data source, unless a user was invalidated since it started loading.
+     *
+     * @param userDetails - the principal, which must not be modified afterwards.
+     * @param stamp - the invalidation stamp taken before loading the principal.
+     * @return true if the principal was cached.
+     */
+    public synchronized boolean put(UserDetails userDetails, long stamp) {
+        if (!enabled || stamp != invalidations) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        entries.put(userDetails.getUsername(), new Entry(userDetails, now));
+        Iterator<Entry> eldest = entries.values()
+                .iterator();
+        while (eldest.hasNext()) {
+            Entry entry = eldest.next();
+            if (entries.size() <= maxSize && now - entry.loadedAt <= ttlMs) {
+                break;
+            }
+            eldest.remove();
+        }
+        return true;
+    }
+
+    /**
+     * Removes the principal of a user from the cache, and prevents principals being loaded concurrently from being
+     * cached.
+     *
+     * @param username - the user name.
+     */
+    public synchronized void invalidate(String username) {
+        invalidations++;
+        entries.remove(username);
+    }
+
+    /**
+     * Removes all the principals from the cache.
+     */
+    public synchronized void invalidateAll() {
+        invalidations++;
+        entries.clear();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static class Entry {
+
+        private final UserDetails userDetails;
+
+        private final long loadedAt;
+
+        private Entry(UserDetails userDetails, long loadedAt) {
+            this.userDetails = userDetails;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
+import com.deviget.minesweeper.security.service.UserDetailsCache;
 import com.deviget.minesweeper.security.service.UserDetailsServiceImpl;
 
 /**
@@ -29,10 +30,15 @@ public class AuthTokenOncePerRequestFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenOncePerRequestFilter.class);
 
     /**
      * Parses and validates authentication token for each request, loading User details and checking authorization.
+     * User details are taken from {@link UserDetailsCache} when possible, so active users are not loaded on every
+     * request.
      */
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -42,7 +48,7 @@ public class AuthTokenOncePerRequestFilter extends OncePerRequestFilter {
             if (token != null && jwtUtils.validateToken(token)) {
                 String username = jwtUtils.getUserNameFromToken(token);
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = loadUserDetails(username);
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails
                         .getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -57,6 +63,16 @@ public class AuthTokenOncePerRequestFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails loadUserDetails(String username) {
+        UserDetails userDetails = userDetailsCache.get(username);
+        if (userDetails == null) {
+            long stamp = userDetailsCache.stamp();
+            userDetails = userDetailsService.loadUserByUsername(username);
+            userDetailsCache.put(userDetails, stamp);
+        }
+        return userDetails;
+    }
+
     /**
      * Parses the authorization header from the given request and retrieves the bearer token.
      */
@@ -2,7 +2,10 @@ package com.deviget.minesweeper;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
@@ -23,6 +26,7 @@ import com.deviget.minesweeper.model.Cell;
 import com.deviget.minesweeper.payload.dto.GameDto;
 import com.deviget.minesweeper.payload.request.LoginRequest;
 import com.deviget.minesweeper.payload.request.SignupRequest;
+import com.deviget.minesweeper.payload.response.GamePageResponse;
 import com.deviget.minesweeper.payload.response.LoginResponse;
 import com.deviget.minesweeper.payload.response.MessageResponse;
 
@@ -106,6 +110,58 @@ public class MinesweeperApplicationTest {
         assertNotNull(game.getCells(), "Game Cells is empty");
     }
 
+    @Test
+    @Order(4)
+    public void testGetAllGamesSucessfully() {
+        HttpEntity<GameDto> httpEntity = new HttpEntity<>(null, headers);
+
+        ResponseEntity<GameDto[]> response = restTemplate.exchange("/game", HttpMethod.GET, httpEntity, GameDto[].class);
+        assertEquals(HttpStatus.OK, response.getStatusCode(), "Unexpected Status code");
+
+        GameDto[] games = response.getBody();
+        assertNotNull(games, "Message Response is empty");
+        assertEquals(games[0].getId(), gameDto.getId(), "Invalid Game Id");
+        assertNull(games[0].getCells(), "Game Cells is not empty");
+    }
+
+    @Test
+    @Order(4)
+    public void testGetGamesPageSucessfully() {
+        HttpEntity<GameDto> httpEntity = new HttpEntity<>(null, headers);
+
+        ResponseEntity<GamePageResponse> response = restTemplate.exchange("/game?limit=1", HttpMethod.GET, httpEntity,
+                GamePageResponse.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode(), "Unexpected Status code");
+
+        GamePageResponse page = response.getBody();
+        assertNotNull(page, "Message Response is empty");
+        assertEquals(1, page.getGames()
+                .size(), "Invalid page size");
+        assertNotNull(page.getNextCursor(), "Next cursor is empty");
+
+        response = restTemplate.exchange("/game?limit=1&cursor=" + page.getNextCursor(), HttpMethod.GET, httpEntity,
+                GamePageResponse.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode(), "Unexpected Status code");
+        assertTrue(response.getBody()
+                .getGames()
+                .isEmpty(), "Unexpected games after last page");
+    }
+
+    @Test
+    @Order(4)
+    public void testStreamAllGamesSucessfully() {
+        HttpHeaders streamHeaders = new HttpHeaders();
+        streamHeaders.putAll(headers);
+        streamHeaders.setAccept(Collections.singletonList(MediaType.parseMediaType("application/x-ndjson")));
+        HttpEntity<GameDto> httpEntity = new HttpEntity<>(null, streamHeaders);
+
+        ResponseEntity<String> response = restTemplate.exchange("/game", HttpMethod.GET, httpEntity, String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode(), "Unexpected Status code");
+        assertNotNull(response.getBody(), "Message Response is empty");
+        assertTrue(response.getBody()
+                .contains("\"id\":" + gameDto.getId()), "Game not streamed");
+    }
+
     @Test
     @Order(3)
     public void testUpdateGameSucessfully() {
@@ -126,6 +182,107 @@ public class MinesweeperApplicationTest {
 
     @Test
     @Order(5)
+    public void testGetGameNotModified() {
+        HttpEntity<GameDto> httpEntity = new HttpEntity<>(null, headers);
+        ResponseEntity<GameDto> response = restTemplate.exchange("/game/" + gameDto.getId(), HttpMethod.GET, httpEntity, GameDto.class);
+        String eTag = response.getHeaders()
+                .getETag();
+        assertNotNull(eTag, "ETag is not present");
+        // Weak, so it holds for the compressed game as well.
+        assertTrue(eTag.startsWith("W/"), "ETag is not weak: " + eTag);
+
+        HttpHeaders conditionalHeaders = new HttpHeaders();
+        conditionalHeaders.putAll(headers);
+        conditionalHeaders.setIfNoneMatch(eTag);
+        response = restTemplate.exchange("/game/" + gameDto.getId(), HttpMethod.GET, new HttpEntity<>(null, conditionalHeaders), GameDto.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode(), "Unexpected Status code");
+        assertNull(response.getBody(), "Body sent for a matching ETag");
+        assertEquals(eTag, response.getHeaders()
+                .getETag(), "Invalid ETag");
+
+        conditionalHeaders.setIfNoneMatch("\"" + gameDto.getId() + "-0\"");
+        response = restTemplate.exchange("/game/" + gameDto.getId(), HttpMethod.GET, new HttpEntity<>(null, conditionalHeaders), GameDto.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode(), "Unexpected Status code");
+    }
+
+    @Test
+    @Order(5)
+    public void testSaveGameStaleIfMatch() {
+        HttpEntity<GameDto> httpEntity = new HttpEntity<>(null, headers);
+        GameDto game = restTemplate.exchange("/game/" + gameDto.getId(), HttpMethod.GET, httpEntity, GameDto.class)
+                .getBody();
+        assertNotNull(game, "Message Response is empty");
+
+        HttpHeaders conditionalHeaders = new HttpHeaders();
+        conditionalHeaders.putAll(headers);
+        conditionalHeaders.setIfMatch("W/\"" + game.getId() + "-" + game.getVersion() + "\"");
+        game.setTimer(2000L);
+        ResponseEntity<GameDto> response = restTemplate.postForEntity("/game", new HttpEntity<>(game, conditionalHeaders), GameDto.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode(), "Unexpected Status code");
+        assertEquals(2000L, response.getBody()
+                .getTimer(), "Invalid Timer");
+
+        // Same If-Match, now stale.
+        game.setTimer(3000L);
+        ResponseEntity<String> stale = restTemplate.postForEntity("/game", new HttpEntity<>(game, conditionalHeaders), String.class);
+        assertEquals(HttpStatus.PRECONDITION_FAILED, stale.getStatusCode(), "Unexpected Status code");
+
+        game = restTemplate.exchange("/game/" + gameDto.getId(), HttpMethod.GET, httpEntity, GameDto.class)
+                .getBody();
+        assertEquals(2000L, game.getTimer(), "Game saved with a stale If-Match");
+    }
+
+    @Test
+    @Order(5)
+    public void testListingETagChanges() {
+        HttpEntity<GameDto> httpEntity = new HttpEntity<>(null, headers);
+        String initial = getListingETag(httpEntity);
+
+        Cell[][] cells = new Cell[2][2];
+        for (int i = 0; i < cells.length; i++) {
+            for (int j = 0; j < cells.length; j++) {
+                cells[i][j] = new Cell(i, j, "covered", i == 0 && j == 0, i == 0 && j == 0 ? 0 : 1);
+            }
+        }
+        GameDto game = restTemplate.postForEntity("/game", new HttpEntity<>(new GameDto(null, null, 0L, 2, 1, cells, 3, "IN_GAME", null), headers),
+                GameDto.class)
+                .getBody();
+        assertNotNull(game, "Message Response is empty");
+        String created = getListingETag(httpEntity);
+        assertTrue(!created.equals(initial), "Listing ETag not changed after create");
+
+        game.setTimer(10L);
+        assertEquals(HttpStatus.OK, restTemplate.postForEntity("/game", new HttpEntity<>(game, headers), GameDto.class)
+                .getStatusCode(), "Unexpected Status code");
+        String updated = getListingETag(httpEntity);
+        assertTrue(!updated.equals(created), "Listing ETag not changed after update");
+
+        assertEquals(HttpStatus.OK, restTemplate.exchange("/game/" + game.getId(), HttpMethod.DELETE, httpEntity, String.class)
+                .getStatusCode(), "Unexpected Status code");
+        String deleted = getListingETag(httpEntity);
+        assertTrue(!deleted.equals(updated), "Listing ETag not changed after delete");
+
+        HttpHeaders conditionalHeaders = new HttpHeaders();
+        conditionalHeaders.putAll(headers);
+        conditionalHeaders.setIfNoneMatch(deleted);
+        assertEquals(HttpStatus.NOT_MODIFIED, restTemplate.exchange("/game", HttpMethod.GET, new HttpEntity<>(null, conditionalHeaders), String.class)
+                .getStatusCode(), "Unexpected Status code");
+        conditionalHeaders.setIfNoneMatch(updated);
+        assertEquals(HttpStatus.OK, restTemplate.exchange("/game", HttpMethod.GET, new HttpEntity<>(null, conditionalHeaders), String.class)
+                .getStatusCode(), "Unexpected Status code");
+    }
+
+    private String getListingETag(HttpEntity<GameDto> httpEntity) {
+        ResponseEntity<String> response = restTemplate.exchange("/game", HttpMethod.GET, httpEntity, String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode(), "Unexpected Status code");
+        String eTag = response.getHeaders()
+                .getETag();
+        assertNotNull(eTag, "Listing ETag is not present");
+        return eTag;
+    }
+
+    @Test
+    @Order(6)
     public void testDeleteAllGamesSucessfully() {
         HttpEntity<GameDto> httpEntity = new HttpEntity<>(null, headers);
 
@@ -0,0 +1,157 @@
+package com.deviget.minesweeper.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import com.deviget.minesweeper.model.Cell;
+import com.deviget.minesweeper.model.PackedBoard;
+import com.deviget.minesweeper.payload.dto.GameDto;
+
+public class GameBoardMessageConverterTest {
+
+    private final GameBoardMessageConverter converter = new GameBoardMessageConverter();
+
+    private static Cell[][] newCells(int size) {
+        Cell[][] cells = new Cell[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                cells[i][j] = new Cell(i, j, (i + j) % 3 == 0 ? "open" : "covered", i == j, (i + j) % 9);
+            }
+        }
+        return cells;
+    }
+
+    private byte[] write(GameDto gameDto) throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(gameDto, null, output);
+        return output.getBodyAsBytes();
+    }
+
+    private GameDto read(byte[] body) throws IOException {
+        return read(new MockHttpInputMessage(body));
+    }
+
+    private GameDto read(MockHttpInputMessage input) throws IOException {
+        return converter.read(GameDto.class, input);
+    }
+
+    /**
+     * Game header followed by a board header with the given dimensions, and the given number of cells.
+     */
+    private static byte[] body(int height, int width, int cells) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(GameBoardMessageConverter.FORMAT_VERSION);
+        out.writeLong(7);
+        out.writeLong(-1);
+        out.writeInt(height);
+        out.writeInt(1);
+        out.writeInt(-1);
+        out.writeByte(-1);
+        out.writeByte(PackedBoard.FORMAT_VERSION);
+        out.writeInt(height);
+        out.writeInt(width);
+        out.write(new byte[cells]);
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Cell[][] cells = newCells(5);
+        GameDto gameDto = new GameDto(7L, null, 120L, 5, 5, cells, 12, "IN_GAME", null);
+
+        byte[] body = write(gameDto);
+        GameDto read = read(body);
+
+        assertEquals(GameBoardMessageConverter.HEADER_LENGTH + PackedBoard.HEADER_LENGTH + 25, body.length, "Invalid length");
+        assertEquals(7L, read.getId(), "Invalid id");
+        assertEquals(120L, read.getTimer(), "Invalid timer");
+        assertEquals(5, read.getSize(), "Invalid size");
+        assertEquals(5, read.getMines(), "Invalid mines");
+        assertEquals(12, read.getRemainingCells(), "Invalid remaining cells");
+        assertEquals("IN_GAME", read.getStatus(), "Invalid status");
+        assertArrayEquals(PackedBoard.fromCells(cells)
+                .getData(), read.getPackedBoard()
+                        .getData(), "Invalid board");
+        assertArrayEquals(body, write(read), "Written again differently");
+    }
+
+    @Test
+    public void testRoundTripAbsentFields() throws IOException {
+        GameDto gameDto = new GameDto(null, null, null, 10, 10, null, null, null, null);
+
+        byte[] body = write(gameDto);
+        GameDto read = read(body);
+
+        assertEquals(GameBoardMessageConverter.HEADER_LENGTH, body.length, "Invalid length");
+        assertNull(read.getId(), "Absent id read");
+        assertNull(read.getTimer(), "Absent timer read");
+        assertNull(read.getRemainingCells(), "Absent remaining cells read");
+        assertNull(read.getStatus(), "Absent status read");
+        assertNull(read.getPackedBoard(), "Absent board read");
+        assertEquals(10, read.getSize(), "Invalid size");
+    }
+
+    @Test
+    public void testRejectsTruncatedHeader() throws IOException {
+        byte[] body = write(new GameDto(7L, null, 120L, 5, 5, newCells(5), 12, "IN_GAME", null));
+
+        assertThrows(HttpMessageNotReadableException.class, () -> read(Arrays.copyOf(body, GameBoardMessageConverter.HEADER_LENGTH - 1)));
+        assertThrows(HttpMessageNotReadableException.class, () -> read(new byte[0]));
+        assertThrows(HttpMessageNotReadableException.class, () -> read(Arrays.copyOf(body, body.length - 1)));
+    }
+
+    @Test
+    public void testRejectsBadVersion() throws IOException {
+        byte[] body = write(new GameDto(7L, null, 120L, 5, 5, newCells(5), 12, "IN_GAME", null));
+
+        byte[] version = body.clone();
+        version[0] = GameBoardMessageConverter.FORMAT_VERSION + 1;
+        assertThrows(HttpMessageNotReadableException.class, () -> read(version));
+
+        byte[] boardVersion = body.clone();
+        boardVersion[GameBoardMessageConverter.HEADER_LENGTH] = PackedBoard.FORMAT_VERSION + 1;
+        assertThrows(HttpMessageNotReadableException.class, () -> read(boardVersion));
+
+        byte[] status = body.clone();
+        status[GameBoardMessageConverter.HEADER_LENGTH - 1] = 100;
+        assertThrows(HttpMessageNotReadableException.class, () -> read(status));
+    }
+
+    @Test
+    public void testRejectsOverflowingHeader() throws IOException {
+        // 65536 * 65536 overflows to 0 as an int, matching an empty board.
+        assertThrows(HttpMessageNotReadableException.class, () -> read(body(1 << 16, 1 << 16, 0)));
+        assertThrows(HttpMessageNotReadableException.class, () -> read(body(PackedBoard.MAX_SIZE + 1, 0, 0)));
+        assertThrows(HttpMessageNotReadableException.class, () -> read(body(-1, -1, 1)));
+        assertEquals(PackedBoard.MAX_SIZE, read(body(PackedBoard.MAX_SIZE, 1, PackedBoard.MAX_SIZE)).getPackedBoard()
+                .getHeight(), "Largest board not read");
+    }
+
+    @Test
+    public void testRejectsOversizedBody() throws IOException {
+        byte[] header = body(PackedBoard.MAX_SIZE, PackedBoard.MAX_SIZE, 0);
+        // Endless body, only read up to the largest board.
+        InputStream endless = new InputStream() {
+
+            private int position;
+
+            @Override
+            public int read() {
+                return position < header.length ? header[position++] & 0xFF : 0;
+            }
+        };
+
+        assertThrows(HttpMessageNotReadableException.class, () -> read(new MockHttpInputMessage(endless)));
+    }
+}
@@ -0,0 +1,177 @@
+package com.deviget.minesweeper.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import com.deviget.minesweeper.model.Cell;
+import com.deviget.minesweeper.payload.dto.GameDto;
+import com.deviget.minesweeper.payload.response.VersionConflictResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Concurrent updates of the same game, with the move log enabled: every update either wins or gets a 409 with the
+ * current version of the game, and the recorded moves are exactly the accepted ones.
+ */
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:game-concurrency-test;LOCK_TIMEOUT=10000", "spring.datasource.username=sa",
+        "spring.datasource.password=", "spring.jpa.properties.hibernate.globally_quoted_identifiers=true", "minesweeper.moveLog.enabled=true",
+        "minesweeper.moveLog.snapshotInterval=4" })
+@AutoConfigureMockMvc
+public class GameConcurrencyTest {
+
+    private static final String USERNAME = "concurrency-test";
+
+    private static final int SIZE = 8;
+
+    private static final int THREADS = 8;
+
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Covered board with a single mine in the bottom right corner.
+     */
+    private static Cell[][] newCells() {
+        Cell[][] cells = new Cell[SIZE][SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                boolean border = i >= SIZE - 2 && j >= SIZE - 2 && !(i == SIZE - 1 && j == SIZE - 1);
+                cells[i][j] = new Cell(i, j, "covered", i == SIZE - 1 && j == SIZE - 1, border ? 1 : 0);
+            }
+        }
+        return cells;
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.with(user(USERNAME)))
+                .andReturn()
+                .getResponse();
+    }
+
+    private JsonNode saveGame(GameDto gameDto) throws Exception {
+        MockHttpServletResponse response = perform(post("/game").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(gameDto)));
+        assertEquals(HttpStatus.OK.value(), response.getStatus(), "Game not saved");
+        return objectMapper.readTree(response.getContentAsString());
+    }
+
+    private JsonNode getJson(String path) throws Exception {
+        MockHttpServletResponse response = perform(get(path));
+        assertEquals(HttpStatus.OK.value(), response.getStatus(), "Unexpected status of " + path);
+        return objectMapper.readTree(response.getContentAsString());
+    }
+
+    private static void assertConflict(long id, MockHttpServletResponse response, ObjectMapper objectMapper) throws Exception {
+        VersionConflictResponse conflict = objectMapper.readValue(response.getContentAsString(), VersionConflictResponse.class);
+        assertEquals(id, conflict.getId(), "Invalid conflicting game");
+        assertNotNull(conflict.getVersion(), "Current version not returned");
+        assertNotNull(conflict.getMessage(), "Conflict message not returned");
+        assertEquals(GameController.gameETag(id, conflict.getVersion()), response.getHeader("ETag"), "Invalid ETag");
+    }
+
+    @Test
+    public void testConcurrentMoves() throws Exception {
+        long id = saveGame(new GameDto(null, null, 0L, SIZE, 1, newCells(), SIZE * SIZE - 1, "IN_GAME", null)).get("id")
+                .asLong();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        int accepted = 0;
+        int conflicts = 0;
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    // A distinct cell for every request, so every accepted move flags one more cell.
+                    int cell = round * THREADS + t;
+                    String request = "{\"moves\":[{\"y\":" + cell / SIZE + ", \"x\":" + cell % SIZE + ", \"action\":\"FLAG\"}]}";
+                    responses.add(executor.submit(() -> {
+                        start.await();
+                        return perform(patch("/game/" + id + "/moves").contentType(MediaType.APPLICATION_JSON)
+                                .content(request));
+                    }));
+                }
+                start.countDown();
+                for (Future<MockHttpServletResponse> future : responses) {
+                    MockHttpServletResponse response = future.get();
+                    if (response.getStatus() == HttpStatus.CONFLICT.value()) {
+                        assertConflict(id, response, objectMapper);
+                        conflicts++;
+                    } else {
+                        assertEquals(HttpStatus.OK.value(), response.getStatus(), "Unexpected status: " + response.getContentAsString());
+                        accepted++;
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(accepted > 0, "No move accepted");
+        assertTrue(conflicts > 0, "No concurrent update conflicted");
+        JsonNode moves = getJson("/game/" + id + "/moves");
+        assertEquals(accepted, moves.size(), "Recorded moves are not the accepted ones");
+        for (int i = 0; i < moves.size(); i++) {
+            assertEquals(i + 1, moves.get(i)
+                    .get("seq")
+                    .asInt(), "Moves not numbered in order");
+        }
+        int flagged = 0;
+        for (JsonNode row : getJson("/game/" + id).get("cells")) {
+            for (JsonNode cell : row) {
+                flagged += "flagged".equals(cell.get("status")
+                        .asText()) ? 1 : 0;
+            }
+        }
+        assertEquals(accepted, flagged, "Board does not hold the accepted moves");
+        assertEquals(ROUNDS * THREADS, accepted + conflicts, "Missing responses");
+    }
+
+    @Test
+    public void testStaleSaveConflict() throws Exception {
+        JsonNode game = saveGame(new GameDto(null, null, 0L, SIZE, 1, newCells(), SIZE * SIZE - 1, "IN_GAME", null));
+        long id = game.get("id")
+                .asLong();
+        long version = game.get("version")
+                .asLong();
+        GameDto update = new GameDto(id, null, 10L, SIZE, 1, newCells(), SIZE * SIZE - 1, "IN_GAME", null);
+        update.setVersion(version);
+        saveGame(update);
+
+        // Same version, now stale.
+        update.setTimer(20L);
+        MockHttpServletResponse response = perform(post("/game").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)));
+
+        assertEquals(HttpStatus.CONFLICT.value(), response.getStatus(), "Stale save accepted");
+        assertConflict(id, response, objectMapper);
+        assertEquals(version + 1, objectMapper.readValue(response.getContentAsString(), VersionConflictResponse.class)
+                .getVersion(), "Invalid current version");
+        assertEquals(10L, getJson("/game/" + id).get("timer")
+                .asLong(), "Stale save applied");
+    }
+}
@@ -0,0 +1,185 @@
+package com.deviget.minesweeper.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import com.deviget.minesweeper.model.Cell;
+import com.deviget.minesweeper.payload.dto.GameDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:game-controller-test", "spring.datasource.username=sa",
+        "spring.datasource.password=", "spring.jpa.properties.hibernate.globally_quoted_identifiers=true" })
+@AutoConfigureMockMvc
+@WithMockUser(username = "controller-test")
+public class GameControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 4x4 covered board with a single mine in the bottom right corner.
+     */
+    private Cell[][] newCells() {
+        Cell[][] cells = new Cell[4][4];
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                boolean border = i >= 2 && j >= 2 && !(i == 3 && j == 3);
+                cells[i][j] = new Cell(i, j, "covered", i == 3 && j == 3, border ? 1 : 0);
+            }
+        }
+        return cells;
+    }
+
+    private JsonNode saveGame(GameDto gameDto) throws Exception {
+        String response = mockMvc.perform(post("/game").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(gameDto)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private long newGame() throws Exception {
+        return saveGame(new GameDto(null, null, 0L, 4, 1, newCells(), 15, "IN_GAME", null)).get("id")
+                .asLong();
+    }
+
+    private JsonNode getGame(long id) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/game/" + id))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+    }
+
+    @Test
+    public void testApplyMoves() throws Exception {
+        long id = newGame();
+        String request = "{\"timer\":50, \"remainingCells\":14, \"status\":\"IN_GAME\", \"moves\":[{\"y\":0, \"x\":0, \"action\":\"FLAG\"},"
+                + " {\"y\":1, \"x\":1, \"action\":\"REVEAL\"}]}";
+
+        mockMvc.perform(patch("/game/" + id + "/moves").contentType(MediaType.APPLICATION_JSON)
+                .content(request))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.timer").value(50))
+                .andExpect(jsonPath("$.remainingCells").value(14))
+                .andExpect(jsonPath("$.cells[0][0].status").value("flagged"))
+                .andExpect(jsonPath("$.cells[1][1].status").value("open"))
+                .andExpect(jsonPath("$.cells[0][1].status").value("covered"));
+
+        JsonNode game = getGame(id);
+        assertEquals("flagged", game.at("/cells/0/0/status")
+                .asText(), "Move not saved");
+        assertEquals("open", game.at("/cells/1/1/status")
+                .asText(), "Move not saved");
+    }
+
+    @Test
+    public void testApplyInvalidMoves() throws Exception {
+        long id = newGame();
+
+        mockMvc.perform(patch("/game/" + id + "/moves").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"moves\":[{\"y\":0, \"x\":0, \"action\":\"FLAG\"}, {\"y\":4, \"x\":0, \"action\":\"FLAG\"}]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/game/" + id + "/moves").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"PAUSED\", \"moves\":[{\"y\":0, \"x\":0, \"action\":\"FLAG\"}]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/game/" + id + "/moves").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"moves\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        JsonNode game = getGame(id);
+        assertEquals("covered", game.at("/cells/0/0/status")
+                .asText(), "Rejected move saved");
+        assertEquals("IN_GAME", game.get("status")
+                .asText(), "Rejected status saved");
+    }
+
+    @Test
+    public void testRevealDiff() throws Exception {
+        long id = newGame();
+        mockMvc.perform(post("/game/" + id + "/flag").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"y\":0, \"x\":3}"))
+                .andExpect(status().isOk());
+
+        String response = mockMvc.perform(post("/game/" + id + "/reveal?diff=true").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"y\":0, \"x\":0}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        // The cascade opens every cell but the mine and the flagged cell.
+        JsonNode cells = objectMapper.readTree(response)
+                .get("cells");
+        assertEquals(14, cells.size(), "Invalid number of changed cells");
+        for (JsonNode cell : cells) {
+            int y = cell.get("y")
+                    .asInt();
+            int x = cell.get("x")
+                    .asInt();
+            assertEquals("open", cell.get("status")
+                    .asText(), "Unchanged cell returned: " + cell);
+            assertFalse(y == 0 && x == 3 || y == 3 && x == 3, "Unchanged cell returned: " + cell);
+        }
+        JsonNode game = getGame(id);
+        assertEquals("flagged", game.at("/cells/0/3/status")
+                .asText(), "Flagged cell opened");
+    }
+
+    @Test
+    public void testSaveDiff() throws Exception {
+        long id = newGame();
+        Cell[][] cells = newCells();
+        cells[0][0].setStatus("flagged");
+        cells[1][1].setStatus("open");
+        // Same packed byte as before, so not changed.
+        cells[2][2].setStatus("COVERED");
+        GameDto gameDto = new GameDto(id, null, 10L, 4, 1, cells, 14, "IN_GAME", null);
+
+        String response = mockMvc.perform(post("/game?diff=true").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(gameDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.timer").value(10))
+                .andExpect(jsonPath("$.remainingCells").value(14))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        JsonNode changed = objectMapper.readTree(response)
+                .get("cells");
+        assertEquals(2, changed.size(), "Invalid number of changed cells");
+        assertEquals("flagged", changed.at("/0/status")
+                .asText(), "Invalid changed cell");
+        assertEquals(0, changed.at("/0/y")
+                .asInt(), "Invalid changed cell");
+        assertEquals(0, changed.at("/0/x")
+                .asInt(), "Invalid changed cell");
+        assertEquals("open", changed.at("/1/status")
+                .asText(), "Invalid changed cell");
+        assertEquals(1, changed.at("/1/y")
+                .asInt(), "Invalid changed cell");
+        assertEquals(1, changed.at("/1/x")
+                .asInt(), "Invalid changed cell");
+        assertTrue(changed.at("/1/mine")
+                .isBoolean(), "Changed cell not complete");
+    }
+}
@@ -0,0 +1,113 @@
+package com.deviget.minesweeper.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import com.deviget.minesweeper.model.PackedBoard;
+
+/**
+ * Uploads of boards given as cells, validated against the game size and mines, and optionally gzip compressed.
+ */
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:game-upload-test", "spring.datasource.username=sa",
+        "spring.datasource.password=", "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        "minesweeper.board.validateUploads=true", "minesweeper.request.maxInflatedBytes=4096" })
+@AutoConfigureMockMvc
+@WithMockUser(username = "upload-test")
+public class GameUploadTest {
+
+    private static final String CELL = "{\"status\":\"covered\", \"mine\":false, \"proximityMines\":1}";
+
+    private static final String MINE = "{\"status\":\"covered\", \"mine\":true, \"proximityMines\":0}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private static String game(int size, int mines, String cells) {
+        return "{\"size\":" + size + ", \"mines\":" + mines + ", \"remainingCells\":3, \"status\":\"IN_GAME\", \"timer\":0, \"cells\":" + cells
+                + "}";
+    }
+
+    private static String cells(String... rows) {
+        return "[" + String.join(", ", rows) + "]";
+    }
+
+    private static byte[] gzip(String body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static MockHttpServletRequestBuilder postGame() {
+        return post("/game").contentType(MediaType.APPLICATION_JSON);
+    }
+
+    private ResultActions save(String body) throws Exception {
+        return mockMvc.perform(postGame().content(body));
+    }
+
+    @Test
+    public void testSaveValidBoard() throws Exception {
+        save(game(2, 1, cells("[" + MINE + ", " + CELL + "]", "[" + CELL + ", null]"))).andExpect(status().isOk())
+                .andExpect(jsonPath("$.cells[0][0].mine").value(true))
+                .andExpect(jsonPath("$.cells[1][1].status").value("covered"));
+    }
+
+    @Test
+    public void testSaveCompressedBoard() throws Exception {
+        String body = game(2, 1, cells("[" + MINE + ", " + CELL + "]", "[" + CELL + ", " + CELL + "]"));
+
+        mockMvc.perform(postGame().header("Content-Encoding", "gzip")
+                .content(gzip(body)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cells[0][0].mine").value(true))
+                .andExpect(jsonPath("$.cells[0][1].proximityMines").value(1));
+    }
+
+    @Test
+    public void testRejectsCompressedBodyLargerThanLimit() throws Exception {
+        // Compresses to a few bytes, but inflates beyond the limit.
+        String row = "[" + String.join(", ", Collections.nCopies(40, CELL)) + "]";
+        String body = game(40, 0, cells(Collections.nCopies(40, row)
+                .toArray(new String[0])));
+
+        mockMvc.perform(postGame().header("Content-Encoding", "gzip")
+                .content(gzip(body)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testRejectsInvalidCells() throws Exception {
+        save(game(2, 1, cells("[" + MINE + ", " + CELL + "]", "[" + CELL + "]"))).andExpect(status().isBadRequest());
+        save(game(2, 1, cells("[" + MINE + ", 5]", "[" + CELL + ", " + CELL + "]"))).andExpect(status().isBadRequest());
+        save(game(2, 1, cells("[" + MINE + ", " + CELL + "]", "\"row\""))).andExpect(status().isBadRequest());
+        save(game(2, 1, cells("[" + MINE + ", {\"status\":\"mined\"}]", "[" + CELL + ", " + CELL + "]"))).andExpect(status().isBadRequest());
+        save(game(2, 1, cells("[" + MINE + ", {\"proximityMines\":9}]", "[" + CELL + ", " + CELL + "]"))).andExpect(status().isBadRequest());
+        // Rows longer than the largest board.
+        String longRow = "[" + String.join(", ", Collections.nCopies(PackedBoard.MAX_SIZE + 1, "null")) + "]";
+        save(game(2, 1, cells(longRow))).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testRejectsBoardNotMatchingGame() throws Exception {
+        // Board size.
+        save(game(3, 1, cells("[" + MINE + ", " + CELL + "]", "[" + CELL + ", " + CELL + "]"))).andExpect(status().isBadRequest());
+        // Mines.
+        save(game(2, 2, cells("[" + MINE + ", " + CELL + "]", "[" + CELL + ", " + CELL + "]"))).andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,149 @@
+package com.deviget.minesweeper.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.StreamUtils;
+
+public class GzipRequestFilterTest {
+
+    private static final byte[] BODY = "{\"size\":10, \"mines\":10}".getBytes(StandardCharsets.UTF_8);
+
+    private final GzipRequestFilter filter = newFilter(1024);
+
+    private static GzipRequestFilter newFilter(long maxInflatedBytes) {
+        GzipRequestFilter filter = new GzipRequestFilter();
+        ReflectionTestUtils.setField(filter, "maxInflatedBytes", maxInflatedBytes);
+        return filter;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static MockHttpServletRequest gzipRequest(byte[] body) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/game");
+        byte[] compressed = gzip(body);
+        request.addHeader("Content-Encoding", "gzip");
+        request.addHeader("Content-Length", compressed.length);
+        request.setContent(compressed);
+        return request;
+    }
+
+    /**
+     * Filters a request, returning the request passed down the chain.
+     */
+    private ServletRequest filter(GzipRequestFilter filter, MockHttpServletRequest request) throws Exception {
+        AtomicReference<ServletRequest> filtered = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> filtered.set(req));
+        return filtered.get();
+    }
+
+    @Test
+    public void testInflatesBody() throws Exception {
+        MockHttpServletRequest request = gzipRequest(BODY);
+
+        ServletRequest filtered = filter(filter, request);
+
+        assertArrayEquals(BODY, StreamUtils.copyToByteArray(filtered.getInputStream()), "Body not inflated");
+        assertEquals(-1, filtered.getContentLength(), "Compressed content length kept");
+        assertEquals(-1L, filtered.getContentLengthLong(), "Compressed content length kept");
+        HttpServletRequest filteredRequest = (HttpServletRequest) filtered;
+        for (String header : new String[] { "Content-Encoding", "Content-Length" }) {
+            assertNull(filteredRequest.getHeader(header), header + " kept");
+            assertFalse(filteredRequest.getHeaders(header)
+                    .hasMoreElements(), header + " values kept");
+            assertFalse(Collections.list(filteredRequest.getHeaderNames())
+                    .contains(header), header + " name kept");
+        }
+        assertEquals(-1, filteredRequest.getIntHeader("Content-Length"), "Compressed content length kept");
+    }
+
+    @Test
+    public void testRegistersReadListenerOnCompressedBody() throws Exception {
+        AtomicReference<ReadListener> registered = new AtomicReference<>();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/game") {
+
+            @Override
+            public ServletInputStream getInputStream() {
+                ServletInputStream compressed = super.getInputStream();
+                return new ServletInputStream() {
+
+                    @Override
+                    public int read() throws IOException {
+                        return compressed.read();
+                    }
+
+                    @Override
+                    public boolean isFinished() {
+                        return compressed.isFinished();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setReadListener(ReadListener readListener) {
+                        registered.set(readListener);
+                    }
+                };
+            }
+        };
+        request.addHeader("Content-Encoding", "gzip");
+        request.setContent(gzip(BODY));
+        ReadListener listener = mock(ReadListener.class);
+
+        ServletInputStream in = filter(filter, request).getInputStream();
+        in.setReadListener(listener);
+
+        assertSame(listener, registered.get(), "Read listener not registered");
+        assertTrue(in.isReady(), "Compressed body ready, but inflated body not");
+        assertArrayEquals(BODY, StreamUtils.copyToByteArray(in), "Body not inflated");
+        assertTrue(in.isFinished(), "Inflated body not finished");
+    }
+
+    @Test
+    public void testRejectsBodyLargerThanLimit() throws Exception {
+        byte[] body = new byte[4096];
+
+        ServletRequest filtered = filter(filter, gzipRequest(body));
+
+        IOException e = assertThrows(IOException.class, () -> StreamUtils.copyToByteArray(filtered.getInputStream()));
+        assertEquals("Inflated request body larger than 1024 bytes", e.getMessage(), "Invalid error");
+        assertArrayEquals(body, StreamUtils.copyToByteArray(filter(newFilter(body.length), gzipRequest(body)).getInputStream()),
+                "Body within the limit rejected");
+    }
+
+    @Test
+    public void testIgnoresUncompressedBody() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/game");
+        request.setContent(BODY);
+
+        assertSame(request, filter(filter, request), "Uncompressed request wrapped");
+    }
+}
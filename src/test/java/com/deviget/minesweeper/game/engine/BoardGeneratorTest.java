@@ -0,0 +1,57 @@
+package com.deviget.minesweeper.game.engine;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import com.deviget.minesweeper.model.CellStatus;
+import com.deviget.minesweeper.model.PackedBoard;
+
+public class BoardGeneratorTest {
+
+    @Test
+    public void testGenerateIsReproducible() {
+        PackedBoard board = BoardGenerator.generate(16, 30, 99, 42L, 5, 7);
+
+        assertArrayEquals(board.getData(), BoardGenerator.generate(16, 30, 99, 42L, 5, 7)
+                .getData(), "Same seed generated different boards");
+        int mines = 0;
+        for (int i = 0; i < board.getLength(); i++) {
+            assertEquals(CellStatus.COVERED, board.getStatus(i), "Cell not covered");
+            if (board.isMine(i)) {
+                mines++;
+            } else {
+                assertEquals(countAdjacentMines(board, i), board.getProximityMines(i), "Invalid proximity mines");
+            }
+        }
+        assertEquals(99, mines, "Invalid number of mines");
+    }
+
+    @Test
+    public void testFirstClickIsSafe() {
+        for (long seed = 0; seed < 100; seed++) {
+            PackedBoard board = BoardGenerator.generate(9, 9, 10, seed, 4, 4);
+            assertEquals(0, board.getProximityMines(board.indexOf(4, 4)), "First click area not empty");
+            assertFalse(board.isMine(board.indexOf(4, 4)), "First click mined");
+        }
+        // A crowded board only keeps the first click safe.
+        PackedBoard board = BoardGenerator.generate(3, 3, 8, 1L, 1, 1);
+        assertFalse(board.isMine(board.indexOf(1, 1)), "First click mined");
+        assertThrows(IllegalArgumentException.class, () -> BoardGenerator.generate(3, 3, 9, 1L, 1, 1));
+    }
+
+    private int countAdjacentMines(PackedBoard board, int index) {
+        int y = index / board.getWidth();
+        int x = index % board.getWidth();
+        int count = 0;
+        for (int ny = y - 1; ny <= y + 1; ny++) {
+            for (int nx = x - 1; nx <= x + 1; nx++) {
+                if (board.contains(ny, nx) && board.isMine(board.indexOf(ny, nx))) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,96 @@
+package com.deviget.minesweeper.game.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import com.deviget.minesweeper.model.CellStatus;
+import com.deviget.minesweeper.model.MoveType;
+import com.deviget.minesweeper.model.PackedBoard;
+
+public class GameEngineTest {
+
+    /**
+     * 4x4 board with a single mine in the bottom right corner.
+     */
+    private PackedBoard newBoard() {
+        PackedBoard board = new PackedBoard(4, 4);
+        board.set(board.indexOf(3, 3), (byte) PackedBoard.MINE_MASK);
+        board.set(board.indexOf(2, 2), (byte) 1);
+        board.set(board.indexOf(2, 3), (byte) 1);
+        board.set(board.indexOf(3, 2), (byte) 1);
+        return board;
+    }
+
+    @Test
+    public void testRevealCascadesToEmptyArea() {
+        PackedBoard board = newBoard();
+
+        MoveResult result = GameEngine.apply(board, 0, 0, MoveType.OPEN);
+
+        assertFalse(result.isMine(), "Unexpected mine");
+        assertEquals(15, result.getChangedCount(), "Invalid number of opened cells");
+        assertEquals(CellStatus.COVERED, board.getStatus(board.indexOf(3, 3)), "Mine opened");
+        assertEquals(0, GameEngine.countRemainingCells(board), "Invalid remaining cells");
+    }
+
+    @Test
+    public void testRevealSkipsFlaggedCells() {
+        PackedBoard board = newBoard();
+        GameEngine.apply(board, 0, 1, MoveType.FLAG);
+
+        MoveResult result = GameEngine.apply(board, 0, 0, MoveType.OPEN);
+
+        assertEquals(14, result.getChangedCount(), "Invalid number of opened cells");
+        assertEquals(CellStatus.FLAGGED, board.getStatus(board.indexOf(0, 1)), "Flagged cell opened");
+        assertThrows(IllegalArgumentException.class, () -> GameEngine.apply(board, 0, 1, MoveType.OPEN));
+        assertThrows(IllegalArgumentException.class, () -> GameEngine.apply(board, 4, 0, MoveType.OPEN));
+    }
+
+    @Test
+    public void testRevealMine() {
+        PackedBoard board = newBoard();
+
+        MoveResult result = GameEngine.apply(board, 3, 3, MoveType.OPEN);
+
+        assertTrue(result.isMine(), "Mine not revealed");
+        assertEquals(1, result.getChangedCount(), "Invalid number of opened cells");
+    }
+
+    @Test
+    public void testChord() {
+        PackedBoard board = newBoard();
+        GameEngine.apply(board, 2, 2, MoveType.REVEAL);
+
+        assertEquals(0, GameEngine.apply(board, 2, 2, MoveType.CHORD)
+                .getChangedCount(), "Chord without flags opened cells");
+        GameEngine.apply(board, 3, 3, MoveType.FLAG);
+        MoveResult result = GameEngine.apply(board, 2, 2, MoveType.CHORD);
+
+        assertFalse(result.isMine(), "Unexpected mine");
+        assertEquals(14, result.getChangedCount(), "Invalid number of opened cells");
+        assertEquals(0, GameEngine.countRemainingCells(board), "Invalid remaining cells");
+        assertThrows(IllegalArgumentException.class, () -> GameEngine.apply(board, 3, 3, MoveType.CHORD));
+    }
+
+    @Test
+    public void testChordWithWrongFlag() {
+        PackedBoard board = newBoard();
+        GameEngine.apply(board, 2, 2, MoveType.REVEAL);
+        GameEngine.apply(board, 3, 2, MoveType.FLAG);
+
+        assertTrue(GameEngine.apply(board, 2, 2, MoveType.CHORD)
+                .isMine(), "Mine not revealed");
+    }
+
+    @Test
+    public void testRevealLargeBoard() {
+        PackedBoard board = new PackedBoard(1000, 1000);
+
+        MoveResult result = GameEngine.apply(board, 500, 500, MoveType.OPEN);
+
+        assertEquals(1000 * 1000, result.getChangedCount(), "Invalid number of opened cells");
+        assertEquals(0, GameEngine.countRemainingCells(board), "Invalid remaining cells");
+    }
+}
@@ -0,0 +1,88 @@
+package com.deviget.minesweeper.game.pool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.deviget.minesweeper.model.Game;
+import com.deviget.minesweeper.model.GameStatus;
+import com.deviget.minesweeper.repository.GameRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BoardPoolTest {
+
+    private final GameRepository gameRepository = mock(GameRepository.class);
+
+    private final BoardPool pool = new BoardPool();
+
+    @BeforeEach
+    public void setUp() {
+        Game game = new Game(1L, null, 0L, 9, 10, null, 71, GameStatus.IN_GAME, LocalDateTime.now());
+        game.setSeed(42L);
+        game.setVersion(0L);
+        when(gameRepository.findPooledGames(9, 10)).thenReturn(Collections.singletonList(game));
+        when(gameRepository.claimPooledGame(anyLong(), anyString(), any(LocalDateTime.class))).thenReturn(1);
+        ReflectionTestUtils.setField(pool, "gameRepository", gameRepository);
+        ReflectionTestUtils.setField(pool, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(pool, "enabled", true);
+        ReflectionTestUtils.setField(pool, "presetDefinitions", "beginner:9:10");
+        // No refills, only the game left by a previous run.
+        ReflectionTestUtils.setField(pool, "lowWatermark", 0);
+        ReflectionTestUtils.setField(pool, "highWatermark", 0);
+        pool.init();
+        pool.onApplicationReady();
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static void complete(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(status);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @Test
+    public void testClaimReturnedOnRollback() {
+        Game claimed = pool.claim(9, 10, "test");
+        assertNotNull(claimed, "Pooled game not claimed");
+        assertEquals(0, pool.getSizes()
+                .get("beginner"), "Claimed game kept in the pool");
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(1, pool.getSizes()
+                .get("beginner"), "Game not returned to the pool");
+        Game reclaimed = pool.claim(9, 10, "other");
+        assertEquals("other", reclaimed.getUsername(), "Invalid user");
+        assertEquals(1L, reclaimed.getVersion(), "Returned game kept the rolled back claim");
+    }
+
+    @Test
+    public void testClaimKeptOnCommit() {
+        assertNotNull(pool.claim(9, 10, "test"), "Pooled game not claimed");
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(0, pool.getSizes()
+                .get("beginner"), "Committed game returned to the pool");
+        assertNull(pool.claim(9, 10, "other"), "Committed game claimed again");
+    }
+}
@@ -0,0 +1,154 @@
+package com.deviget.minesweeper.game.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.deviget.minesweeper.model.Cell;
+import com.deviget.minesweeper.model.Game;
+import com.deviget.minesweeper.model.GameMove;
+import com.deviget.minesweeper.model.GameStatus;
+import com.deviget.minesweeper.model.MoveType;
+import com.deviget.minesweeper.model.PackedBoard;
+import com.deviget.minesweeper.payload.request.Move;
+import com.deviget.minesweeper.repository.GameMoveRepository;
+import com.deviget.minesweeper.repository.GameRepository;
+
+public class GameMoveLogServiceTest {
+
+    private static final long ID = 1L;
+
+    private static final int SIZE = 8;
+
+    private final List<GameMove> log = new ArrayList<>();
+
+    private final GameMoveRepository gameMoveRepository = mockMoveRepository(log);
+
+    private final GameRepository gameRepository = mock(GameRepository.class);
+
+    private final GameMoveLogService service = newService();
+
+    @SuppressWarnings("unchecked")
+    private static GameMoveRepository mockMoveRepository(List<GameMove> log) {
+        GameMoveRepository repository = mock(GameMoveRepository.class);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            log.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(repository.findByGameIdAndSeqGreaterThanOrderBySeq(eq(ID), anyInt()))
+                .thenAnswer(invocation -> log.stream()
+                        .filter(move -> move.getSeq() > (int) invocation.getArgument(1))
+                        .collect(Collectors.toList()));
+        return repository;
+    }
+
+    private GameMoveLogService newService() {
+        GameMoveLogService service = new GameMoveLogService();
+        ReflectionTestUtils.setField(service, "gameMoveRepository", gameMoveRepository);
+        ReflectionTestUtils.setField(service, "gameRepository", gameRepository);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "snapshotInterval", 4);
+        return service;
+    }
+
+    /**
+     * 8x8 covered board with mines in the bottom right corner and in the middle of the left border.
+     */
+    private static PackedBoard newBoard() {
+        boolean[][] mines = new boolean[SIZE][SIZE];
+        mines[7][7] = true;
+        mines[6][7] = true;
+        mines[4][0] = true;
+        Cell[][] cells = new Cell[SIZE][SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                int proximity = 0;
+                for (int k = Math.max(0, i - 1); k <= Math.min(SIZE - 1, i + 1); k++) {
+                    for (int l = Math.max(0, j - 1); l <= Math.min(SIZE - 1, j + 1); l++) {
+                        proximity += mines[k][l] && !(k == i && l == j) ? 1 : 0;
+                    }
+                }
+                cells[i][j] = new Cell(i, j, "covered", mines[i][j], proximity);
+            }
+        }
+        return PackedBoard.fromCells(cells);
+    }
+
+    private static Game newGame() {
+        Game game = new Game(ID, "test", 0L, SIZE, 3, null, SIZE * SIZE - 3, GameStatus.IN_GAME, LocalDateTime.now());
+        game.setPackedBoard(newBoard());
+        return game;
+    }
+
+    /**
+     * Same steps as an update of the game: the moves are applied to the current board, then recorded.
+     */
+    private boolean play(Game game, PackedBoard expected, Move... moves) {
+        PackedBoard board = service.getCurrentBoard(game);
+        for (Move move : moves) {
+            GameMoveLogService.applyMove(board, move.getY(), move.getX(), move.getAction());
+            GameMoveLogService.applyMove(expected, move.getY(), move.getX(), move.getAction());
+        }
+        return service.record(game, board, Arrays.asList(moves));
+    }
+
+    @Test
+    public void testReplayAcrossSnapshots() {
+        Game game = newGame();
+        PackedBoard expected = newBoard();
+        Move[][] batches = { { new Move(7, 0, MoveType.FLAG) },
+                { new Move(7, 1, MoveType.FLAG), new Move(0, 7, MoveType.FLAG) },
+                { new Move(0, 0, MoveType.REVEAL) },
+                { new Move(7, 1, MoveType.UNFLAG), new Move(0, 7, MoveType.UNFLAG), new Move(7, 6, MoveType.REVEAL) },
+                { new Move(7, 7, MoveType.FLAG) },
+                { new Move(6, 7, MoveType.FLAG), new Move(5, 5, MoveType.OPEN) } };
+        boolean[] snapshots = { false, false, true, false, true, false };
+
+        for (int i = 0; i < batches.length; i++) {
+            assertEquals(snapshots[i], play(game, expected, batches[i]), "Invalid snapshot decision for batch " + i);
+            assertArrayEquals(expected.getData(), service.getCurrentBoard(game)
+                    .getData(), "Replayed board differs after batch " + i);
+        }
+
+        assertEquals(10, game.getMoveSeq(), "Invalid move number");
+        assertEquals(8, game.getSnapshotSeq(), "Invalid snapshot move number");
+        assertTrue(game.hasUnsnapshottedMoves(), "No moves replayed after the last snapshot");
+        assertFalse(Arrays.equals(expected.getData(), game.getPackedBoard()
+                .getData()), "Snapshot includes the moves recorded after it");
+        for (int i = 0; i < log.size(); i++) {
+            assertEquals(i + 1, log.get(i)
+                    .getSeq(), "Moves not numbered in order");
+        }
+        Game current = service.getCurrentState(game);
+        assertArrayEquals(expected.getData(), current.getPackedBoard()
+                .getData(), "Invalid current state");
+        assertFalse(current.hasUnsnapshottedMoves(), "Current state has moves to replay");
+    }
+
+    @Test
+    public void testRecordFlushesGameBeforeMoves() {
+        Game game = newGame();
+
+        play(game, newBoard(), new Move(0, 0, MoveType.FLAG));
+
+        InOrder order = inOrder(gameRepository, gameMoveRepository);
+        order.verify(gameRepository)
+                .saveAndFlush(game);
+        order.verify(gameMoveRepository)
+                .saveAll(anyList());
+    }
+}
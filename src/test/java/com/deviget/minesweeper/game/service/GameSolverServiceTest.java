@@ -0,0 +1,77 @@
+package com.deviget.minesweeper.game.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.deviget.minesweeper.model.Cell;
+import com.deviget.minesweeper.model.Game;
+import com.deviget.minesweeper.model.GameStatus;
+import com.deviget.minesweeper.payload.response.ProbabilitiesResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class GameSolverServiceTest {
+
+    private static final long ID = 1L;
+
+    private final GameService gameService = mock(GameService.class);
+
+    private final GameSolverService service = newService();
+
+    private GameSolverService newService() {
+        GameSolverService service = new GameSolverService();
+        ReflectionTestUtils.setField(service, "gameService", gameService);
+        ReflectionTestUtils.setField(service, "maxEnumerationCells", 48);
+        ReflectionTestUtils.setField(service, "probabilityBudgetMs", 500L);
+        ReflectionTestUtils.setField(service, "samples", 2000);
+        ReflectionTestUtils.setField(service, "cacheMaxBytes", 1L << 20);
+        ReflectionTestUtils.setField(service, "maxRetainedCells", 1024);
+        service.init();
+        return service;
+    }
+
+    /**
+     * 3x4 board with a single mine in the top right corner and the bottom left corner open.
+     */
+    private static Cell[][] newCells() {
+        Cell[][] cells = new Cell[3][4];
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 4; j++) {
+                int proximity = i <= 1 && j >= 2 && !(i == 0 && j == 3) ? 1 : 0;
+                cells[i][j] = new Cell(i, j, "covered", i == 0 && j == 3, proximity);
+            }
+        }
+        cells[2][0] = new Cell(2, 0, "open", false, 0);
+        return cells;
+    }
+
+    @Test
+    public void testProbabilitiesOfBoardNotMatchingSize() throws JsonProcessingException {
+        // Boards are not validated against the game size on upload.
+        Game game = new Game(ID, "test", 0L, 2, 1, null, 11, GameStatus.IN_GAME, null);
+        game.setBoardFromCellArray(newCells());
+        when(gameService.getGame(ID)).thenReturn(game);
+
+        ProbabilitiesResponse response = service.getProbabilities(ID);
+
+        double[][] probabilities = response.getProbabilities();
+        assertEquals(3, probabilities.length, "Invalid number of rows");
+        for (double[] row : probabilities) {
+            assertEquals(4, row.length, "Invalid number of columns");
+        }
+        assertTrue(Double.isNaN(probabilities[2][0]), "Open cell has a probability");
+
+        JsonNode json = new ObjectMapper().valueToTree(response)
+                .get("probabilities");
+        assertTrue(json.get(2)
+                .get(0)
+                .isNull(), "Open cell not returned as null");
+        assertEquals(probabilities[0][3], json.get(0)
+                .get(3)
+                .asDouble(), "Invalid probability returned");
+    }
+}
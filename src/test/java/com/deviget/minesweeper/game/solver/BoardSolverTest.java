@@ -0,0 +1,72 @@
+package com.deviget.minesweeper.game.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import com.deviget.minesweeper.game.engine.BoardGenerator;
+import com.deviget.minesweeper.game.engine.GameEngine;
+import com.deviget.minesweeper.model.CellStatus;
+import com.deviget.minesweeper.model.MoveType;
+import com.deviget.minesweeper.model.PackedBoard;
+
+public class BoardSolverTest {
+
+    private final BoardSolver solver = new BoardSolver(48);
+
+    private long deadline() {
+        return System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    }
+
+    @Test
+    public void testSubsetPattern() {
+        // A 1-2-1 row under three covered cells: both corners are mines, the middle cell is safe.
+        PackedBoard board = new PackedBoard(2, 3);
+        board.set(board.indexOf(0, 0), (byte) PackedBoard.MINE_MASK);
+        board.set(board.indexOf(0, 2), (byte) PackedBoard.MINE_MASK);
+        board.set(board.indexOf(1, 0), (byte) 1);
+        board.set(board.indexOf(1, 1), (byte) 2);
+        board.set(board.indexOf(1, 2), (byte) 1);
+        for (int x = 0; x < 3; x++) {
+            board.setStatus(board.indexOf(1, x), CellStatus.OPEN);
+        }
+
+        assertTrue(solver.solve(board, deadline()), "Solving not completed");
+
+        assertEquals(BoardSolver.MINE, solver.getState(board.indexOf(0, 0)), "Mine not deduced");
+        assertEquals(BoardSolver.SAFE, solver.getState(board.indexOf(0, 1)), "Safe cell not deduced");
+        assertEquals(BoardSolver.MINE, solver.getState(board.indexOf(0, 2)), "Mine not deduced");
+        assertEquals(BoardSolver.Stage.SUBSET, solver.getDeducedStage(0), "Invalid deduction stage");
+    }
+
+    @Test
+    public void testDeductionsAreSound() {
+        for (long seed = 0; seed < 50; seed++) {
+            PackedBoard board = BoardGenerator.generate(16, 30, 99, seed, 8, 15);
+            GameEngine.apply(board, 8, 15, MoveType.OPEN);
+            // Keep revealing the deduced safe cells, checking every deduction against the actual mines.
+            boolean progress = true;
+            while (progress) {
+                assertTrue(solver.solve(board, deadline()), "Solving not completed");
+                progress = false;
+                for (int i = 0; i < solver.getDeducedCount(); i++) {
+                    int cell = solver.getDeducedCell(i);
+                    assertEquals(board.isMine(cell), solver.getState(cell) == BoardSolver.MINE, "Wrong deduction");
+                    if (!board.isMine(cell) && board.getStatus(cell) != CellStatus.OPEN) {
+                        GameEngine.reveal(board, cell);
+                        progress = true;
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDeadline() {
+        PackedBoard board = BoardGenerator.generate(100, 100, 2000, 7L, 50, 50);
+        GameEngine.apply(board, 50, 50, MoveType.OPEN);
+
+        assertFalse(solver.solve(board, System.nanoTime() - 1), "Solving not stopped");
+    }
+}
@@ -0,0 +1,67 @@
+package com.deviget.minesweeper.game.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import com.deviget.minesweeper.game.solver.MineProbabilities.ComponentCounts;
+import com.deviget.minesweeper.game.solver.MineProbabilities.ComponentKey;
+
+public class ComponentCacheTest {
+
+    private static ComponentKey key(int n) {
+        return new ComponentKey(new int[] { n, -1 - n, 1 });
+    }
+
+    /**
+     * Weight of an entry of the given cells, with the key of {@link #key(int)}.
+     */
+    private static long weight(ComponentKey key, int cells) {
+        return key.getBytes() + new ComponentCounts(cells, true).getBytes() + 128;
+    }
+
+    @Test
+    public void testEvictsByBytes() {
+        long weight = weight(key(0), 10);
+        ComponentCache cache = new ComponentCache(3 * weight);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(cache.put(key(i), new ComponentCounts(10, true)), "Counts not cached");
+        }
+        assertEquals(3 * weight, cache.getBytes(), "Invalid cached bytes");
+
+        // Touched, so it's not the eldest anymore.
+        ComponentCounts counts = cache.get(key(0));
+        cache.put(key(3), new ComponentCounts(10, true));
+
+        assertEquals(3, cache.size(), "Invalid number of entries");
+        assertSame(counts, cache.get(key(0)), "Recently used counts evicted");
+        assertNull(cache.get(key(1)), "Least recently used counts not evicted");
+        assertEquals(3 * weight, cache.getBytes(), "Invalid cached bytes");
+    }
+
+    @Test
+    public void testLargeCountsEvictSeveralEntries() {
+        long small = weight(key(0), 2);
+        ComponentCache cache = new ComponentCache(weight(key(9), 20));
+        for (int i = 0; i < 4; i++) {
+            cache.put(key(i), new ComponentCounts(2, true));
+        }
+        assertEquals(4 * small, cache.getBytes(), "Invalid cached bytes");
+
+        assertTrue(cache.put(key(9), new ComponentCounts(20, true)), "Counts not cached");
+
+        assertEquals(1, cache.size(), "Small counts not evicted");
+        assertEquals(weight(key(9), 20), cache.getBytes(), "Invalid cached bytes");
+    }
+
+    @Test
+    public void testRejectsCountsLargerThanBudget() {
+        ComponentCache cache = new ComponentCache(weight(key(0), 10));
+
+        assertFalse(cache.put(key(0), new ComponentCounts(11, true)), "Counts larger than the budget cached");
+        assertEquals(0, cache.getBytes(), "Invalid cached bytes");
+        assertNull(cache.get(key(0)), "Counts larger than the budget cached");
+    }
+}
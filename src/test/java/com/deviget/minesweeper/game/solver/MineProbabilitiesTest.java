@@ -0,0 +1,126 @@
+package com.deviget.minesweeper.game.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import com.deviget.minesweeper.game.engine.BoardGenerator;
+import com.deviget.minesweeper.game.engine.GameEngine;
+import com.deviget.minesweeper.model.CellStatus;
+import com.deviget.minesweeper.model.MoveType;
+import com.deviget.minesweeper.model.PackedBoard;
+
+public class MineProbabilitiesTest {
+
+    private static final int SIZE = 6;
+
+    private static final int MINES = 7;
+
+    private long deadline() {
+        return System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    }
+
+    @Test
+    public void testExactProbabilities() {
+        MineProbabilities probabilities = new MineProbabilities(48, 1000, new ComponentCache(1 << 20));
+        for (long seed = 0; seed < 20; seed++) {
+            PackedBoard board = newBoard(seed);
+
+            assertTrue(probabilities.compute(board, MINES, deadline()), "Computing not completed");
+
+            assertTrue(probabilities.isExact(), "Probabilities not exact");
+            double[] expected = bruteForce(board);
+            for (int i = 0; i < board.getLength(); i++) {
+                assertEquals(expected[i], probabilities.getProbability(i), 1e-9, "Invalid probability");
+            }
+        }
+    }
+
+    @Test
+    public void testSampledProbabilities() {
+        // Components of more than one cell are sampled.
+        MineProbabilities probabilities = new MineProbabilities(1, 20000, new ComponentCache(1 << 20));
+        for (long seed = 0; seed < 5; seed++) {
+            PackedBoard board = newBoard(seed);
+
+            assertTrue(probabilities.compute(board, MINES, deadline()), "Computing not completed");
+
+            double[] expected = bruteForce(board);
+            for (int i = 0; i < board.getLength(); i++) {
+                assertEquals(expected[i], probabilities.getProbability(i), Math.max(0.05, probabilities.getMaxError()),
+                        "Invalid probability");
+            }
+        }
+        assertFalse(probabilities.isExact(), "Sampled probabilities reported as exact");
+    }
+
+    private PackedBoard newBoard(long seed) {
+        PackedBoard board = BoardGenerator.generate(SIZE, SIZE, MINES, seed, 0, 0);
+        GameEngine.apply(board, 0, 0, MoveType.OPEN);
+        return board;
+    }
+
+    /**
+     * Counts every placement of the mines in the covered cells consistent with the open cells.
+     */
+    private double[] bruteForce(PackedBoard board) {
+        int length = board.getLength();
+        int[] covered = new int[length];
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            if (board.getStatus(i) != CellStatus.OPEN) {
+                covered[count++] = i;
+            }
+        }
+        double[] mineCounts = new double[length];
+        boolean[] mined = new boolean[length];
+        double total = place(board, covered, count, 0, MINES, mined, mineCounts);
+        double[] expected = new double[length];
+        for (int i = 0; i < length; i++) {
+            expected[i] = board.getStatus(i) == CellStatus.OPEN ? Double.NaN : mineCounts[i] / total;
+        }
+        return expected;
+    }
+
+    private double place(PackedBoard board, int[] covered, int count, int from, int mines, boolean[] mined, double[] mineCounts) {
+        if (mines == 0) {
+            if (!consistent(board, mined)) {
+                return 0;
+            }
+            for (int i = 0; i < mined.length; i++) {
+                mineCounts[i] += mined[i] ? 1 : 0;
+            }
+            return 1;
+        }
+        double total = 0;
+        for (int i = from; i <= count - mines; i++) {
+            mined[covered[i]] = true;
+            total += place(board, covered, count, i + 1, mines - 1, mined, mineCounts);
+            mined[covered[i]] = false;
+        }
+        return total;
+    }
+
+    private boolean consistent(PackedBoard board, boolean[] mined) {
+        for (int i = 0; i < board.getLength(); i++) {
+            if (board.getStatus(i) != CellStatus.OPEN) {
+                continue;
+            }
+            int y = i / SIZE;
+            int x = i % SIZE;
+            int adjacent = 0;
+            for (int ny = y - 1; ny <= y + 1; ny++) {
+                for (int nx = x - 1; nx <= x + 1; nx++) {
+                    if (board.contains(ny, nx) && mined[board.indexOf(ny, nx)]) {
+                        adjacent++;
+                    }
+                }
+            }
+            if (adjacent != board.getProximityMines(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,49 @@
+package com.deviget.minesweeper.game.solver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.deviget.minesweeper.game.engine.GameEngine;
+import com.deviget.minesweeper.model.CellStatus;
+import com.deviget.minesweeper.model.PackedBoard;
+
+public class NoGuessGeneratorTest {
+
+    private NoGuessGenerator newGenerator() {
+        NoGuessGenerator generator = new NoGuessGenerator();
+        ReflectionTestUtils.setField(generator, "timeBudgetMs", 10_000L);
+        ReflectionTestUtils.setField(generator, "cacheSize", 10);
+        ReflectionTestUtils.setField(generator, "maxEnumerationCells", 48);
+        ReflectionTestUtils.setField(generator, "maxRetainedCells", 1 << 18);
+        generator.init();
+        return generator;
+    }
+
+    @Test
+    public void testBoardIsSolvableWithoutGuessing() {
+        NoGuessGenerator generator = newGenerator();
+        BoardSolver solver = new BoardSolver(48);
+        for (long seed = 0; seed < 5; seed++) {
+            PackedBoard board = generator.generate(16, 40, seed, 8, 8);
+
+            assertArrayEquals(board.getData(), newGenerator().generate(16, 40, seed, 8, 8)
+                    .getData(), "Same seed generated different boards");
+            GameEngine.reveal(board, board.indexOf(8, 8));
+            boolean progress = true;
+            while (progress) {
+                solver.solve(board, System.nanoTime() + TimeUnit.SECONDS.toNanos(10));
+                progress = false;
+                for (int i = 0; i < solver.getDeducedCount(); i++) {
+                    int cell = solver.getDeducedCell(i);
+                    if (solver.getState(cell) == BoardSolver.SAFE && board.getStatus(cell) != CellStatus.OPEN) {
+                        GameEngine.reveal(board, cell);
+                        progress = true;
+                    }
+                }
+            }
+            assertEquals(0, GameEngine.countRemainingCells(board), "Board not solved without guessing");
+        }
+    }
+}
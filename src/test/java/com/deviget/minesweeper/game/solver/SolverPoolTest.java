@@ -0,0 +1,52 @@
+package com.deviget.minesweeper.game.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.Test;
+import com.deviget.minesweeper.model.Cell;
+import com.deviget.minesweeper.model.PackedBoard;
+
+public class SolverPoolTest {
+
+    private final SolverPool<BoardSolver> pool = new SolverPool<>(2, 100, () -> new BoardSolver(48), BoardSolver::getCapacity);
+
+    private static PackedBoard newBoard(int size) {
+        Cell[][] cells = new Cell[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                cells[i][j] = new Cell(i, j, "covered", false, 0);
+            }
+        }
+        return PackedBoard.fromCells(cells);
+    }
+
+    @Test
+    public void testReusesReleasedSolvers() {
+        BoardSolver solver = pool.acquire();
+        solver.solve(newBoard(10), Long.MAX_VALUE);
+        pool.release(solver);
+
+        assertSame(solver, pool.acquire(), "Released solver not reused");
+        assertNotSame(solver, pool.acquire(), "Acquired solver shared");
+    }
+
+    @Test
+    public void testKeepsAtMostMaxIdle() {
+        for (int i = 0; i < 4; i++) {
+            pool.release(new BoardSolver(48));
+        }
+
+        assertEquals(2, pool.getIdleCount(), "Idle solvers not bounded");
+    }
+
+    @Test
+    public void testDropsLargeSolvers() {
+        BoardSolver solver = pool.acquire();
+        solver.solve(newBoard(11), Long.MAX_VALUE);
+
+        pool.release(solver);
+
+        assertEquals(0, pool.getIdleCount(), "Solver larger than the limit kept");
+    }
+}
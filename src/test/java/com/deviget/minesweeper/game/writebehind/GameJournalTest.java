@@ -0,0 +1,227 @@
+package com.deviget.minesweeper.game.writebehind;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.deviget.minesweeper.model.CellStatus;
+import com.deviget.minesweeper.model.Game;
+import com.deviget.minesweeper.model.GameStatus;
+import com.deviget.minesweeper.model.PackedBoard;
+
+public class GameJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private static Game newGame(long id, int size) {
+        Game game = new Game(id, "test", 0L, size, 1, null, size * size - 1, GameStatus.IN_GAME, LocalDateTime.now());
+        PackedBoard board = new PackedBoard(size, size);
+        board.set(0, (byte) PackedBoard.MINE_MASK);
+        game.setPackedBoard(board);
+        game.setVersion(1L);
+        return game;
+    }
+
+    /**
+     * @return a copy of the game with one more cell open and one more second played.
+     */
+    private static Game nextState(Game game, int cell) {
+        Game next = game.copy();
+        next.getPackedBoard()
+                .setStatus(cell, CellStatus.OPEN);
+        next.setTimer(game.getTimer() + 1);
+        next.setRemainingCells(game.getRemainingCells() - 1);
+        next.incrementVersion();
+        return next;
+    }
+
+    private static void assertSameGame(Game expected, Game actual) {
+        assertEquals(expected.getId(), actual.getId(), "Invalid id");
+        assertEquals(expected.getUsername(), actual.getUsername(), "Invalid username");
+        assertEquals(expected.getTimer(), actual.getTimer(), "Invalid timer");
+        assertEquals(expected.getRemainingCells(), actual.getRemainingCells(), "Invalid remaining cells");
+        assertEquals(expected.getStatus(), actual.getStatus(), "Invalid status");
+        assertEquals(expected.getLastUpdated(), actual.getLastUpdated(), "Invalid last update");
+        assertEquals(expected.getVersion(), actual.getVersion(), "Invalid version");
+        assertArrayEquals(expected.getBoard(), actual.getBoard(), "Invalid board");
+    }
+
+    @Test
+    public void testReadLatestStates() {
+        Path path = directory.resolve("journal");
+        GameJournal journal = new GameJournal(path, true);
+        Game first = newGame(1, 32);
+        Game second = nextState(first, 5);
+        Game third = nextState(second, 6);
+        Game other = newGame(2, 4);
+
+        journal.append(first, null, () -> {
+        });
+        long fullSize = journal.size();
+        journal.append(second, first, () -> {
+        });
+        journal.append(other, null, () -> {
+        });
+        journal.append(third, second, () -> {
+        });
+
+        Map<Long, Game> games = new GameJournal(path, true).read();
+        assertEquals(Arrays.asList(2L, 1L), Arrays.asList(games.keySet()
+                .toArray()), "Invalid journal order");
+        assertSameGame(third, games.get(1L));
+        assertSameGame(other, games.get(2L));
+        assertTrue(journal.size() < fullSize * 3, "Changes journaled in full: " + journal.size() + " bytes");
+    }
+
+    @Test
+    public void testLargeChangesJournaledInFull() {
+        Path path = directory.resolve("journal");
+        GameJournal journal = new GameJournal(path, false);
+        Game first = newGame(1, 4);
+        Game second = first.copy();
+        for (int i = 0; i < 16; i++) {
+            second.getPackedBoard()
+                    .setStatus(i, CellStatus.FLAGGED);
+        }
+
+        journal.append(first, null, () -> {
+        });
+        long fullSize = journal.size();
+        journal.append(second, first, () -> {
+        });
+
+        assertEquals(2 * fullSize, journal.size(), "Large change not journaled in full");
+        assertSameGame(second, journal.read()
+                .get(1L));
+    }
+
+    @Test
+    public void testReadIgnoresCorruptedRecords() throws IOException {
+        Path path = directory.resolve("journal");
+        GameJournal journal = new GameJournal(path, true);
+        Game first = newGame(1, 8);
+        Game second = nextState(first, 3);
+        journal.append(first, null, () -> {
+        });
+        journal.append(second, first, () -> {
+        });
+        long validSize = journal.size();
+        journal.append(newGame(2, 8), null, () -> {
+        });
+        journal.close();
+
+        byte[] data = Files.readAllBytes(path);
+        data[(int) validSize + 12] ^= 0x01;
+        Files.write(path, data);
+
+        Map<Long, Game> games = new GameJournal(path, true).read();
+        assertEquals(Collections.singleton(1L), games.keySet(), "Corrupted record read");
+        assertSameGame(second, games.get(1L));
+    }
+
+    @Test
+    public void testReadIgnoresOtherFormatVersions() throws IOException {
+        Path path = directory.resolve("journal");
+        GameJournal journal = new GameJournal(path, true);
+        Game first = newGame(1, 8);
+        journal.append(first, null, () -> {
+        });
+        long validSize = journal.size();
+        journal.append(newGame(2, 8), null, () -> {
+        });
+        journal.close();
+
+        // Second record with a valid checksum, but written by another version.
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(path));
+        int offset = (int) validSize;
+        int length = data.getInt(offset);
+        data.put(offset + 4, (byte) (GameJournal.FORMAT_VERSION + 1));
+        CRC32 crc = new CRC32();
+        crc.update(data.array(), offset + 4, length);
+        data.putLong(offset + 4 + length, crc.getValue());
+        Files.write(path, data.array());
+
+        Map<Long, Game> games = new GameJournal(path, true).read();
+        assertEquals(Collections.singleton(1L), games.keySet(), "Record of another version read");
+        assertSameGame(first, games.get(1L));
+    }
+
+    @Test
+    public void testReadIgnoresTornRecords() throws IOException {
+        Path path = directory.resolve("journal");
+        GameJournal journal = new GameJournal(path, true);
+        Game first = newGame(1, 8);
+        Game second = nextState(first, 3);
+        journal.append(first, null, () -> {
+        });
+        journal.append(second, first, () -> {
+        });
+        journal.close();
+
+        byte[] data = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(data, data.length - 3));
+
+        Map<Long, Game> games = new GameJournal(path, true).read();
+        assertSameGame(first, games.get(1L));
+
+        Files.write(path, Arrays.copyOf(data, 2));
+        assertTrue(new GameJournal(path, true).read()
+                .isEmpty(), "Torn header read");
+    }
+
+    @Test
+    public void testRewrite() {
+        Path path = directory.resolve("journal");
+        GameJournal journal = new GameJournal(path, true);
+        Game first = newGame(1, 8);
+        Game second = nextState(first, 3);
+        Game other = newGame(2, 8);
+        journal.append(first, null, () -> {
+        });
+        journal.append(other, null, () -> {
+        });
+        journal.append(second, first, () -> {
+        });
+
+        journal.rewrite(() -> Collections.singletonList(second));
+
+        Map<Long, Game> games = journal.read();
+        assertEquals(Collections.singleton(1L), games.keySet(), "Flushed game kept");
+        assertSameGame(second, games.get(1L));
+
+        // Appends after the rewrite go on top of the full states.
+        Game third = nextState(second, 4);
+        journal.append(third, second, () -> {
+        });
+        assertSameGame(third, new GameJournal(path, true).read()
+                .get(1L));
+
+        journal.rewrite(Collections::emptyList);
+        assertFalse(Files.exists(path), "Empty journal not deleted");
+    }
+
+    @Test
+    public void testFailedAppendIsNotPublished() {
+        GameJournal journal = new GameJournal(directory.resolve("missing")
+                .resolve("journal"), true);
+        AtomicBoolean published = new AtomicBoolean();
+
+        assertThrows(UncheckedIOException.class, () -> journal.append(newGame(1, 4), null, () -> published.set(true)));
+        assertFalse(published.get(), "Failed record published");
+    }
+}
@@ -0,0 +1,161 @@
+package com.deviget.minesweeper.game.writebehind;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import com.deviget.minesweeper.game.cache.GameCache;
+import com.deviget.minesweeper.model.Game;
+import com.deviget.minesweeper.model.GameStatus;
+import com.deviget.minesweeper.model.PackedBoard;
+import com.deviget.minesweeper.repository.GameRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class GameWriteBehindStoreTest {
+
+    private static final long ID = 1L;
+
+    @TempDir
+    Path directory;
+
+    private final Game stored = newStoredGame();
+
+    private final GameRepository gameRepository = mockRepository(stored);
+
+    private static Game newStoredGame() {
+        Game game = new Game(ID, "test", 0L, 4, 1, null, 15, GameStatus.IN_GAME, LocalDateTime.now());
+        PackedBoard board = new PackedBoard(4, 4);
+        board.set(0, (byte) PackedBoard.MINE_MASK);
+        game.setPackedBoard(board);
+        game.setVersion(1L);
+        return game;
+    }
+
+    private static GameRepository mockRepository(Game game) {
+        GameRepository repository = mock(GameRepository.class);
+        when(repository.findById(ID)).thenReturn(Optional.of(game));
+        return repository;
+    }
+
+    private GameWriteBehindStore newStore(Path journal, GameRepository repository) {
+        GameWriteBehindStore store = new GameWriteBehindStore();
+        ReflectionTestUtils.setField(store, "gameRepository", repository);
+        ReflectionTestUtils.setField(store, "gameCache", new GameCache(true, 1 << 20, 60000, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(store, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "flushIntervalMs", 60000L);
+        ReflectionTestUtils.setField(store, "maxStalenessMs", 60000L);
+        ReflectionTestUtils.setField(store, "journalPath", journal.toString());
+        ReflectionTestUtils.setField(store, "journalSync", true);
+        ReflectionTestUtils.setField(store, "journalMaxBytes", 1L << 20);
+        store.recover();
+        return store;
+    }
+
+    private Game tick(GameWriteBehindStore store) {
+        return store.update(ID, stored::copy, game -> {
+            game.setTimer(game.getTimer() + 1);
+            game.incrementVersion();
+        });
+    }
+
+    @Test
+    public void testUpdatesAreCoalesced() {
+        GameWriteBehindStore store = newStore(directory.resolve("journal"), gameRepository);
+
+        tick(store);
+        tick(store);
+        Game game = tick(store);
+
+        verify(gameRepository, never()).save(any());
+        assertEquals(3L, store.get(ID)
+                .getTimer(), "Invalid pending timer");
+        assertEquals(4L, game.getVersion(), "Invalid pending version");
+
+        ReflectionTestUtils.setField(store, "flushIntervalMs", 0L);
+        store.flushDue();
+
+        verify(gameRepository, times(1)).save(stored);
+        verify(gameRepository).advanceVersion(ID, 4L);
+        assertEquals(3L, stored.getTimer(), "Invalid flushed timer");
+        assertNull(store.get(ID), "Flushed game still pending");
+        assertFalse(Files.exists(directory.resolve("journal")), "Journal not compacted");
+    }
+
+    @Test
+    public void testTerminalStatusIsFlushed() {
+        GameWriteBehindStore store = newStore(directory.resolve("journal"), gameRepository);
+        tick(store);
+
+        store.update(ID, stored::copy, game -> {
+            game.setStatus(GameStatus.LOST);
+            game.incrementVersion();
+        });
+
+        verify(gameRepository, times(1)).save(stored);
+        verify(gameRepository).advanceVersion(ID, 3L);
+        assertEquals(GameStatus.LOST, stored.getStatus(), "Invalid flushed status");
+        assertNull(store.get(ID), "Finished game still pending");
+    }
+
+    @Test
+    public void testStaleUpdateIsDiscarded() {
+        GameWriteBehindStore store = newStore(directory.resolve("journal"), gameRepository);
+        tick(store);
+        stored.setVersion(5L);
+
+        store.flush(ID);
+
+        verify(gameRepository, never()).save(any());
+        assertNull(store.get(ID), "Stale game still pending");
+    }
+
+    @Test
+    public void testJournalRecovery() {
+        Path journal = directory.resolve("journal");
+        GameWriteBehindStore crashed = newStore(journal, gameRepository);
+        tick(crashed);
+        tick(crashed);
+
+        Game recovered = newStoredGame();
+        GameRepository repository = mockRepository(recovered);
+        GameWriteBehindStore store = newStore(journal, repository);
+
+        verify(repository, times(1)).save(recovered);
+        verify(repository).advanceVersion(ID, 3L);
+        assertEquals(2L, recovered.getTimer(), "Invalid recovered timer");
+        assertNull(store.get(ID), "Recovered game still pending");
+        assertFalse(Files.exists(journal), "Journal not compacted");
+    }
+
+    @Test
+    public void testUnjournaledUpdateIsNotPublished() throws IOException {
+        Path journal = directory.resolve("missing")
+                .resolve("journal");
+        GameWriteBehindStore store = newStore(journal, gameRepository);
+
+        assertThrows(UncheckedIOException.class, () -> tick(store));
+        assertNull(store.get(ID), "Unjournaled update published");
+
+        Files.createDirectories(journal.getParent());
+        tick(store);
+        assertEquals(1L, store.get(ID)
+                .getTimer(), "Failed update applied");
+    }
+}
@@ -0,0 +1,217 @@
+package com.deviget.minesweeper.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+public class PackedBoardTest {
+
+    private static final String[] STATUSES = { "covered", "open", "flagged", "question" };
+
+    /**
+     * Board cycling through every status, with a mine every 7 cells and every proximity value.
+     */
+    private Cell[][] newCells(int height, int width) {
+        Cell[][] cells = new Cell[height][width];
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                int n = i * width + j;
+                cells[i][j] = new Cell(i, j, STATUSES[n % STATUSES.length], n % 7 == 0, n % 9);
+            }
+        }
+        return cells;
+    }
+
+    private void assertSameCells(Cell[][] expected, Cell[][] actual) {
+        assertEquals(expected.length, actual.length, "Invalid number of rows");
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].length, actual[i].length, "Invalid number of columns");
+            for (int j = 0; j < expected[i].length; j++) {
+                Cell e = expected[i][j];
+                Cell a = actual[i][j];
+                assertEquals(e.getY(), a.getY(), "Invalid row of " + e);
+                assertEquals(e.getX(), a.getX(), "Invalid column of " + e);
+                assertEquals(e.getStatus(), a.getStatus(), "Invalid status of " + e);
+                assertEquals(e.isMine(), a.isMine(), "Invalid mine of " + e);
+                assertEquals(e.getProximityMines(), a.getProximityMines(), "Invalid proximity of " + e);
+            }
+        }
+    }
+
+    @Test
+    public void testEncodeDecodeEveryCell() {
+        for (String status : STATUSES) {
+            for (int proximity = 0; proximity <= 8; proximity++) {
+                for (boolean mine : new boolean[] { false, true }) {
+                    Cell cell = PackedBoard.decode(2, 3, PackedBoard.encode(status, mine, proximity));
+
+                    assertEquals(status, cell.getStatus(), "Invalid status");
+                    assertEquals(mine, cell.isMine(), "Invalid mine");
+                    assertEquals(proximity, cell.getProximityMines(), "Invalid proximity");
+                    assertEquals(2, cell.getY(), "Invalid row");
+                    assertEquals(3, cell.getX(), "Invalid column");
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEncodeStatusValues() {
+        assertEquals(CellStatus.OPEN, PackedBoard.statusOf(PackedBoard.encode("OPEN", false, 0)),
+                "Status value is not case insensitive");
+        assertEquals(CellStatus.COVERED, PackedBoard.statusOf(PackedBoard.encode(null, false, 0)), "Missing status not covered");
+        assertEquals(CellStatus.COVERED, PackedBoard.statusOf(PackedBoard.encode(new Cell(0, 0, null, false, null))),
+                "Missing status not covered");
+        assertThrows(IllegalArgumentException.class, () -> PackedBoard.encode("mined", false, 0));
+        assertThrows(IllegalArgumentException.class, () -> PackedBoard.encode("open", false, 9));
+        assertThrows(IllegalArgumentException.class, () -> PackedBoard.encode("open", false, -1));
+    }
+
+    @Test
+    public void testCellsRoundTrip() {
+        Cell[][] cells = newCells(5, 7);
+
+        PackedBoard board = PackedBoard.fromCells(cells);
+
+        assertEquals(5, board.getHeight(), "Invalid height");
+        assertEquals(7, board.getWidth(), "Invalid width");
+        assertEquals(PackedBoard.HEADER_LENGTH + 35, board.getData().length, "Invalid packed length");
+        assertSameCells(cells, board.toCells());
+        assertSameCells(cells, PackedBoard.fromBytes(board.getData()
+                .clone())
+                .toCells());
+    }
+
+    @Test
+    public void testCellsRoundTripInBands() {
+        int size = 300;
+        assertTrue(size * size >= RowBands.PARALLEL_THRESHOLD, "Board not split in bands");
+        Cell[][] cells = newCells(size, size);
+
+        assertSameCells(cells, PackedBoard.fromCells(cells)
+                .toCells());
+    }
+
+    @Test
+    public void testCellsWindow() {
+        Cell[][] cells = newCells(6, 6);
+        PackedBoard board = PackedBoard.fromCells(cells);
+
+        Cell[][] window = board.toCells(2, 1, 3, 4);
+
+        Cell[][] expected = new Cell[3][];
+        for (int i = 0; i < 3; i++) {
+            expected[i] = Arrays.copyOfRange(cells[2 + i], 1, 5);
+        }
+        assertSameCells(expected, window);
+    }
+
+    @Test
+    public void testFromCellsRejectsRaggedRows() {
+        Cell[][] cells = newCells(3, 3);
+        cells[1] = Arrays.copyOf(cells[1], 2);
+
+        assertThrows(IllegalArgumentException.class, () -> PackedBoard.fromCells(cells));
+    }
+
+    @Test
+    public void testFromCellsEmptyCells() {
+        Cell[][] cells = newCells(2, 2);
+        cells[0][1] = null;
+
+        PackedBoard board = PackedBoard.fromCells(cells);
+
+        assertEquals(CellStatus.COVERED, board.getStatus(1), "Missing cell not covered");
+        assertFalse(board.isMine(1), "Missing cell mined");
+        assertEquals(0, PackedBoard.fromCells(new Cell[0][])
+                .getLength(), "Empty board not empty");
+    }
+
+    @Test
+    public void testFromBytesRejectsInvalidBoards() {
+        byte[] data = PackedBoard.fromCells(newCells(3, 4))
+                .getData();
+
+        assertThrows(IllegalArgumentException.class, () -> PackedBoard.fromBytes(new byte[PackedBoard.HEADER_LENGTH - 1]));
+        assertThrows(IllegalArgumentException.class, () -> PackedBoard.fromBytes(Arrays.copyOf(data, data.length - 1)));
+        assertThrows(IllegalArgumentException.class, () -> PackedBoard.fromBytes(Arrays.copyOf(data, data.length + 1)));
+
+        byte[] version = data.clone();
+        version[0] = PackedBoard.FORMAT_VERSION + 1;
+        assertThrows(IllegalArgumentException.class, () -> PackedBoard.fromBytes(version));
+
+        byte[] negative = data.clone();
+        negative[1] = (byte) 0x80;
+        assertThrows(IllegalArgumentException.class, () -> PackedBoard.fromBytes(negative));
+
+        // 65536 * 65536 overflows to 0 as an int.
+        byte[] overflowing = new byte[PackedBoard.HEADER_LENGTH];
+        overflowing[0] = PackedBoard.FORMAT_VERSION;
+        overflowing[2] = 1;
+        overflowing[6] = 1;
+        assertThrows(IllegalArgumentException.class, () -> PackedBoard.fromBytes(overflowing));
+        assertThrows(IllegalArgumentException.class, () -> new PackedBoard(PackedBoard.MAX_SIZE + 1, 1));
+    }
+
+    @Test
+    public void testCopyIsDetached() {
+        PackedBoard board = PackedBoard.fromCells(newCells(3, 3));
+        PackedBoard copy = board.copy();
+
+        copy.setStatus(0, CellStatus.FLAGGED);
+
+        assertEquals(CellStatus.COVERED, board.getStatus(0), "Copy shares the board");
+        assertEquals(CellStatus.FLAGGED, copy.getStatus(0), "Status not set");
+        assertEquals(board.getProximityMines(0), copy.getProximityMines(0), "Status change altered the cell");
+        assertEquals(board.isMine(0), copy.isMine(0), "Status change altered the cell");
+    }
+
+    @Test
+    public void testLegacyRowsDecoding() {
+        Cell[][] cells = newCells(4, 4);
+        Game game = new Game();
+        for (Cell[] cellsRow : cells) {
+            Row row = new Row();
+            for (Cell cell : cellsRow) {
+                row.addCell(new Cell(cell.getY(), cell.getX(), cell.getStatus()
+                        .toUpperCase(), cell.isMine(), cell.getProximityMines()));
+            }
+            game.addRow(row);
+        }
+
+        assertNull(game.getBoard(), "Legacy game has a packed board");
+        assertSameCells(cells, game.getCellArrayFromBoard());
+
+        game.setPackedBoard(game.getPackedBoard());
+
+        assertArrayEquals(game.getPackedBoard()
+                .getData(), game.getBoard(), "Packed board not stored");
+        assertTrue(game.getRows()
+                .isEmpty(), "Legacy rows not dropped");
+        assertSameCells(cells, game.getCellArrayFromBoard());
+    }
+
+    @Test
+    public void testWindowClippedToStoredBoard() {
+        Cell[][] cells = newCells(5, 5);
+        // Boards are not validated against the game size on upload.
+        Game game = new Game(1L, "test", 0L, 10, 3, null, 22, GameStatus.IN_GAME, null);
+        game.setBoardFromCellArray(cells);
+
+        Cell[][] window = game.getCellArrayFromBoard(3, 2, 10, 10);
+
+        assertSameCells(new Cell[][] { Arrays.copyOfRange(cells[3], 2, 5), Arrays.copyOfRange(cells[4], 2, 5) }, window);
+        assertEquals(0, game.getCellArrayFromBoard(6, 0, 2, 2).length, "Window outside the board not empty");
+
+        Cell[][] larger = newCells(4, 4);
+        game.setSize(2);
+        game.setBoardFromCellArray(larger);
+
+        assertSameCells(larger, game.getCellArrayFromBoard(0, 0, 8, 8));
+    }
+}
@@ -0,0 +1,58 @@
+package com.deviget.minesweeper.payload.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+import com.deviget.minesweeper.model.CellStatus;
+import com.deviget.minesweeper.model.PackedBoard;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class BoardCellsDeserializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private GameDto read(String cells) throws IOException {
+        return objectMapper.readValue("{\"size\":2, \"mines\":2, \"cells\":" + cells + "}", GameDto.class);
+    }
+
+    @Test
+    public void testReadsBoardAndCountsMines() throws IOException {
+        GameDto gameDto = read("[[{\"y\":0, \"x\":0, \"status\":\"open\", \"mine\":false, \"proximityMines\":2}, {\"status\":\"FLAGGED\", \"mine\":true,"
+                + " \"extra\":{\"a\":[1]}}], [null, {\"mine\":true, \"proximityMines\":null}]]");
+
+        PackedBoard board = gameDto.getPackedBoard();
+        assertEquals(2, gameDto.getBoardMines(), "Invalid mine count");
+        assertEquals(2, board.getHeight(), "Invalid height");
+        assertEquals(2, board.getWidth(), "Invalid width");
+        assertEquals(CellStatus.OPEN, board.getStatus(0), "Invalid status");
+        assertEquals(2, board.getProximityMines(0), "Invalid proximity");
+        assertEquals(CellStatus.FLAGGED, board.getStatus(1), "Invalid status");
+        assertEquals(PackedBoard.encode(null, false, 0), board.get(2), "Null cell not covered");
+        assertEquals(PackedBoard.encode("covered", true, 0), board.get(3), "Invalid cell");
+    }
+
+    @Test
+    public void testReadsEmptyAndNullBoards() throws IOException {
+        GameDto empty = read("[]");
+        assertEquals(0, empty.getPackedBoard()
+                .getLength(), "Empty board not empty");
+        assertEquals(0, empty.getBoardMines(), "Invalid mine count");
+
+        GameDto missing = read("null");
+        assertNull(missing.getPackedBoard(), "Missing board read");
+        assertEquals(-1, missing.getBoardMines(), "Missing board mines counted");
+    }
+
+    @Test
+    public void testRejectsInvalidBoards() {
+        assertThrows(JsonMappingException.class, () -> read("[[null, null], [null]]"), "Ragged rows accepted");
+        assertThrows(JsonMappingException.class, () -> read("[[null, 5], [null, null]]"), "Non-object cell accepted");
+        assertThrows(JsonMappingException.class, () -> read("[null, [null]]"), "Non-array row accepted");
+        assertThrows(JsonMappingException.class, () -> read("[[{\"status\":\"mined\"}]]"), "Invalid status accepted");
+        assertThrows(JsonMappingException.class, () -> read("[[{\"proximityMines\":9}]]"), "Proximity above 8 accepted");
+        assertThrows(JsonMappingException.class, () -> read("{}"), "Non-array board accepted");
+    }
+}
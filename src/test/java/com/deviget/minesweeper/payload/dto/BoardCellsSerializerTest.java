@@ -0,0 +1,80 @@
+package com.deviget.minesweeper.payload.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import com.deviget.minesweeper.model.Cell;
+import com.deviget.minesweeper.model.Game;
+import com.deviget.minesweeper.model.GameStatus;
+import com.deviget.minesweeper.model.PackedBoard;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class BoardCellsSerializerTest {
+
+    private static final String[] STATUSES = { "covered", "open", "flagged", "question" };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Board cycling through every status, with a mine every 5 cells and every proximity value.
+     */
+    private static PackedBoard newBoard(int size) {
+        Cell[][] cells = new Cell[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int n = i * size + j;
+                cells[i][j] = new Cell(i, j, STATUSES[n % STATUSES.length], n % 5 == 0, n % 9);
+            }
+        }
+        return PackedBoard.fromCells(cells);
+    }
+
+    private static GameDto newGameDto() {
+        return new GameDto(3L, "test", 10L, 6, 7, null, 20, "IN_GAME", null);
+    }
+
+    /**
+     * Serializes a game with the given packed board, and the same game with the board decoded into cells, which are
+     * serialized by Jackson as usual.
+     */
+    private void assertSameJson(GameDto packed) throws JsonProcessingException {
+        GameDto decoded = newGameDto();
+        decoded.setNoGuess(packed.getNoGuess());
+        decoded.setVersion(packed.getVersion());
+        decoded.setCells(packed.getPackedBoard()
+                .toCells());
+
+        assertEquals(objectMapper.writeValueAsString(decoded), objectMapper.writeValueAsString(packed),
+                "Packed board not serialized as its cells");
+    }
+
+    @Test
+    public void testSameJsonAsCells() throws JsonProcessingException {
+        GameDto gameDto = newGameDto();
+        gameDto.setPackedBoard(newBoard(6));
+
+        assertSameJson(gameDto);
+    }
+
+    @Test
+    public void testSameJsonAsCellsPendingGeneration() throws JsonProcessingException {
+        Game game = new Game(3L, "test", 10L, 6, 7, null, 20, GameStatus.IN_GAME, null);
+        game.setSeed(42L);
+        assertTrue(game.isPendingGeneration(), "Game not pending generation");
+
+        GameDto gameDto = GameDto.fromGame(game, true);
+
+        assertSameJson(gameDto);
+        assertEquals(objectMapper.valueToTree(game.getCellArrayFromBoard()), objectMapper.readTree(objectMapper.writeValueAsString(gameDto))
+                .get("cells"), "Pending board not fully covered");
+    }
+
+    @Test
+    public void testSameJsonAsCellsEmptyBoard() throws JsonProcessingException {
+        GameDto gameDto = newGameDto();
+        gameDto.setPackedBoard(new PackedBoard(0, 0));
+
+        assertSameJson(gameDto);
+    }
+}
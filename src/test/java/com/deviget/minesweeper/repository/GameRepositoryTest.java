@@ -0,0 +1,134 @@
+package com.deviget.minesweeper.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.deviget.minesweeper.game.service.BoardMigrationService;
+import com.deviget.minesweeper.model.Cell;
+import com.deviget.minesweeper.model.Game;
+import com.deviget.minesweeper.model.GameStatus;
+import com.deviget.minesweeper.model.PackedBoard;
+import com.deviget.minesweeper.model.Row;
+
+@DataJpaTest(properties = { "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true" })
+public class GameRepositoryTest {
+
+    private static final long MAX_STATEMENTS = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @ParameterizedTest
+    @ValueSource(ints = { 2, 10, 50 })
+    public void testLegacyBoardLoadsInBoundedStatements(int size) {
+        Long id = persistLegacyGame(size);
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        Game game = gameRepository.findWithBoardById(id)
+                .get();
+        PackedBoard board = game.getPackedBoard();
+
+        assertEquals(size, board.getHeight(), "Invalid board height");
+        assertEquals(size, board.getWidth(), "Invalid board width");
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS, "Unbounded statements for size " + size + ": "
+                + statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 2, 10, 50 })
+    public void testPackedBoardLoadsInOneStatement(int size) {
+        Game game = new Game(null, "test", 0l, size, 0, null, size * size, GameStatus.IN_GAME, null);
+        game.setPackedBoard(new PackedBoard(size, size));
+        Long id = entityManager.persistAndFlush(game)
+                .getId();
+        entityManager.clear();
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        PackedBoard board = gameRepository.findWithBoardById(id)
+                .get()
+                .getPackedBoard();
+
+        assertEquals(size, board.getHeight(), "Invalid board height");
+        assertEquals(1, statistics.getPrepareStatementCount(), "Unexpected statements for size " + size);
+    }
+
+    @Test
+    public void testMigrationPlacesCellsByCoordinates() {
+        int size = 3;
+        Game game = new Game(null, "test", 0l, size, 1, null, size * size - 1, GameStatus.IN_GAME, null);
+        // Rows and cells inserted in reverse order, so their ids do not follow the board.
+        for (int i = size - 1; i >= 0; i--) {
+            Row row = new Row();
+            for (int j = size - 1; j >= 0; j--) {
+                row.addCell(new Cell(i, j, i == 0 ? "FLAGGED" : "COVERED", i == 0 && j == 2, i * size + j == 4 ? 1 : 0));
+            }
+            game.addRow(row);
+        }
+        Long id = entityManager.persistAndFlush(game)
+                .getId();
+        entityManager.clear();
+        BoardMigrationService migrationService = new BoardMigrationService();
+        ReflectionTestUtils.setField(migrationService, "gameRepository", gameRepository);
+        ReflectionTestUtils.setField(migrationService, "transactionTemplate", new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(migrationService, "batchSize", 50);
+
+        assertEquals(1, migrationService.migrateLegacyBoards(), "Legacy board not migrated");
+        entityManager.flush();
+        entityManager.clear();
+
+        Game migrated = gameRepository.findById(id)
+                .get();
+        assertTrue(migrated.getRows()
+                .isEmpty(), "Legacy rows not dropped");
+        Cell[][] cells = migrated.getCellArrayFromBoard();
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                Cell cell = cells[i][j];
+                assertEquals(i == 0 ? "flagged" : "covered", cell.getStatus(), "Invalid status at " + i + "," + j);
+                assertEquals(i == 0 && j == 2, cell.isMine(), "Invalid mine at " + i + "," + j);
+                assertEquals(i * size + j == 4 ? 1 : 0, cell.getProximityMines(), "Invalid proximity at " + i + "," + j);
+            }
+        }
+    }
+
+    private Long persistLegacyGame(int size) {
+        Game game = new Game(null, "test", 0l, size, 0, null, size * size, GameStatus.IN_GAME, null);
+        for (int i = 0; i < size; i++) {
+            Row row = new Row();
+            for (int j = 0; j < size; j++) {
+                row.addCell(new Cell(i, j, "covered", false, 0));
+            }
+            game.addRow(row);
+        }
+        Long id = entityManager.persistAndFlush(game)
+                .getId();
+        entityManager.clear();
+        return id;
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+}
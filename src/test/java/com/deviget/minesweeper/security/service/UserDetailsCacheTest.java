@@ -0,0 +1,96 @@
+package com.deviget.minesweeper.security.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class UserDetailsCacheTest {
+
+    private static UserDetails user(String username) {
+        return User.withUsername(username)
+                .password("pwd")
+                .roles("USER")
+                .build();
+    }
+
+    private static UserDetailsCache newCache(int maxSize, long ttlMs) {
+        return new UserDetailsCache(true, maxSize, ttlMs, new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testExpiresAfterTtl() throws InterruptedException {
+        UserDetailsCache cache = newCache(10, 50);
+        UserDetails user = user("test");
+        cache.put(user, cache.stamp());
+
+        assertSame(user, cache.get("test"), "Principal not cached");
+
+        Thread.sleep(100);
+
+        assertNull(cache.get("test"), "Expired principal returned");
+        assertEquals(0, cache.size(), "Expired principal kept");
+        assertEquals(1, cache.getHits(), "Invalid hits");
+        assertEquals(1, cache.getMisses(), "Invalid misses");
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        UserDetailsCache cache = newCache(2, 60_000);
+        cache.put(user("a"), cache.stamp());
+        cache.put(user("b"), cache.stamp());
+        // Used, so "b" is the least recently used.
+        cache.get("a");
+
+        cache.put(user("c"), cache.stamp());
+
+        assertEquals(2, cache.size(), "Cache not bounded");
+        assertNull(cache.get("b"), "Least recently used principal not evicted");
+        assertEquals("a", cache.get("a")
+                .getUsername(), "Recently used principal evicted");
+        assertEquals("c", cache.get("c")
+                .getUsername(), "New principal evicted");
+    }
+
+    @Test
+    public void testRejectsPutRacingWithInvalidate() {
+        UserDetailsCache cache = newCache(10, 60_000);
+        cache.put(user("test"), cache.stamp());
+        // Loading started before the user was changed.
+        long stamp = cache.stamp();
+
+        cache.invalidate("test");
+
+        assertNull(cache.get("test"), "Invalidated principal returned");
+        assertFalse(cache.put(user("test"), stamp), "Principal loaded before the invalidation cached");
+        assertNull(cache.get("test"), "Stale principal returned");
+        assertTrue(cache.put(user("test"), cache.stamp()), "Principal loaded after the invalidation not cached");
+        assertEquals("test", cache.get("test")
+                .getUsername(), "Principal not cached");
+    }
+
+    @Test
+    public void testInvalidateAll() {
+        UserDetailsCache cache = newCache(10, 60_000);
+        cache.put(user("a"), cache.stamp());
+        long stamp = cache.stamp();
+
+        cache.invalidateAll();
+
+        assertEquals(0, cache.size(), "Principals kept");
+        assertFalse(cache.put(user("b"), stamp), "Principal loaded before the invalidation cached");
+    }
+
+    @Test
+    public void testDisabled() {
+        UserDetailsCache cache = new UserDetailsCache(false, 10, 60_000, new SimpleMeterRegistry());
+
+        assertFalse(cache.put(user("test"), cache.stamp()), "Principal cached while disabled");
+        assertNull(cache.get("test"), "Principal returned while disabled");
+    }
+}